@@ -0,0 +1,46 @@
+package core.benchmarks;
+
+import core.board.Board;
+import core.board.Position;
+import core.chess.ChessMatch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private Board board;
+    private Position[] positions;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ChessMatch match = Positions.load(phase);
+        java.lang.reflect.Field field = ChessMatch.class.getDeclaredField("board");
+        field.setAccessible(true);
+        board = (Board) field.get(match);
+        positions = new Position[64];
+        for (int sq = 0; sq < 64; sq++) {
+            positions[sq] = new Position(sq >>> 3, sq & 7);
+        }
+    }
+
+    /**
+     * Varredura das 64 casas por {@link Board#piece(Position)}.
+     */
+    @Benchmark
+    public void pieceScan(Blackhole bh) {
+        for (Position p : positions) {
+            bh.consume(board.piece(p));
+        }
+    }
+}
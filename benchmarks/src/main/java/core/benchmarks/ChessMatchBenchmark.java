@@ -0,0 +1,75 @@
+package core.benchmarks;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.ChessPosition;
+import core.chess.enums.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private ChessMatch match;
+    private ChessPosition source;
+    private ChessPosition target;
+    private Color player;
+    private final int[] moves = new int[256];
+
+    @Setup
+    public void setUp() {
+        match = Positions.load(phase);
+        int move = Positions.firstLegalMove(match);
+        source = Positions.source(move);
+        target = Positions.target(move);
+        player = match.getCurrentPlayer();
+    }
+
+    /**
+     * Custo de base para {@link #performChessMove()}, que precisa partir de uma cópia a cada chamada.
+     */
+    @Benchmark
+    public ChessMatch copy() {
+        return match.copy();
+    }
+
+    @Benchmark
+    public ChessPiece performChessMove() {
+        return match.copy().performChessMove(source, target);
+    }
+
+    @Benchmark
+    public boolean[][] possibleMoves() {
+        return match.possibleMoves(source);
+    }
+
+    /**
+     * Geração de lances legais em buffer reaproveitado; deve reportar alocação zero.
+     */
+    @Benchmark
+    public int legalMoves() {
+        return match.legalMoves(moves);
+    }
+
+    @Benchmark
+    public boolean testCheck() {
+        return match.isInCheck(player);
+    }
+
+    /**
+     * Detecção de mate como a partida faz ao fim de um lance: xeque e nenhum lance legal para o jogador da vez.
+     */
+    @Benchmark
+    public boolean testCheckMate() {
+        return match.legalMoves(moves) == 0 && match.isInCheck(player);
+    }
+}
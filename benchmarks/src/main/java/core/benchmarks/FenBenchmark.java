@@ -0,0 +1,47 @@
+package core.benchmarks;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private String fen;
+    private ChessMatch match;
+    private final StringBuilder out = new StringBuilder(100);
+
+    @Setup
+    public void setUp() {
+        match = Positions.load(phase);
+        fen = Fen.toFen(match);
+    }
+
+    /**
+     * Montagem de uma partida completa a partir da FEN.
+     */
+    @Benchmark
+    public ChessMatch parse() {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * Escrita da FEN em um builder reaproveitado.
+     */
+    @Benchmark
+    public int write() {
+        out.setLength(0);
+        Fen.write(match, out);
+        return out.length();
+    }
+}
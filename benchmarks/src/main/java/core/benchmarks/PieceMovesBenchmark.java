@@ -0,0 +1,52 @@
+package core.benchmarks;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    @Param({"P", "N", "B", "R", "Q", "K"})
+    public String piece;
+
+    private ChessPiece subject;
+
+    @Setup
+    public void setUp() {
+        ChessMatch match = Positions.load(phase);
+        ChessPiece[][] pieces = match.getPieces();
+        // primeira peça do tipo pedido, de qualquer cor; posições sem a peça usam o rei
+        for (ChessPiece[] row : pieces) {
+            for (ChessPiece p : row) {
+                if (p != null && subject == null && p.toString().equals(piece)) {
+                    subject = p;
+                }
+            }
+        }
+        if (subject == null) {
+            for (ChessPiece[] row : pieces) {
+                for (ChessPiece p : row) {
+                    if (p != null && subject == null && p.toString().equals("K")) {
+                        subject = p;
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean[][] possibleMoves() {
+        return subject.possibleMoves();
+    }
+}
@@ -0,0 +1,51 @@
+package core.benchmarks;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.Fen;
+import core.chess.Move;
+
+/**
+ * Posições de referência usadas pelos benchmarks, uma por fase da partida.
+ */
+final class Positions {
+
+    static final String OPENING = Fen.INITIAL;
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private Positions() {
+    }
+
+    static ChessMatch load(String phase) {
+        switch (phase) {
+            case "opening": return Fen.parse(OPENING);
+            case "middlegame": return Fen.parse(MIDDLEGAME);
+            case "endgame": return Fen.parse(ENDGAME);
+            default: throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+    }
+
+    static ChessPosition chessPosition(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
+    }
+
+    /**
+     * Primeiro lance legal do jogador da vez, usado como lance fixo nos benchmarks de performChessMove.
+     */
+    static int firstLegalMove(ChessMatch match) {
+        int[] moves = new int[256];
+        if (match.legalMoves(moves) == 0) {
+            throw new IllegalStateException("Position has no legal moves");
+        }
+        return moves[0];
+    }
+
+    static ChessPosition source(int move) {
+        return chessPosition(Move.from(move));
+    }
+
+    static ChessPosition target(int move) {
+        return chessPosition(Move.to(move));
+    }
+}
@@ -0,0 +1,118 @@
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.ChessPosition;
+import core.chess.exceptions.ChessException;
+import core.server.GameServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Scanner;
+
+public class ChessSystemApplication {
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            startServer(args);
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+        ChessMatch match = new ChessMatch();
+        List<ChessPiece> captured = new ArrayList<>();
+
+        while (!match.isGameOver()) {
+            try {
+                UI.clearScreen();
+                UI.printMatch(match, captured);
+                System.out.println();
+                System.out.println("Source: ");
+                ChessPosition source = UI.readChessPosition(sc);
+
+                boolean[][] possibleMoves = match.possibleMoves(source);
+                UI.clearScreen();
+                UI.printBoard(match.getPieces(), possibleMoves);
+
+                System.out.println();
+                System.out.println("Target: ");
+                ChessPosition target = UI.readChessPosition(sc);
+
+                ChessPiece capturedPiece = match.performChessMove(source, target);
+
+                if (capturedPiece != null) {
+                    captured.add(capturedPiece);
+                }
+
+                if (match.getPromoted() != null) {
+                    System.out.println("Enter piece for promotion (B/N/R/Q): ");
+                    String type = sc.nextLine().toUpperCase();
+                    while (!type.equals("B") && !type.equals("N") && !type.equals("R") && !type.equals("Q")) {
+                        System.out.println("Invalid value! Enter piece for promotion (B/N/R/Q): ");
+                        type = sc.nextLine().toUpperCase();
+                    }
+                    match.replacePromotedPiece(type);
+                }
+            } catch (ChessException e) {
+                System.out.println(e.getMessage());
+                sc.nextLine();
+            } catch (InputMismatchException e) {
+                System.out.println(e.getMessage());
+                sc.nextLine();
+            }
+        }
+        UI.clearScreen();
+        UI.printMatch(match, captured);
+    }
+
+    /**
+     * --server [porta] [--journal dir] [--batch n] [--max-delay-us n] [--snapshot-minutes n]
+     * Sem --journal, as partidas ficam só em memória.
+     */
+    private static void startServer(String[] args) throws IOException {
+        int port = 7878;
+        Path journal = null;
+        int batch = GameServer.DEFAULT_JOURNAL_BATCH;
+        long delay = GameServer.DEFAULT_JOURNAL_DELAY_MICROS;
+        long snapshotMinutes = GameServer.DEFAULT_SNAPSHOT_MINUTES;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--journal":
+                    journal = Path.of(value(args, ++i));
+                    break;
+                case "--batch":
+                    batch = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--max-delay-us":
+                    delay = Long.parseLong(value(args, ++i));
+                    break;
+                case "--snapshot-minutes":
+                    snapshotMinutes = Long.parseLong(value(args, ++i));
+                    break;
+                default:
+                    port = Integer.parseInt(args[i]);
+            }
+        }
+        GameServer server = journal == null
+                ? GameServer.start(port)
+                : GameServer.start(port, journal, batch, delay, snapshotMinutes);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("Shutdown failed: " + e.getMessage());
+            }
+        }));
+        System.out.println("Chess server listening on port " + server.getPort()
+                + (journal == null ? " (matches kept in memory only)" : ", journal in " + journal));
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
@@ -42,16 +42,19 @@ public class UI {
 		System.out.println();
 		System.out.println("Turn : " + chessMatch.getTurn());
 
-		if(!chessMatch.isCheckMate()){
+		if (chessMatch.isCheckMate()) {
+			System.out.println("CHECKMATE!");
+			System.out.println("Winner: " + chessMatch.getCurrentPlayer());
+		}
+		else if (chessMatch.isGameOver()) {
+			System.out.println("DRAW: " + chessMatch.getState());
+		}
+		else {
 			System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
 			if (chessMatch.isCheck()) {
 				System.out.println("CHECK!");
 			}
 		}
-		else {
-			System.out.println("CHECKMATE!");
-			System.out.println("Winner: " + chessMatch.getCurrentPlayer());
-		}
 	}
 	
 	public static void printBoard(ChessPiece[][] pieces) {
@@ -0,0 +1,52 @@
+package core.archive;
+
+import core.chess.ChessMatch;
+
+/**
+ * Partida decodificada de um arquivo binário.
+ */
+public final class ArchivedGame {
+
+    private final long index;
+    private final String startFen;
+    private final int[] moves;
+    private final String result;
+    private final ChessMatch match;
+
+    ArchivedGame(long index, String startFen, int[] moves, String result, ChessMatch match) {
+        this.index = index;
+        this.startFen = startFen;
+        this.moves = moves;
+        this.result = result;
+        this.match = match;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * FEN da posição inicial, ou null quando a partida começa da posição padrão.
+     */
+    public String getStartFen() {
+        return startFen;
+    }
+
+    /**
+     * Lances no formato de {@link core.chess.Move}.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Partida na posição final, com os lances jogados como lances da partida (ver {@link ChessMatch#takeback()}).
+     */
+    public ChessMatch getMatch() {
+        return match;
+    }
+}
@@ -0,0 +1,42 @@
+package core.archive;
+
+/**
+ * Formato binário de arquivo de partidas (little-endian):
+ * <pre>
+ * cabeçalho   magic "CHGA" (int), versão (int), quantidade de partidas (long), posição do índice (long)
+ * partidas    lances (u16), resultado (u8), flags (u8), [tamanho da FEN (u16), FEN em ASCII], um byte por lance
+ * índice      posição da primeira partida de cada bloco de {@link #BLOCK_SIZE} partidas (long)
+ * </pre>
+ * Cada lance é o índice do lance na lista canônica de lances legais da posição (ver {@link MoveCodec}).
+ * Para chegar à partida N basta ler a posição do bloco no índice e saltar as partidas anteriores do bloco
+ * pelos seus cabeçalhos.
+ */
+public final class GameArchive {
+
+    static final int MAGIC = 0x41474843; // "CHGA" em little-endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int GAME_HEADER_SIZE = 4;
+    static final int FLAG_FEN = 1;
+    static final int MAX_PLIES = 0xFFFF;
+
+    public static final int BLOCK_SIZE = 256;
+
+    private static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+    private GameArchive() {
+    }
+
+    static int resultCode(String result) {
+        for (int i = 0; i < RESULTS.length; i++) {
+            if (RESULTS[i].equals(result)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    static String result(int code) {
+        return RESULTS[code & 3];
+    }
+}
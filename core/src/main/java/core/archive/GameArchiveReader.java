@@ -0,0 +1,137 @@
+package core.archive;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.exceptions.ChessException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitura de arquivos no formato de {@link GameArchive} por mapeamento em memória. O arquivo é mapeado em
+ * trechos de até 1 GB e as partidas são decodificadas sob demanda, reproduzindo os lances em um {@link ChessMatch}.
+ * Só há leituras absolutas nos buffers mapeados, então a mesma instância pode ser usada por várias threads.
+ */
+public class GameArchiveReader implements Closeable {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+    private final long games;
+    private final long indexPosition;
+
+    public GameArchiveReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            int count = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+            chunks = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 1L << CHUNK_BITS));
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if (size < GameArchive.HEADER_SIZE || readInt(0) != GameArchive.MAGIC) {
+                throw new IOException("Not a game archive: " + file);
+            }
+            if (readInt(4) != GameArchive.VERSION) {
+                throw new IOException("Unsupported game archive version: " + readInt(4));
+            }
+            games = readLong(8);
+            indexPosition = readLong(16);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Decodifica a partida de número {@code index} (a partir de zero) sem percorrer o arquivo:
+     * posição do bloco pelo índice e, dentro do bloco, saltos pelos cabeçalhos das partidas.
+     */
+    public ArchivedGame read(long index) {
+        if (index < 0 || index >= games) {
+            throw new IndexOutOfBoundsException("Game " + index + " of " + games);
+        }
+        long position = readLong(indexPosition + 8 * (index / GameArchive.BLOCK_SIZE));
+        for (long i = index % GameArchive.BLOCK_SIZE; i > 0; i--) {
+            position += gameSize(position);
+        }
+
+        int plies = readShort(position);
+        String result = GameArchive.result(readByte(position + 2));
+        int flags = readByte(position + 3);
+        position += GameArchive.GAME_HEADER_SIZE;
+        String fen = null;
+        if ((flags & GameArchive.FLAG_FEN) != 0) {
+            int length = readShort(position);
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) readByte(position + 2 + i);
+            }
+            fen = new String(bytes, StandardCharsets.US_ASCII);
+            position += 2 + length;
+        }
+
+        ChessMatch match = fen == null ? new ChessMatch() : Fen.parse(fen);
+        MoveCodec codec = new MoveCodec();
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            int move = codec.decode(match, readByte(position + i));
+            match.makeMove(move);
+            moves[i] = move;
+        }
+        // decodificados sobre lances internos; a partida recebe o jogo inteiro de uma vez, com uma só publicação
+        for (int i = 0; i < plies; i++) {
+            match.unmakeMove();
+        }
+        match.playMoves(moves, plies);
+        return new ArchivedGame(index, fen, moves, result, match);
+    }
+
+    private long gameSize(long position) {
+        int flags = readByte(position + 3);
+        long size = GameArchive.GAME_HEADER_SIZE + readShort(position);
+        if ((flags & GameArchive.FLAG_FEN) != 0) {
+            size += 2 + readShort(position + GameArchive.GAME_HEADER_SIZE);
+        }
+        return size;
+    }
+
+    private int readByte(long position) {
+        if (position >= size) {
+            throw new ChessException("Corrupted archive: read past end of file");
+        }
+        return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK)) & 0xFF;
+    }
+
+    private int readShort(long position) {
+        return readByte(position) | readByte(position + 1) << 8;
+    }
+
+    private int readInt(long position) {
+        return readShort(position) | readShort(position + 2) << 16;
+    }
+
+    private long readLong(long position) {
+        return (readInt(position) & 0xFFFFFFFFL) | (long) readInt(position + 4) << 32;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,165 @@
+package core.archive;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.exceptions.ChessException;
+import core.pgn.PgnGame;
+import core.pgn.PgnReader;
+import core.pgn.PgnStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Grava partidas no formato de {@link GameArchive}. As partidas são acrescentadas em sequência por um buffer;
+ * o índice de blocos e o cabeçalho são escritos em {@link #close()}. Não é thread-safe.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final MoveCodec codec = new MoveCodec();
+    private byte[] encoded = new byte[256];
+    private long[] blocks = new long[64];
+    private long games;
+    private long position = GameArchive.HEADER_SIZE;
+
+    public GameArchiveWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        channel.position(GameArchive.HEADER_SIZE);
+    }
+
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Grava uma partida lida de PGN, a partir da posição inicial ou da tag FEN.
+     */
+    public void write(PgnGame game) throws IOException {
+        int[] moves = game.getMoves();
+        write(game.getTag("FEN"), moves, moves.length, game.getResult());
+    }
+
+    /**
+     * Grava uma partida.
+     *
+     * @param startFen posição inicial, ou null para a posição padrão
+     * @param moves    lances no formato de {@link core.chess.Move}, legais a partir da posição inicial
+     * @param result   resultado em notação PGN ("1-0", "0-1", "1/2-1/2" ou "*")
+     */
+    public void write(String startFen, int[] moves, int count, String result) throws IOException {
+        if (count > GameArchive.MAX_PLIES) {
+            throw new ChessException("Game too long for the archive: " + count + " plies");
+        }
+        byte[] fen = startFen == null ? null : startFen.getBytes(StandardCharsets.US_ASCII);
+        ChessMatch match = startFen == null ? new ChessMatch() : Fen.parse(startFen);
+        // codifica antes de escrever, para que um lance ilegal não deixe uma partida pela metade no arquivo
+        if (count > encoded.length) {
+            encoded = new byte[Math.max(count, encoded.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            encoded[i] = (byte) codec.encode(match, moves[i]);
+            match.makeMove(moves[i]);
+        }
+
+        int size = GameArchive.GAME_HEADER_SIZE + (fen == null ? 0 : 2 + fen.length) + count;
+        if (size > buffer.remaining()) {
+            flush();
+        }
+        ByteBuffer out = size > buffer.capacity() ? ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN) : buffer;
+
+        if (games % GameArchive.BLOCK_SIZE == 0) {
+            int block = (int) (games / GameArchive.BLOCK_SIZE);
+            if (block == blocks.length) {
+                blocks = Arrays.copyOf(blocks, block * 2);
+            }
+            blocks[block] = position;
+        }
+        out.putShort((short) count);
+        out.put((byte) GameArchive.resultCode(result));
+        out.put((byte) (fen == null ? 0 : GameArchive.FLAG_FEN));
+        if (fen != null) {
+            out.putShort((short) fen.length);
+            out.put(fen);
+        }
+        out.put(encoded, 0, count);
+        if (out != buffer) {
+            out.flip();
+            writeFully(out);
+        }
+        position += size;
+        games++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            int blockCount = (int) ((games + GameArchive.BLOCK_SIZE - 1) / GameArchive.BLOCK_SIZE);
+            long indexPosition = position;
+            for (int i = 0; i < blockCount; i++) {
+                if (buffer.remaining() < 8) {
+                    flush();
+                }
+                buffer.putLong(blocks[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(GameArchive.MAGIC).putInt(GameArchive.VERSION).putLong(games).putLong(indexPosition).flip();
+            channel.position(0);
+            writeFully(header);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Converte um arquivo PGN: {@code GameArchiveWriter <entrada.pgn> <saída>}. Partidas com lances ilegais
+     * são gravadas até o último lance válido.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: GameArchiveWriter <input.pgn> <output>");
+            return;
+        }
+        Path output = Paths.get(args[1]);
+        try (GameArchiveWriter writer = new GameArchiveWriter(output)) {
+            PgnStats stats = new PgnReader(1).read(Paths.get(args[0]), game -> {
+                try {
+                    writer.write(game);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.println(stats);
+        }
+        System.out.println("Archive size: " + Files.size(output) + " bytes");
+    }
+}
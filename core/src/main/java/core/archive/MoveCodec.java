@@ -0,0 +1,63 @@
+package core.archive;
+
+import core.chess.ChessMatch;
+import core.chess.exceptions.ChessException;
+
+/**
+ * Codifica cada lance como sua posição na lista de lances legais da posição, em ordem canônica
+ * (origem, destino e peça de promoção), independente da ordem em que o gerador produz os lances.
+ * Como nenhuma posição tem mais de 256 lances legais, cada lance cabe em um byte.
+ */
+final class MoveCodec {
+
+    private final int[] buffer = new int[256];
+
+    /**
+     * @return índice do lance entre os lances legais da posição atual
+     */
+    int encode(ChessMatch match, int move) {
+        int count = match.legalMoves(buffer);
+        int key = key(move);
+        int rank = 0;
+        boolean found = false;
+        for (int i = 0; i < count; i++) {
+            int other = key(buffer[i]);
+            if (other < key) {
+                rank++;
+            } else if (other == key) {
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new ChessException("Move is not legal in the current position");
+        }
+        return rank;
+    }
+
+    /**
+     * @return lance legal da posição atual com o índice informado
+     */
+    int decode(ChessMatch match, int index) {
+        int count = match.legalMoves(buffer);
+        if (index >= count) {
+            throw new ChessException("Corrupted archive: move index " + index + " of " + count);
+        }
+        // ordenação por inserção: listas curtas e quase sempre já agrupadas por casa de origem
+        for (int i = 1; i < count; i++) {
+            int move = buffer[i];
+            int key = key(move);
+            int j = i - 1;
+            while (j >= 0 && key(buffer[j]) > key) {
+                buffer[j + 1] = buffer[j];
+                j--;
+            }
+            buffer[j + 1] = move;
+        }
+        return buffer[index];
+    }
+
+    // origem, destino e tipo de promoção; as flags são deduzidas da posição
+    private static int key(int move) {
+        return move & 0x70FFF;
+    }
+}
@@ -0,0 +1,190 @@
+package core.board;
+
+import core.board.exceptions.BoardException;
+
+import java.util.SplittableRandom;
+
+public class Board {
+
+    /**
+     * Número máximo de tipos de peça (ver {@link Piece#kind()}) com bitboard próprio.
+     */
+    public static final int KINDS = 16;
+
+    // chaves aleatórias por (tipo de peça, casa) para o hash incremental da disposição das peças
+    private static final long[] KEYS = new long[KINDS * 64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = random.nextLong();
+        }
+    }
+
+    // casas do tabuleiro 8x8, compartilhadas por todos os tabuleiros desse tamanho; criadas aqui para que
+    // qualquer thread as veja inteiras. Não devem ser alteradas com os setters de Position.
+    private static final Position[] SQUARES_8X8 = new Position[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES_8X8[square] = new Position(square >>> 3, square & 7);
+        }
+    }
+
+    private int rows;
+    private int columns;
+    // casas em ordem linha a linha: square = row * columns + column
+    private Piece[] pieces;
+    // uma instância de Position por casa, compartilhada pelas peças colocadas via índice da casa; no 8x8 é a
+    // tabela comum a todos os tabuleiros, nos demais tamanhos é criada casa a casa no primeiro uso
+    private Position[] positions;
+    // uma palavra de 64 bits por tipo de peça, mais a ocupação agregada
+    private long[] bitboards = new long[KINDS];
+    private long occupied;
+    private long key;
+
+    public Board(int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new BoardException("Erro ao criar tabuleiro: é necessário pelo menos 1 linha e 1 coluna");
+        }
+        if (rows * columns > 64) {
+            throw new BoardException("Erro ao criar tabuleiro: no máximo 64 casas são suportadas");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        pieces = new Piece[rows * columns];
+        positions = rows == 8 && columns == 8 ? SQUARES_8X8 : new Position[rows * columns];
+    }
+
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Chave aleatória de uma peça do tipo {@code kind} na casa {@code square}.
+     */
+    public static long pieceKey(int kind, int square) {
+        return KEYS[kind * 64 + square];
+    }
+
+    /**
+     * Hash da disposição das peças (XOR das {@link #pieceKey} de cada peça), atualizado
+     * incrementalmente a cada colocação/remoção.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public long getBitboard(int kind) {
+        return bitboards[kind];
+    }
+
+    public int square(Position position) {
+        return position.getRow() * columns + position.getColumn();
+    }
+
+    /**
+     * Acesso direto à casa, sem validação; usado pelos caminhos quentes de geração de lances.
+     */
+    public Piece pieceAt(int square) {
+        return pieces[square];
+    }
+
+    public Piece piece(int row, int column) {
+        if (!positionExists(row, column)) {
+            throw new BoardException("Posição inválida: (" + row + ", " + column + ")");
+        }
+        return pieces[row * columns + column];
+    }
+
+    public Piece piece(Position position) {
+        if (!positionExists(position)) {
+            throw new BoardException("Posição inválida: " + position);
+        }
+        return pieces[square(position)];
+    }
+
+    public void placePiece(Piece piece, Position position) {
+        if (thereIsAPiece(position)) {
+            throw new BoardException("Já existe uma peça na posição: " + position);
+        }
+        put(piece, square(position), position);
+    }
+
+    /**
+     * Coloca a peça pelo índice da casa, sem validação nem alocação; usado pelos caminhos quentes
+     * de fazer/desfazer lances, que só operam sobre casas válidas e vazias.
+     */
+    public void placePiece(Piece piece, int square) {
+        Position position = positions[square];
+        if (position == null) {
+            position = new Position(square / columns, square % columns);
+            positions[square] = position;
+        }
+        put(piece, square, position);
+    }
+
+    public Piece removePiece(Position position) {
+        if (!positionExists(position)) {
+            throw new BoardException("Posição inválida: " + position);
+        }
+        return removePiece(square(position));
+    }
+
+    /**
+     * Remove a peça pelo índice da casa, sem validação.
+     */
+    public Piece removePiece(int square) {
+        Piece aux = pieces[square];
+        if (aux == null) {
+            return null;
+        }
+
+        pieces[square] = null;
+        aux.position = null;
+        long bit = 1L << square;
+        occupied &= ~bit;
+        int kind = aux.kind();
+        if (kind >= 0) {
+            bitboards[kind] &= ~bit;
+            key ^= KEYS[kind * 64 + square];
+        }
+        return aux;
+    }
+
+    private void put(Piece piece, int square, Position position) {
+        pieces[square] = piece;
+        piece.position = position;
+        long bit = 1L << square;
+        occupied |= bit;
+        int kind = piece.kind();
+        if (kind >= 0) {
+            bitboards[kind] |= bit;
+            key ^= KEYS[kind * 64 + square];
+        }
+    }
+
+    private boolean positionExists(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    public boolean positionExists(Position position) {
+        return positionExists(position.getRow(), position.getColumn());
+    }
+
+    public boolean thereIsAPiece(Position position) {
+        if (!positionExists(position)) {
+            throw new BoardException("Posição inválida: " + position);
+        }
+        return (occupied & (1L << square(position))) != 0;
+    }
+}
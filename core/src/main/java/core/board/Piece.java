@@ -14,6 +14,14 @@ public abstract class Piece {
         return board;
     }
 
+    /**
+     * Índice do bitboard mantido pelo {@link Board} para este tipo de peça,
+     * ou -1 quando a peça só entra na ocupação agregada.
+     */
+    protected int kind() {
+        return -1;
+    }
+
     public abstract boolean[][] possibleMoves();
 
     public boolean possibleMove(Position target) {
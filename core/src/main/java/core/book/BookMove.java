@@ -0,0 +1,63 @@
+package core.book;
+
+import core.chess.ChessPosition;
+import core.chess.Move;
+import core.chess.enums.PieceType;
+
+/**
+ * Lance de um livro de aberturas, já resolvido para um lance legal da posição consultada.
+ */
+public final class BookMove {
+
+    private final int move;
+    private final int weight;
+    private final int learn;
+
+    BookMove(int move, int weight, int learn) {
+        this.move = move;
+        this.weight = weight;
+        this.learn = learn;
+    }
+
+    /**
+     * Lance no formato de {@link Move}, aceito por {@link core.chess.ChessMatch#makeMove(int)}.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getLearn() {
+        return learn;
+    }
+
+    /**
+     * Origem e destino para {@link core.chess.ChessMatch#performChessMove}; no roque, o destino é a casa final do rei.
+     */
+    public ChessPosition getSource() {
+        return position(Move.from(move));
+    }
+
+    public ChessPosition getTarget() {
+        return position(Move.to(move));
+    }
+
+    /**
+     * Peça da promoção, para {@link core.chess.ChessMatch#replacePromotedPiece}, ou null.
+     */
+    public PieceType getPromotion() {
+        return Move.isPromotion(move) ? Move.promotionType(move) : null;
+    }
+
+    private static ChessPosition position(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
+    }
+
+    @Override
+    public String toString() {
+        return Move.toString(move) + " (" + weight + ")";
+    }
+}
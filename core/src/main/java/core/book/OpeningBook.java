@@ -0,0 +1,159 @@
+package core.book;
+
+import core.chess.ChessMatch;
+import core.chess.Move;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Livro de aberturas no formato .bin do Polyglot: entradas de 16 bytes em big-endian (chave de 64 bits,
+ * lance de 16 bits, peso de 16 bits e 32 bits de aprendizado), ordenadas pela chave. O arquivo é mapeado
+ * em memória uma única vez por JVM e as consultas fazem busca binária sobre o mapeamento, só com leituras
+ * absolutas; a mesma instância pode ser consultada por várias partidas e threads.
+ */
+public final class OpeningBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    private static final Map<Path, ByteBuffer> MAPPINGS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer entries;
+    private final int count;
+    private final PolyglotKey hasher;
+
+    private OpeningBook(ByteBuffer entries, PolyglotKey hasher) {
+        this.entries = entries;
+        this.count = entries.capacity() / ENTRY_SIZE;
+        this.hasher = hasher;
+    }
+
+    /**
+     * Abre um livro do Polyglot, com a tabela padrão ({@link PolyglotKey#standard()}).
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        return open(file, PolyglotKey.standard());
+    }
+
+    public static OpeningBook open(Path file, PolyglotKey hasher) throws IOException {
+        try {
+            return new OpeningBook(MAPPINGS.computeIfAbsent(file.toRealPath(), OpeningBook::map), hasher);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Lances do livro para a posição atual, na ordem do arquivo. Entradas que não correspondem a um
+     * lance legal (colisões de chave) são descartadas.
+     */
+    public List<BookMove> lookup(ChessMatch match) {
+        List<BookMove> result = new ArrayList<>();
+        if (match.isCheckMate()) {
+            return result;
+        }
+        long key = hasher.key(match);
+        int i = lowerBound(key);
+        if (i == count || entries.getLong(i * ENTRY_SIZE) != key) {
+            return result;
+        }
+        int[] legal = new int[256];
+        int legalCount = match.legalMoves(legal);
+        for (; i < count && entries.getLong(i * ENTRY_SIZE) == key; i++) {
+            int offset = i * ENTRY_SIZE;
+            int move = fromPolyglot(entries.getShort(offset + 8) & 0xFFFF, legal, legalCount);
+            if (move != Move.NULL) {
+                result.add(new BookMove(move, entries.getShort(offset + 10) & 0xFFFF, entries.getInt(offset + 12)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorteia um lance do livro com probabilidade proporcional ao peso, ou null se a posição não estiver no livro.
+     */
+    public BookMove choose(ChessMatch match, RandomGenerator random) {
+        List<BookMove> moves = lookup(match);
+        long total = 0;
+        for (BookMove move : moves) {
+            total += move.getWeight();
+        }
+        if (total == 0) {
+            return moves.isEmpty() ? null : moves.get(random.nextInt(moves.size()));
+        }
+        long pick = random.nextLong(total);
+        for (BookMove move : moves) {
+            pick -= move.getWeight();
+            if (pick < 0) {
+                return move;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_SIZE), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lance do Polyglot: destino nos bits 0-5 e origem nos bits 6-11 (casa = 8 * fileira + coluna, a1 = 0),
+     * promoção nos bits 12-14 (1 = cavalo ... 4 = dama, a mesma ordem de PieceType). O roque é escrito como
+     * o rei capturando a própria torre.
+     */
+    static int toPolyglot(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        if (flags == Move.KING_CASTLE) {
+            to = from + 3;
+        } else if (flags == Move.QUEEN_CASTLE) {
+            to = from - 4;
+        }
+        int promotion = Move.isPromotion(move) ? Move.promotionType(move).ordinal() : 0;
+        return (to ^ 56) | (from ^ 56) << 6 | promotion << 12;
+    }
+
+    private static int fromPolyglot(int raw, int[] legal, int count) {
+        for (int i = 0; i < count; i++) {
+            if (toPolyglot(legal[i]) == raw) {
+                return legal[i];
+            }
+        }
+        return Move.NULL;
+    }
+}
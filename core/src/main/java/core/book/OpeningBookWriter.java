@@ -0,0 +1,137 @@
+package core.book;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.enums.Color;
+import core.pgn.PgnGame;
+import core.pgn.PgnReader;
+import core.pgn.PgnStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Monta um livro no formato de {@link OpeningBook}. Entradas repetidas (mesma posição e lance) têm os pesos
+ * somados, limitados a 65535. Não é thread-safe.
+ */
+public class OpeningBookWriter {
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final PolyglotKey hasher;
+    private long[] keys = new long[1024];
+    private int[] moves = new int[1024];
+    private int[] weights = new int[1024];
+    private int size;
+
+    /**
+     * Writer com a tabela padrão do Polyglot ({@link PolyglotKey#standard()}).
+     */
+    public OpeningBookWriter() {
+        this(PolyglotKey.standard());
+    }
+
+    public OpeningBookWriter(PolyglotKey hasher) {
+        this.hasher = hasher;
+    }
+
+    /**
+     * Acrescenta um lance legal da posição atual da partida.
+     */
+    public void add(ChessMatch match, int move, int weight) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            moves = Arrays.copyOf(moves, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        keys[size] = hasher.key(match);
+        moves[size] = OpeningBook.toPolyglot(move);
+        weights[size] = weight;
+        size++;
+    }
+
+    /**
+     * Acrescenta os primeiros {@code maxPlies} lances de uma partida, com os pesos do Polyglot:
+     * 2 para os lances do vencedor, 1 em empates e partidas sem resultado, 0 para os do perdedor.
+     */
+    public void addGame(PgnGame game, int maxPlies) {
+        String fen = game.getTag("FEN");
+        ChessMatch match = fen == null ? new ChessMatch() : Fen.parse(fen);
+        int[] gameMoves = game.getMoves();
+        int plies = Math.min(maxPlies, gameMoves.length);
+        for (int i = 0; i < plies; i++) {
+            add(match, gameMoves[i], weight(game.getResult(), match.getCurrentPlayer()));
+            match.makeMove(gameMoves[i]);
+        }
+    }
+
+    private static int weight(String result, Color player) {
+        if ("1-0".equals(result)) {
+            return player == Color.WHITE ? 2 : 0;
+        }
+        if ("0-1".equals(result)) {
+            return player == Color.BLACK ? 2 : 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Ordena as entradas pela chave (sem sinal, como no Polyglot) e grava o arquivo.
+     */
+    public void write(Path file) throws IOException {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = Long.compareUnsigned(keys[a], keys[b]);
+            return c != 0 ? c : Integer.compare(moves[a], moves[b]);
+        });
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.ENTRY_SIZE * 4096);
+            for (int i = 0; i < size; ) {
+                int first = order[i];
+                int weight = 0;
+                for (; i < size && keys[order[i]] == keys[first] && moves[order[i]] == moves[first]; i++) {
+                    weight = Math.min(MAX_WEIGHT, weight + weights[order[i]]);
+                }
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(keys[first]).putShort((short) moves[first]).putShort((short) weight).putInt(0);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Monta um livro a partir de um PGN: {@code OpeningBookWriter <entrada.pgn> <saída.bin> [lances]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: OpeningBookWriter <input.pgn> <output.bin> [plies]");
+            return;
+        }
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        OpeningBookWriter writer = new OpeningBookWriter(PolyglotKey.standard());
+        PgnStats stats = new PgnReader(1).read(Paths.get(args[0]), game -> writer.addGame(game, plies));
+        writer.write(Paths.get(args[1]));
+        System.out.println(stats);
+        System.out.println("Moves added: " + writer.size);
+    }
+}
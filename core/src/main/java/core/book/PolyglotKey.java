@@ -0,0 +1,132 @@
+package core.book;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Chave de posição no esquema do Polyglot: 781 números aleatórios de 64 bits, sendo 768 para peça e casa
+ * (índice {@code 64 * tipo + 8 * fileira + coluna}, com tipo = 2 * PieceType + 1 para as brancas),
+ * 4 para os direitos de roque, 8 para a coluna de en passant e 1 para as brancas a jogar.
+ * <p>
+ * Livros de outras ferramentas só podem ser lidos com a tabela Random64 publicada com o Polyglot, que é a
+ * de {@link #standard()}; tabelas próprias servem apenas para livros gerados com elas.
+ */
+public final class PolyglotKey {
+
+    public static final int SIZE = 781;
+
+    private static final int CASTLING = 768;
+    private static final int EN_PASSANT = 772;
+    private static final int TURN = 780;
+
+    // chave da posição inicial com a tabela padrão
+    static final long START_KEY = 0x463B96181691FC9CL;
+
+    /**
+     * Vetores de teste do formato do Polyglot: lances a partir da posição inicial e a chave da posição final.
+     */
+    private static final Object[][] TEST_VECTORS = {
+            {"", START_KEY},
+            {"e2e4", 0x823C9B50FD114196L},
+            {"e2e4 d7d5", 0x0756B94461C50FB0L},
+            {"e2e4 d7d5 e4e5", 0x662FAFB965DB29D4L},
+            {"e2e4 d7d5 e4e5 f7f5", 0x22A48B5A8E47FF78L},
+            {"e2e4 d7d5 e4e5 f7f5 e1e2", 0x652A607CA3F242C1L},
+            {"e2e4 d7d5 e4e5 f7f5 e1e2 e8f7", 0x00FDD303C946BDD9L},
+            {"a2a4 b7b5 h2h4 b5b4 c2c4", 0x3C8123EA7B067637L},
+            {"a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3", 0x5C3F9B829B279560L},
+    };
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final PolyglotKey STANDARD = new PolyglotKey(PolyglotRandom.RANDOM64);
+
+    private final long[] random;
+
+    public PolyglotKey(long[] random) {
+        if (random.length != SIZE) {
+            throw new IllegalArgumentException("Polyglot keys need " + SIZE + " random numbers, got " + random.length);
+        }
+        this.random = random.clone();
+    }
+
+    /**
+     * Tabela padrão do Polyglot, a mesma dos livros gerados por outras ferramentas.
+     */
+    public static PolyglotKey standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Lê a tabela de um arquivo com os 781 números em big-endian, na ordem do Polyglot.
+     */
+    public static PolyglotKey load(Path file) throws IOException {
+        return read(Files.readAllBytes(file), file.toString());
+    }
+
+    private static PolyglotKey read(byte[] bytes, String source) throws IOException {
+        if (bytes.length != SIZE * Long.BYTES) {
+            throw new IOException("Expected " + SIZE * Long.BYTES + " bytes in " + source + ", got " + bytes.length);
+        }
+        long[] random = new long[SIZE];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(random);
+        return new PolyglotKey(random);
+    }
+
+    /**
+     * Se a tabela reproduz as chaves dos vetores de teste publicados, isto é, se é a tabela padrão.
+     */
+    public boolean isStandard() {
+        for (Object[] vector : TEST_VECTORS) {
+            ChessMatch match = new ChessMatch();
+            for (String move : ((String) vector[0]).split(" ")) {
+                if (!move.isEmpty()) {
+                    match.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                            new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+                }
+            }
+            if (key(match) != (long) vector[1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long key(ChessMatch match) {
+        long key = 0;
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int c = 0; c < 2; c++) {
+                long pieces = match.getBitboard(TYPES[t], c == 0 ? Color.BLACK : Color.WHITE);
+                int base = 64 * (2 * t + c);
+                while (pieces != 0) {
+                    // o Polyglot numera as casas a partir de a1; o Board, a partir de a8
+                    key ^= random[base + (Long.numberOfTrailingZeros(pieces) ^ 56)];
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+
+        int rights = match.castlingRights();
+        for (int i = 0; i < 4; i++) {
+            if ((rights & 1 << i) != 0) {
+                key ^= random[CASTLING + i];
+            }
+        }
+
+        // como no Polyglot, a coluna só conta se houver peão do jogador da vez ao lado do que avançou
+        int file = match.enPassantCaptureFile();
+        if (file >= 0) {
+            key ^= random[EN_PASSANT + file];
+        }
+        if (match.sideToMove() == Color.WHITE) {
+            key ^= random[TURN];
+        }
+        return key;
+    }
+}
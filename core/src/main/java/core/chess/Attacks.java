@@ -0,0 +1,214 @@
+package core.chess;
+
+/**
+ * Tabelas de ataque pré-calculadas sobre bitboards de 64 bits.
+ * Casa = row * 8 + column, com a linha 0 correspondendo à fileira 8 (mesma convenção do Board).
+ * Torres, bispos e damas usam magic bitboards: a ocupação relevante multiplicada pelo número
+ * mágico da casa indexa diretamente o conjunto de ataques. As tabelas são montadas uma vez por JVM,
+ * a partir de números mágicos obtidos previamente por busca aleatória (semente fixa).
+ */
+public final class Attacks {
+
+    // direções dos raios: N, S, W, E, NW, NE, SW, SE
+    private static final int[] ROW_STEP = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] COL_STEP = {0, 0, -1, 1, -1, 1, -1, 1};
+    // raios em que a casa bloqueadora mais próxima é o bit menos significativo
+    private static final boolean[] INCREASING = {false, true, false, true, false, false, true, true};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    // casas estritamente entre duas casas alinhadas e linha inteira que passa por elas (0 se não alinhadas)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = {
+            0x4080004009601080L, 0x0840200010004000L, 0x4100084020010010L, 0x0100080420100100L,
+            0x1200040910200200L, 0x0180090200800400L, 0x8400122D08100084L, 0x008000218004C300L,
+            0x09038002804000A0L, 0x011140005000200CL, 0x2017001940200100L, 0x8081002008100101L,
+            0x0015001004080300L, 0x1302001008040200L, 0x0304008110220408L, 0x4D02000040810402L,
+            0x0000248000884000L, 0x111010C000402000L, 0x0220048020821000L, 0x5C20090020100500L,
+            0x0808808004000800L, 0x0000808002000400L, 0x0800040048011230L, 0x0000020000804104L,
+            0x0000401080008020L, 0x2240400080200080L, 0x0204108200220040L, 0x0008204200081200L,
+            0x8808020040400400L, 0x8000040080020080L, 0x018B001100043200L, 0x00818000800CE900L,
+            0x000A004902002081L, 0x0010002000400040L, 0x2001002001001840L, 0x4001001001002008L,
+            0x40CA040082800800L, 0x0010800200800400L, 0x0820110814000250L, 0x4000008122001044L,
+            0x6100804000208011L, 0x00C0008020008044L, 0x000E001084420020L, 0x8808100300090020L,
+            0x4828008004028008L, 0x1D06000204008080L, 0x0210010810440082L, 0x1012009400420001L,
+            0x0040004080002480L, 0x8810204011008100L, 0x400310200900C100L, 0x0A28001002800880L,
+            0x0081005008000500L, 0x0001000400080300L, 0x8040080182500400L, 0x00400C1060830600L,
+            0x0221008000102041L, 0x0042008014284102L, 0x4045000840102001L, 0x84A5006008100045L,
+            0x0001000208001005L, 0x80A2003004418802L, 0x0102000108008402L, 0x002804108024410AL
+    };
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = {
+            0x90C0280128408100L, 0x0231240084960000L, 0x8210209081021102L, 0x00022A0200144000L,
+            0x0001104000901100L, 0x8002411040100002L, 0x0002080209050048L, 0x0001044100A0100AL,
+            0x000420600141010CL, 0xC000040888090020L, 0x00C1080801082001L, 0x0200082094201488L,
+            0x804002021001080AL, 0x6100020804040141L, 0x9400248084A02000L, 0x0801120041045000L,
+            0x0022005002102900L, 0x0510000421280102L, 0x4030010808224010L, 0x0A00800802810000L,
+            0x8004001200A20000L, 0x0008210100A01000L, 0x0001000221012008L, 0x010500448080900CL,
+            0x00B0281C24200400L, 0x0810081084018420L, 0x000A880010002028L, 0x1440040050410020L,
+            0x4082002002008060L, 0x0380828001082000L, 0x000D110882080140L, 0x0320C34001190801L,
+            0x84F4074100181000L, 0x0288080820020288L, 0x3401054051180081L, 0x1101208020080200L,
+            0x0010020080201004L, 0x0000840900C09000L, 0x480404288620480EL, 0x100401420A008688L,
+            0x2411082010000480L, 0x0B8400B208009002L, 0x6487040126050400L, 0x800805C010408200L,
+            0x800004010211C401L, 0x2420081000200040L, 0x086004010A100040L, 0x0130240080200080L,
+            0x8202123004048046L, 0x2401004804840009L, 0x044A002084101010L, 0x0000204020880403L,
+            0x0014001002088A00L, 0x0001051022020584L, 0x0204202805032010L, 0x0808100102082900L,
+            0x0101040201040200L, 0x00222C4044042010L, 0xC0808B8841044100L, 0x2008B1000504A800L,
+            0x0401824040083200L, 0x2028102220024285L, 0x20000802242C1400L, 0x10042008011D0111L
+    };
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    // ataques de todas as casas em uma única tabela, a partir do deslocamento de cada casa
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        int[][] knightSteps = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq >>> 3;
+            int col = sq & 7;
+            for (int[] s : knightSteps) {
+                KNIGHT[sq] |= bit(row + s[0], col + s[1]);
+            }
+            for (int d = 0; d < 8; d++) {
+                KING[sq] |= bit(row + ROW_STEP[d], col + COL_STEP[d]);
+                for (int r = row + ROW_STEP[d], c = col + COL_STEP[d]; r >= 0 && r < 8 && c >= 0 && c < 8;
+                     r += ROW_STEP[d], c += COL_STEP[d]) {
+                    RAYS[d][sq] |= 1L << (r * 8 + c);
+                }
+            }
+            // índice pelo valor de Color: BLACK = 0 (desce no tabuleiro), WHITE = 1 (sobe)
+            PAWN[0][sq] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN[1][sq] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            for (int d = 0; d < 8; d++) {
+                // direção oposta: N/S, W/E, NW/SE e NE/SW
+                int opposite = d < 4 ? d ^ 1 : 11 - d;
+                long ray = RAYS[d][sq];
+                while (ray != 0) {
+                    int other = Long.numberOfTrailingZeros(ray);
+                    ray &= ray - 1;
+                    BETWEEN[sq][other] = RAYS[d][sq] & RAYS[opposite][other];
+                    LINE[sq][other] = RAYS[d][sq] | RAYS[opposite][sq] | 1L << sq;
+                }
+            }
+        }
+
+        ROOK_TABLE = initMagics(0, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET);
+        BISHOP_TABLE = initMagics(4, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET);
+    }
+
+    private Attacks() {
+    }
+
+    private static long bit(int row, int col) {
+        return (row >= 0 && row < 8 && col >= 0 && col < 8) ? 1L << (row * 8 + col) : 0L;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Casas atacadas por um peão da cor informada (valor de {@link core.chess.enums.Color#getValue()}).
+     */
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    /**
+     * Casas estritamente entre {@code a} e {@code b} quando estão na mesma fileira, coluna ou diagonal; senão 0.
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * Fileira, coluna ou diagonal inteira que passa por {@code a} e {@code b}, ou 0 se não estiverem alinhadas.
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSET[square]
+                + (int) (((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square]) >>> ROOK_SHIFT[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSET[square]
+                + (int) (((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square]) >>> BISHOP_SHIFT[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Calcula as máscaras de ocupação relevante (os quatro raios a partir de {@code firstDirection}, sem a casa
+     * da borda) e preenche a tabela de cada casa com os ataques de todas as ocupações possíveis.
+     */
+    private static long[] initMagics(int firstDirection, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = 0;
+            for (int d = firstDirection; d < firstDirection + 4; d++) {
+                long ray = RAYS[d][sq];
+                if (ray != 0) {
+                    long edge = INCREASING[d] ? Long.highestOneBit(ray) : Long.lowestOneBit(ray);
+                    mask |= ray & ~edge;
+                }
+            }
+            masks[sq] = mask;
+            shifts[sq] = 64 - Long.bitCount(mask);
+            offsets[sq] = size;
+            size += 1 << Long.bitCount(mask);
+        }
+
+        long[] table = new long[size];
+        boolean[] filled = new boolean[size];
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = masks[sq];
+            long subset = 0;
+            do {
+                long attacks = slowAttacks(firstDirection, sq, subset);
+                int index = offsets[sq] + (int) ((subset * magics[sq]) >>> shifts[sq]);
+                if (filled[index] && table[index] != attacks) {
+                    throw new IllegalStateException("Invalid magic number for square " + sq);
+                }
+                filled[index] = true;
+                table[index] = attacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    private static long slowAttacks(int firstDirection, int square, long occupied) {
+        return ray(firstDirection, square, occupied) | ray(firstDirection + 1, square, occupied)
+                | ray(firstDirection + 2, square, occupied) | ray(firstDirection + 3, square, occupied);
+    }
+
+    private static long ray(int direction, int square, long occupied) {
+        long attacks = RAYS[direction][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            int first = INCREASING[direction] ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[direction][first];
+        }
+        return attacks;
+    }
+}
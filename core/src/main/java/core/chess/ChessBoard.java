@@ -0,0 +1,22 @@
+package core.chess;
+
+import core.board.Board;
+
+/**
+ * Tabuleiro 8x8 de uma partida. Guarda a partida dona do tabuleiro para que as peças que dependem dela
+ * (en passant do peão, roque do rei) a encontrem sem manter, cada uma, uma referência própria. Só a
+ * {@link ChessMatch} cria tabuleiros; {@link core.chess.pieces.Pawn} e {@link core.chess.pieces.King} exigem um.
+ */
+public final class ChessBoard extends Board {
+
+    private final ChessMatch match;
+
+    ChessBoard(ChessMatch match) {
+        super(8, 8);
+        this.match = match;
+    }
+
+    ChessMatch getMatch() {
+        return match;
+    }
+}
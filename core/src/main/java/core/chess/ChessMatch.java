@@ -0,0 +1,1299 @@
+package core.chess;
+
+import core.board.Board;
+import core.board.Piece;
+import core.board.Position;
+import core.board.exceptions.BoardException;
+import core.chess.enums.Color;
+import core.chess.enums.GameState;
+import core.chess.enums.PieceType;
+import core.chess.exceptions.ChessException;
+import core.chess.pieces.*;
+import core.metrics.MoveMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+public class ChessMatch {
+
+    // casas cujo movimento (de ou para) pode alterar os direitos de roque: a8, e8, h8, a1, e1, h1
+    private static final long CASTLING_SQUARES = 1L | 1L << 4 | 1L << 7 | 1L << 56 | 1L << 60 | 1L << 63;
+    // casas claras (a8 = casa 0 é clara), para o material insuficiente com bispos
+    private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    // layout de cada entrada de undoStack: o lance e o estado anterior a ele, que não mora no tabuleiro
+    private static final long MOVE_MASK = 0xFFFFF;
+    private static final int CASTLING_SHIFT = 20;
+    private static final long CHECK_BIT = 1L << 24;
+    private static final long ATTACKS_VALID_BIT = 1L << 25;
+    private static final long CHECK_MATE_BIT = 1L << 26;
+    // GameState.ordinal() + 1, ou 0 quando ainda não calculada
+    private static final int STATE_SHIFT = 27;
+    // casa do peão vulnerável a en passant + 1, ou 0
+    private static final int EN_PASSANT_SHIFT = 30;
+    private static final int HALFMOVE_SHIFT = 37;
+    private static final GameState[] STATES = GameState.values();
+    // historyShared de uma partida cujo keyHistory pertence a outra (cópia ou fotografia restaurada)
+    private static final int SHARED_HISTORY = Integer.MAX_VALUE;
+
+    private static final long[] NO_LONGS = {};
+    private static final Piece[] NO_PIECES = {};
+    private static final ChessPiece[] NO_CHESS_PIECES = {};
+
+    // buffer do teste de xeque-mate, da situação e da validação de lances, um por thread e não por partida:
+    // é usado e descartado dentro de uma mesma chamada, sem reentrância
+    private static final ThreadLocal<int[]> SCRATCH_MOVES = ThreadLocal.withInitial(() -> new int[256]);
+
+    private int turn;
+    // lances desde a última captura ou movimento de peão, para a regra dos cinquenta lances
+    private int halfmoveClock;
+    private Color currentPlayer;
+    private boolean check;
+    private boolean checkMate;
+    // lance atual sorteado para medição (ver MoveMetrics); só muda com writeLock
+    private boolean sampled;
+    private ChessPiece enPassantVulnerable;
+    private ChessPiece promoted;
+    private ChessBoard board;
+    private MoveGenerator generator;
+    private List<Piece> piecesOnTheBoard = new ArrayList<>(32);
+    private List<Piece> capturedPieces = new ArrayList<>();
+
+    // pilha de desfazer dos lances internos (makeMove(int) / unmakeMove()), vazia até o primeiro lance:
+    // um long por lance com o lance e o estado anterior (ver os *_SHIFT/*_BIT), mais as peças tiradas do tabuleiro.
+    // O peão en passant volta pela casa e a chave de estado pelo histórico de chaves.
+    private int ply;
+    private long[] undoStack = NO_LONGS;
+    private long[] attacksStack = NO_LONGS;
+    private Piece[] capturedStack = NO_PIECES;
+    private ChessPiece[] promotedPawnStack = NO_CHESS_PIECES;
+    // só nos lances da partida (os primeiros gamePly da pilha): promoção anterior ao lance
+    private ChessPiece[] promotedStack = NO_CHESS_PIECES;
+    private int gamePly;
+    // lances voltados por takeback(), o próximo a refazer por último
+    private int[] redoStack;
+    private int redoCount;
+
+    // direitos de roque atuais (ver castlingRights()) e parte da chave de Zobrist fora do Board
+    private int castling;
+    private long stateKey;
+
+    // chave de Zobrist de cada posição da partida, a atual por último, para detectar repetições
+    private long[] keyHistory = new long[16];
+    private int historySize;
+    // keyHistory[0, historyShared) também é lido por fotografias (ver snapshot()): acrescentar depois dessa marca
+    // é seguro, escrever antes dela exige cópia. SHARED_HISTORY: o arquivo todo é de outra partida
+    private int historyShared;
+    // situação da posição atual; calculada ao fim de performChessMove e, após lances internos, na primeira consulta
+    private GameState state;
+
+    // posição anterior ao primeiro lance da partida, ou null na posição inicial padrão (ver getStartFen())
+    private PositionSnapshot origin;
+
+    // lances de performChessMove e replacePromotedPiece são serializados; leitores usam a visão publicada
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile MatchView view;
+    private long version;
+
+    // casa de cada rei, indexada por Color.getValue(), mantida a cada lance
+    private int[] kingSquares = new int[2];
+    // casas atacadas por cada cor na posição atual; só valem quando attacksValid
+    private long[] attacks = new long[2];
+    private boolean attacksValid;
+
+    // peças promovidas devolvidas ao desfazer a promoção, reaproveitadas pelas próximas (índice = kind);
+    // criadas na primeira promoção desfeita
+    private ChessPiece[][] spares;
+    private int[] spareCount;
+
+    public ChessMatch() {
+        board = new ChessBoard(this);
+        generator = new MoveGenerator(this, board);
+        turn = 1;
+        currentPlayer = Color.WHITE;
+        initialSetup();
+        refreshState();
+        recordPosition();
+        publish();
+    }
+
+    /**
+     * Partida com tabuleiro vazio, usada por {@link Fen} e por {@link #copy()}.
+     */
+    ChessMatch(Color currentPlayer, int turn) {
+        board = new ChessBoard(this);
+        generator = new MoveGenerator(this, board);
+        this.turn = turn;
+        this.currentPlayer = currentPlayer;
+    }
+
+
+    public int getTurn() {
+        return turn;
+    }
+
+    void setTurn(int turn) {
+        this.turn = turn;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Copia para {@code keys} as chaves das posições anteriores à atual desde o último lance irreversível
+     * (captura ou lance de peão), da mais antiga para a mais recente: as únicas que a posição atual e as
+     * seguintes ainda podem repetir. Inclui as posições dos lances internos de {@link #makeMove(int)}.
+     *
+     * @param keys buffer com pelo menos {@link #getHalfmoveClock()} posições
+     * @return quantidade de chaves copiadas
+     */
+    public int repetitionKeys(long[] keys) {
+        int count = Math.min(halfmoveClock, historySize - 1);
+        System.arraycopy(keyHistory, historySize - 1 - count, keys, 0, count);
+        return count;
+    }
+
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public Color getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+
+    public boolean isCheckMate() {
+        return checkMate;
+    }
+
+    /**
+     * Situação da partida na posição atual. Calculada uma vez por posição e depois lida em O(1).
+     */
+    public GameState getState() {
+        if (state == null) {
+            state = classify(generator.generateLegal(currentPlayer, scratchMoves(), 0) == 0, check);
+        }
+        return state;
+    }
+
+    public boolean isStalemate() {
+        return getState() == GameState.STALEMATE;
+    }
+
+    public boolean isGameOver() {
+        return getState().isOver();
+    }
+
+    public ChessPiece getEnPassantVulnerable() {
+        return enPassantVulnerable;
+    }
+
+    /**
+     * Lado que tem o lance na posição. Difere de {@link #getCurrentPlayer()} só depois do xeque-mate, quando
+     * performChessMove não passa a vez e quem levou o mate é o lado a jogar.
+     */
+    public Color sideToMove() {
+        return checkMate ? currentPlayer.opposite() : currentPlayer;
+    }
+
+    /**
+     * Coluna (0 para a) da captura en passant disponível ao lado a jogar, ou -1 quando nenhum peão dele está ao
+     * lado do que acabou de avançar duas casas.
+     */
+    public int enPassantCaptureFile() {
+        if (enPassantVulnerable == null) {
+            return -1;
+        }
+        Color player = sideToMove();
+        int target = enPassantVulnerable.square() + (player == Color.WHITE ? -8 : 8);
+        long capturers = Attacks.pawn(player.opposite().getValue(), target)
+                & board.getBitboard(ChessPiece.kind(PieceType.PAWN, player));
+        return capturers != 0 ? target & 7 : -1;
+    }
+
+    public ChessPiece getPromoted() {
+        return promoted;
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Peças por casa na última posição publicada (ver {@link #getView()}); pode ser chamado de qualquer thread.
+     */
+    public ChessPiece[][] getPieces() {
+        return view.getPieces();
+    }
+
+    /**
+     * Última posição publicada, sem lock. Publicada na criação e ao fim de cada lance de
+     * {@link #performChessMove} ou {@link #replacePromotedPiece}; os lances internos de busca
+     * ({@link #makeMove(int)}) não aparecem nela.
+     */
+    public MatchView getView() {
+        return view;
+    }
+
+    public ChessPiece performChessMove(ChessPosition sourcePos, ChessPosition targetPos) {
+        return performChessMove(sourcePos, targetPos, PieceType.QUEEN);
+    }
+
+    /**
+     * Como {@link #performChessMove(ChessPosition, ChessPosition)}, mas a promoção, quando houver, já entra com a
+     * peça informada ("B", "N", "R" ou "Q"). A posição é publicada uma única vez, com a peça escolhida, sem a
+     * dama intermediária que {@link #replacePromotedPiece} trocaria depois.
+     */
+    public ChessPiece performChessMove(ChessPosition sourcePos, ChessPosition targetPos, String promotion) {
+        return performChessMove(sourcePos, targetPos, promotionType(promotion));
+    }
+
+    private ChessPiece performChessMove(ChessPosition sourcePos, ChessPosition targetPos, PieceType promotion) {
+        long start = MoveMetrics.ENABLED ? MoveMetrics.sampleStart() : 0;
+        writeLock.lock();
+        try {
+            if (MoveMetrics.ENABLED) {
+                sampled = start != MoveMetrics.NOT_SAMPLED;
+            }
+            ChessPiece captured = applyChessMove(sourcePos, targetPos, promotion);
+            if (MoveMetrics.ENABLED) {
+                MoveMetrics.PERFORM_MOVE.recordSample(start);
+            }
+            return captured;
+        } catch (BoardException e) {
+            if (MoveMetrics.ENABLED) {
+                MoveMetrics.REJECTIONS.record(e.getMessage());
+            }
+            throw e;
+        } finally {
+            if (MoveMetrics.ENABLED) {
+                sampled = false;
+            }
+            writeLock.unlock();
+        }
+    }
+
+    private static PieceType promotionType(String type) {
+        String t = type.toUpperCase();
+        if (!t.equals("B") && !t.equals("N") && !t.equals("R") && !t.equals("Q")) {
+            throw new ChessException("Invalid piece for promotion");
+        }
+        return PieceType.fromLetter(t.charAt(0));
+    }
+
+    private ChessPiece applyChessMove(ChessPosition sourcePos, ChessPosition targetPos, PieceType promotion) {
+        Position source = sourcePos.toPosition();
+        Position target = targetPos.toPosition();
+        validateSourcePosition(source);
+        validateTargetPosition(source, target);
+        if (ply != gamePly) {
+            throw new IllegalStateException("Unmake the internal moves before playing a move");
+        }
+        int move = findLegalMove(board.square(source), board.square(target), promotion);
+        if (move == Move.NULL) {
+            throw new ChessException("You can't put yourself in check");
+        }
+        redoCount = 0;
+        Piece capturedPiece = playGameMove(move);
+        publish();
+        return (ChessPiece) capturedPiece;
+    }
+
+    /**
+     * Volta o último lance da partida, restaurando posição, vez, xeque, mate, en passant e promoção.
+     * O lance fica disponível para {@link #redo()} até que outro lance seja jogado.
+     */
+    public void takeback() {
+        takeback(true);
+    }
+
+    /**
+     * Volta o último lance da partida como {@link #takeback()}, mas sem deixá-lo para {@link #redo()}, e descarta
+     * os lances que estavam para refazer (eles partiam da posição com o lance): para desfazer um lance que não
+     * chegou a valer, como um lance que não pôde ser gravado.
+     */
+    public void retractMove() {
+        takeback(false);
+    }
+
+    private void takeback(boolean redoable) {
+        writeLock.lock();
+        try {
+            if (gamePly == 0) {
+                throw new ChessException("There is no move to take back");
+            }
+            if (ply != gamePly) {
+                throw new IllegalStateException("Unmake the internal moves before taking back");
+            }
+            int move = move(ply - 1);
+            if (redoable) {
+                if (redoStack == null) {
+                    redoStack = new int[16];
+                } else if (redoCount == redoStack.length) {
+                    redoStack = Arrays.copyOf(redoStack, redoCount * 2);
+                }
+                redoStack[redoCount++] = move;
+            } else {
+                redoCount = 0;
+            }
+            Piece captured = capturedStack[ply - 1];
+            if (captured != null) {
+                capturedPieces.remove(capturedPieces.size() - 1);
+                piecesOnTheBoard.add(captured);
+            }
+            if (Move.isPromotion(move)) {
+                piecesOnTheBoard.remove(board.pieceAt(Move.to(move)));
+                piecesOnTheBoard.add(promotedPawnStack[ply - 1]);
+            }
+            // no mate a vez não passou; revertMove espera que tenha passado
+            if (checkMate) {
+                currentPlayer = opponent(currentPlayer);
+                turn++;
+            }
+            revertMove();
+            gamePly--;
+            checkMate = (undoStack[ply] & CHECK_MATE_BIT) != 0;
+            promoted = promotedStack[ply];
+            promotedStack[ply] = null;
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Refaz o último lance voltado por {@link #takeback()}, com a mesma peça de promoção.
+     */
+    public void redo() {
+        writeLock.lock();
+        try {
+            if (redoCount == 0) {
+                throw new ChessException("There is no move to redo");
+            }
+            if (ply != gamePly) {
+                throw new IllegalStateException("Unmake the internal moves before redoing");
+            }
+            playGameMove(redoStack[--redoCount]);
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Joga como lance da partida um lance legal no formato de {@link Move} (de {@link #legalMoves(int[])} ou lido
+     * de um arquivo), com a peça de promoção do próprio lance. Como em {@link #performChessMove}, atualiza xeque,
+     * mate e fim de partida e deixa o lance para {@link #takeback()}; o lance não é validado.
+     */
+    public void playMove(int move) {
+        writeLock.lock();
+        try {
+            if (ply != gamePly) {
+                throw new IllegalStateException("Unmake the internal moves before playing a move");
+            }
+            redoCount = 0;
+            playGameMove(move);
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Joga em sequência, como lances da partida, os {@code count} primeiros lances de {@code moves}, como
+     * {@link #playMove(int)} e também sem validação. Cada posição entra no histórico de chaves e fica para
+     * {@link #takeback()}, mas xeque-mate, situação da partida e a visão publicada só são calculados depois do
+     * último lance: é a forma de reproduzir partidas inteiras (PGN, arquivo), cujas posições intermediárias
+     * ninguém observa.
+     */
+    public void playMoves(int[] moves, int count) {
+        writeLock.lock();
+        try {
+            if (ply != gamePly) {
+                throw new IllegalStateException("Unmake the internal moves before playing a move");
+            }
+            if (count == 0) {
+                return;
+            }
+            redoCount = 0;
+            for (int i = 0; i < count - 1; i++) {
+                applyGameMove(moves[i]);
+                // sem concludeMove: o xeque basta para o takeback, e a situação é calculada sob demanda
+                checkMate = false;
+                check = testCheck(currentPlayer);
+            }
+            playGameMove(moves[count - 1]);
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Lances jogados na partida (sem os voltados), no formato de {@link Move}.
+     */
+    public int[] getMoveHistory() {
+        int[] moves = new int[gamePly];
+        for (int i = 0; i < gamePly; i++) {
+            moves[i] = move(i);
+        }
+        return moves;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    /**
+     * FEN da posição em que a partida começou, antes do primeiro lance de {@link #getMoveHistory()},
+     * ou null quando ela começou da posição inicial padrão por {@link #ChessMatch()}.
+     */
+    public String getStartFen() {
+        return origin == null ? null : Fen.toFen(origin.toMatch());
+    }
+
+    /**
+     * Joga um lance legal como lance da partida: mantém as listas de peças e calcula xeque, mate e a
+     * situação da partida. O estado anterior fica na pilha de lances para {@link #takeback()}.
+     */
+    private Piece playGameMove(int move) {
+        Piece captured = applyGameMove(move);
+        // concludeMove parte da vez de quem jogou, sem a posição já registrada por applyMove
+        currentPlayer = opponent(currentPlayer);
+        turn--;
+        historySize--;
+        concludeMove();
+        return captured;
+    }
+
+    /**
+     * Aplica um lance da partida e mantém as listas de peças e as pilhas de {@link #takeback()}, sem xeque,
+     * mate nem situação da partida.
+     */
+    private Piece applyGameMove(int move) {
+        ChessPiece previousPromoted = promoted;
+        boolean previousCheckMate = checkMate;
+        applyMove(move);
+        gamePly = ply;
+        promotedStack[ply - 1] = previousPromoted;
+        if (previousCheckMate) {
+            undoStack[ply - 1] |= CHECK_MATE_BIT;
+        }
+
+        Piece captured = capturedStack[ply - 1];
+        if (captured != null) {
+            piecesOnTheBoard.remove(captured);
+            capturedPieces.add(captured);
+        }
+        promoted = null;
+        if (Move.isPromotion(move)) {
+            promoted = (ChessPiece) board.pieceAt(Move.to(move));
+            piecesOnTheBoard.remove(promotedPawnStack[ply - 1]);
+            piecesOnTheBoard.add(promoted);
+        }
+        return captured;
+    }
+
+    public boolean[][] possibleMoves(ChessPosition sourcePos) {
+        long start = MoveMetrics.ENABLED ? System.nanoTime() : 0;
+        Position position = sourcePos.toPosition();
+        validateSourcePosition(position);
+        boolean[][] moves = board.piece(position).possibleMoves();
+        if (MoveMetrics.ENABLED) {
+            MoveMetrics.POSSIBLE_MOVES.record(System.nanoTime() - start);
+        }
+        return moves;
+    }
+
+    public ChessPiece replacePromotedPiece(String type) {
+        writeLock.lock();
+        try {
+            ChessPiece piece = replacePromoted(type);
+            publish();
+            return piece;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private ChessPiece replacePromoted(String type) {
+        if (promoted == null) {
+            throw new ChessException("There is no piece to be promoted");
+        }
+
+        String t = type.toUpperCase();
+        if (!t.equals("B") && !t.equals("N") && !t.equals("R") && !t.equals("Q")) {
+            throw new ChessException("Invalid piece for promotion");
+        }
+
+        // localizar a posição atual da peça promovida no board
+        Position promotedPosition = null;
+        for (int r = 0; r < 8 && promotedPosition == null; r++) {
+            for (int c = 0; c < 8 && promotedPosition == null; c++) {
+                Position pos = new Position(r, c);
+                Piece p = board.piece(pos);
+                if (p == promoted) {
+                    promotedPosition = pos;
+                }
+            }
+        }
+
+        if (promotedPosition == null) {
+            throw new ChessException("Promoted piece position not found on board");
+        }
+
+        // remover a peça promovida atual do tabuleiro e das listas
+        board.removePiece(promotedPosition);
+        piecesOnTheBoard.remove(promoted);
+
+        // criar a nova peça conforme o tipo escolhido
+        ChessPiece newPiece;
+        Color color = promoted.getColor();
+        switch (t) {
+            case "B":
+                newPiece = new core.chess.pieces.Bishop(board, color);
+                break;
+            case "N":
+                newPiece = new core.chess.pieces.Knight(board, color);
+                break;
+            case "R":
+                newPiece = new core.chess.pieces.Rook(board, color);
+                break;
+            default: // "Q"
+                newPiece = new core.chess.pieces.Queen(board, color);
+                break;
+        }
+
+        // colocar a nova peça no tabuleiro e atualizar listas
+        board.placePiece(newPiece, promotedPosition);
+        piecesOnTheBoard.add(newPiece);
+
+        // atualizar referência promoted e o lance guardado para takeback/redo
+        promoted = newPiece;
+        int move = move(gamePly - 1);
+        int replaced = Move.promotion(Move.from(move), Move.to(move), Move.isCapture(move), newPiece.getType());
+        undoStack[gamePly - 1] = undoStack[gamePly - 1] & ~MOVE_MASK | replaced;
+
+        // a peça escolhida pode mudar o xeque, o mate e o afogamento calculados com a promoção anterior
+        if (!checkMate) {
+            turn--;
+            currentPlayer = color;
+        }
+        historySize--;
+        concludeMove();
+        return promoted;
+    }
+
+
+    /**
+     * Gera os lances legais do jogador da vez no formato de {@link Move}.
+     *
+     * @param moves buffer de saída; 256 posições comportam qualquer posição legal
+     * @return quantidade de lances escritos em {@code moves}
+     */
+    public int legalMoves(int[] moves) {
+        return legalMoves(moves, 0);
+    }
+
+    /**
+     * Gera os lances legais do jogador da vez a partir de {@code offset}, sem alocar memória,
+     * permitindo que buscas reaproveitem um único buffer para todos os níveis da árvore.
+     *
+     * @param moves buffer de saída, com pelo menos 256 posições livres a partir de {@code offset}
+     * @return quantidade de lances escritos
+     */
+    public int legalMoves(int[] moves, int offset) {
+        return generator.generateLegal(currentPlayer, moves, offset) - offset;
+    }
+
+    /**
+     * Gera os lances pseudo-legais do jogador da vez (podem deixar o próprio rei em xeque), sem alocar.
+     * Útil quando só alguns lances precisam ser confirmados com {@link #isLegal(int)}.
+     *
+     * @return quantidade de lances escritos a partir de {@code offset}
+     */
+    public int pseudoLegalMoves(int[] moves, int offset) {
+        return generator.generate(currentPlayer, moves, offset) - offset;
+    }
+
+    /**
+     * Indica se um lance pseudo-legal não deixa o rei do jogador da vez em xeque.
+     */
+    public boolean isLegal(int move) {
+        return generator.isLegal(currentPlayer, move);
+    }
+
+    /**
+     * Aplica um lance gerado por {@link #legalMoves(int[])} sem validações, para busca e análise.
+     * Deve ser desfeito com {@link #unmakeMove()}.
+     */
+    public void makeMove(int move) {
+        applyMove(move);
+        check = testCheck(currentPlayer);
+    }
+
+    /**
+     * Passa a vez sem mover peça (lance nulo), para poda de lance nulo na busca. Desfeito com {@link #unmakeMove()}.
+     */
+    public void makeNullMove() {
+        if (check) {
+            throw new IllegalStateException("A null move is not allowed while in check");
+        }
+        applyMove(Move.NULL);
+        check = false;
+    }
+
+    public void unmakeMove() {
+        // os lances da partida só voltam por takeback(), que também mantém as listas de peças
+        if (ply == gamePly) {
+            throw new IllegalStateException("There is no move to unmake");
+        }
+        revertMove();
+    }
+
+    /**
+     * Cópia independente da posição atual (peças, contadores de movimento, vez e en passant).
+     * A pilha de lances internos não é copiada; o histórico de chaves sim, para a detecção de repetição.
+     */
+    public ChessMatch copy() {
+        ChessMatch copy = new ChessMatch(currentPlayer, turn);
+        long occupied = board.getOccupied();
+        while (occupied != 0) {
+            int sq = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = (ChessPiece) board.pieceAt(sq);
+            ChessPiece clone = copy.newPiece(piece.getType(), piece.getColor());
+            clone.setMoveCount(piece.getMoveCount());
+            copy.placeNewPiece(clone, sq);
+        }
+        copy.check = check;
+        copy.checkMate = checkMate;
+        copy.halfmoveClock = halfmoveClock;
+        if (enPassantVulnerable != null) {
+            copy.enPassantVulnerable = (ChessPiece) copy.board.pieceAt(enPassantVulnerable.square());
+        }
+        if (promoted != null) {
+            copy.promoted = (ChessPiece) copy.board.pieceAt(promoted.square());
+        }
+        copy.refreshState();
+        copy.keyHistory = keyHistory;
+        copy.historySize = historySize;
+        copy.historyShared = SHARED_HISTORY;
+        shareHistory();
+        copy.state = state;
+        copy.publish();
+        copy.origin = copy.view.getSnapshot();
+        return copy;
+    }
+
+    /**
+     * Fotografia imutável da posição atual, sem cópia das peças nem do histórico (ver {@link PositionSnapshot}).
+     */
+    public PositionSnapshot snapshot() {
+        long[] bitboards = new long[12];
+        for (int kind = 0; kind < 12; kind++) {
+            bitboards[kind] = board.getBitboard(kind);
+        }
+        shareHistory();
+        return new PositionSnapshot(bitboards, getZobristKey(), currentPlayer, turn, halfmoveClock, castling,
+                enPassantVulnerable == null ? -1 : enPassantVulnerable.square(), check, checkMate, state,
+                keyHistory, historySize);
+    }
+
+    /**
+     * Monta a partida de uma fotografia. Como na FEN, os contadores de movimento das peças só refletem
+     * o que importa para as regras: direitos de roque e peões fora da fileira inicial.
+     */
+    static ChessMatch restore(PositionSnapshot snapshot) {
+        ChessMatch match = new ChessMatch(snapshot.getCurrentPlayer(), snapshot.getTurn());
+        PieceType[] types = PieceType.values();
+        for (int kind = 0; kind < 12; kind++) {
+            PieceType type = types[kind % 6];
+            Color color = Color.fromInt(kind / 6);
+            long pieces = snapshot.bitboard(kind);
+            while (pieces != 0) {
+                int sq = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                ChessPiece piece = match.newPiece(type, color);
+                if (type == PieceType.PAWN && sq >>> 3 != (color == Color.WHITE ? 6 : 1)
+                        || type == PieceType.KING || type == PieceType.ROOK) {
+                    piece.setMoveCount(1);
+                }
+                match.placeNewPiece(piece, sq);
+            }
+        }
+        int rights = snapshot.castlingRights();
+        // bits de roque na ordem de castlingRights(): casa do rei e da torre de cada um
+        int[][] corners = {{60, 63}, {60, 56}, {4, 7}, {4, 0}};
+        for (int i = 0; i < 4; i++) {
+            if ((rights & 1 << i) != 0) {
+                match.pieceAt(corners[i][0]).setMoveCount(0);
+                match.pieceAt(corners[i][1]).setMoveCount(0);
+            }
+        }
+        if (snapshot.getEnPassantSquare() >= 0) {
+            match.enPassantVulnerable = match.pieceAt(snapshot.getEnPassantSquare());
+        }
+        match.halfmoveClock = snapshot.getHalfmoveClock();
+        match.check = snapshot.isCheck();
+        match.checkMate = snapshot.isCheckMate();
+        match.refreshState();
+        match.keyHistory = snapshot.keyHistory();
+        match.historySize = snapshot.historySize();
+        match.historyShared = SHARED_HISTORY;
+        match.state = snapshot.getState();
+        match.publish();
+        match.origin = snapshot;
+        return match;
+    }
+
+    /**
+     * Casas atacadas pela cor informada na posição atual. O mapa é calculado na primeira consulta
+     * de cada posição e guardado na pilha de lances, de modo que desfazer um lance o restaura sem recálculo.
+     */
+    public long attackedSquares(Color by) {
+        if (!attacksValid) {
+            updateAttacks();
+        }
+        return attacks[by.getValue()];
+    }
+
+    /**
+     * Bitboard das peças de um tipo e cor (bit = row * 8 + column).
+     */
+    public long getBitboard(PieceType type, Color color) {
+        return board.getBitboard(ChessPiece.kind(type, color));
+    }
+
+    public ChessPiece pieceAt(int square) {
+        return (ChessPiece) board.pieceAt(square);
+    }
+
+    public boolean isInCheck(Color color) {
+        return testCheck(color);
+    }
+
+    public boolean isSquareAttacked(int square, Color by) {
+        if (attacksValid) {
+            return (attacks[by.getValue()] & (1L << square)) != 0;
+        }
+        // mapa ainda não calculado nesta posição: consulta direta às tabelas, sem montar o mapa inteiro
+        long occupied = board.getOccupied();
+        long queens = board.getBitboard(ChessPiece.kind(PieceType.QUEEN, by));
+        // um peão de cor "by" ataca a casa se estiver onde um peão adversário na casa atacaria
+        return (Attacks.pawn(by.opposite().getValue(), square) & board.getBitboard(ChessPiece.kind(PieceType.PAWN, by))) != 0
+                || (Attacks.knight(square) & board.getBitboard(ChessPiece.kind(PieceType.KNIGHT, by))) != 0
+                || (Attacks.king(square) & board.getBitboard(ChessPiece.kind(PieceType.KING, by))) != 0
+                || (Attacks.bishop(square, occupied) & (board.getBitboard(ChessPiece.kind(PieceType.BISHOP, by)) | queens)) != 0
+                || (Attacks.rook(square, occupied) & (board.getBitboard(ChessPiece.kind(PieceType.ROOK, by)) | queens)) != 0;
+    }
+
+    /**
+     * Chave de Zobrist de 64 bits da posição: disposição das peças, lado a jogar, direitos de roque
+     * e coluna de en passant (quando há captura possível). Mantida incrementalmente a cada lance.
+     */
+    public long getZobristKey() {
+        return board.getKey() ^ stateKey;
+    }
+
+    /**
+     * Direitos de roque: bit 0 = brancas lado do rei, 1 = brancas lado da dama,
+     * 2 = pretas lado do rei, 3 = pretas lado da dama.
+     */
+    public int castlingRights() {
+        return castling;
+    }
+
+    /**
+     * Direitos de roque derivados dos contadores de movimento do rei e das torres.
+     */
+    int computeCastlingRights() {
+        int rights = 0;
+        if (unmoved(60, PieceType.KING, Color.WHITE)) {
+            if (unmoved(63, PieceType.ROOK, Color.WHITE)) rights |= 1;
+            if (unmoved(56, PieceType.ROOK, Color.WHITE)) rights |= 2;
+        }
+        if (unmoved(4, PieceType.KING, Color.BLACK)) {
+            if (unmoved(7, PieceType.ROOK, Color.BLACK)) rights |= 4;
+            if (unmoved(0, PieceType.ROOK, Color.BLACK)) rights |= 8;
+        }
+        return rights;
+    }
+
+    private long computeStateKey() {
+        long key = Zobrist.castling(castling) ^ Zobrist.enPassantKey(this, board);
+        return currentPlayer == Color.WHITE ? key ^ Zobrist.whiteToMove() : key;
+    }
+
+    /**
+     * Recalcula roque e chave de estado após alterações feitas fora de applyMove/revertMove.
+     */
+    private void refreshState() {
+        castling = computeCastlingRights();
+        stateKey = computeStateKey();
+    }
+
+    private boolean unmoved(int square, PieceType type, Color color) {
+        ChessPiece p = (ChessPiece) board.pieceAt(square);
+        return p != null && p.getType() == type && p.getColor() == color && p.getMoveCount() == 0;
+    }
+
+    private ChessPiece newPiece(String type, Color color) {
+        if (type.equals("B")) return new Bishop(board, color);
+        if (type.equals("N")) return new Knight(board, color);
+        if (type.equals("Q")) return new Queen(board, color);
+        return new Rook(board, color);
+    }
+
+    ChessPiece newPiece(PieceType type, Color color) {
+        switch (type) {
+            case PAWN:
+                return new Pawn(board, color);
+            case KNIGHT:
+                return new Knight(board, color);
+            case BISHOP:
+                return new Bishop(board, color);
+            case ROOK:
+                return new Rook(board, color);
+            case QUEEN:
+                return new Queen(board, color);
+            default:
+                return new King(board, color);
+        }
+    }
+
+    private ChessPiece obtainPromotedPiece(PieceType type, Color color) {
+        int kind = ChessPiece.kind(type, color);
+        if (spares != null && spareCount[kind] > 0) {
+            ChessPiece piece = spares[kind][--spareCount[kind]];
+            spares[kind][spareCount[kind]] = null;
+            piece.setMoveCount(0);
+            return piece;
+        }
+        return newPiece(type, color);
+    }
+
+    private void releasePromotedPiece(ChessPiece piece) {
+        int kind = piece.kind();
+        if (spares == null) {
+            spares = new ChessPiece[12][];
+            spareCount = new int[12];
+        }
+        if (spares[kind] == null) {
+            spares[kind] = new ChessPiece[4];
+        } else if (spareCount[kind] == spares[kind].length) {
+            spares[kind] = Arrays.copyOf(spares[kind], spareCount[kind] * 2);
+        }
+        spares[kind][spareCount[kind]++] = piece;
+    }
+
+    private void applyMove(int move) {
+        if (ply == undoStack.length) {
+            int capacity = Math.max(16, ply * 2);
+            undoStack = Arrays.copyOf(undoStack, capacity);
+            attacksStack = Arrays.copyOf(attacksStack, capacity * 2);
+            capturedStack = Arrays.copyOf(capturedStack, capacity);
+            promotedPawnStack = Arrays.copyOf(promotedPawnStack, capacity);
+            promotedStack = Arrays.copyOf(promotedStack, capacity);
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        // antes do lance, que pode capturar o peão vulnerável
+        int enPassantCode = enPassantVulnerable == null ? 0 : enPassantVulnerable.square() + 1;
+
+        ChessPiece piece = null;
+        Piece captured = null;
+        ChessPiece pawn = null;
+        if (move != Move.NULL) {
+            piece = (ChessPiece) board.removePiece(from);
+            if (flags == Move.EN_PASSANT) {
+                captured = board.removePiece((from & ~7) | (to & 7));
+            } else if (Move.isCapture(move)) {
+                captured = board.removePiece(to);
+            }
+            piece.increaseMoveCount();
+
+            if (Move.isPromotion(move)) {
+                pawn = piece;
+                piece = obtainPromotedPiece(Move.promotionType(move), pawn.getColor());
+                // a peça promovida nunca conta como torre intacta para o roque
+                piece.increaseMoveCount();
+            }
+            board.placePiece(piece, to);
+
+            if (flags == Move.KING_CASTLE) {
+                moveRook(from + 3, from + 1);
+            } else if (flags == Move.QUEEN_CASTLE) {
+                moveRook(from - 4, from - 1);
+            }
+            if (piece.getType() == PieceType.KING) {
+                kingSquares[piece.getColor().getValue()] = to;
+            }
+        }
+
+        undoStack[ply] = move & MOVE_MASK
+                | (long) castling << CASTLING_SHIFT
+                | (check ? CHECK_BIT : 0)
+                | (attacksValid ? ATTACKS_VALID_BIT : 0)
+                | (long) (state == null ? 0 : state.ordinal() + 1) << STATE_SHIFT
+                | (long) enPassantCode << EN_PASSANT_SHIFT
+                | (long) halfmoveClock << HALFMOVE_SHIFT;
+        capturedStack[ply] = captured;
+        promotedPawnStack[ply] = pawn;
+        attacksStack[2 * ply] = attacks[0];
+        attacksStack[2 * ply + 1] = attacks[1];
+        attacksValid = false;
+        state = null;
+        ply++;
+
+        enPassantVulnerable = flags == Move.DOUBLE_PAWN_PUSH ? piece : null;
+        halfmoveClock = captured != null || pawn != null || piece != null && piece.getType() == PieceType.PAWN
+                ? 0 : halfmoveClock + 1;
+        currentPlayer = opponent(currentPlayer);
+        turn++;
+        if (move != Move.NULL && ((1L << from | 1L << to) & CASTLING_SQUARES) != 0) {
+            castling = computeCastlingRights();
+        }
+        stateKey = computeStateKey();
+        recordPosition();
+    }
+
+    private void revertMove() {
+        ply--;
+        long undo = undoStack[ply];
+        int move = (int) (undo & MOVE_MASK);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+
+        if (move != Move.NULL) {
+            ChessPiece piece = (ChessPiece) board.removePiece(to);
+            if (promotedPawnStack[ply] != null) {
+                releasePromotedPiece(piece);
+                piece = promotedPawnStack[ply];
+                promotedPawnStack[ply] = null;
+            }
+            piece.decreaseMoveCount();
+            board.placePiece(piece, from);
+            if (piece.getType() == PieceType.KING) {
+                kingSquares[piece.getColor().getValue()] = from;
+            }
+
+            Piece captured = capturedStack[ply];
+            if (captured != null) {
+                int capturedSquare = flags == Move.EN_PASSANT ? (from & ~7) | (to & 7) : to;
+                board.placePiece(captured, capturedSquare);
+                capturedStack[ply] = null;
+            }
+
+            if (flags == Move.KING_CASTLE) {
+                unmoveRook(from + 3, from + 1);
+            } else if (flags == Move.QUEEN_CASTLE) {
+                unmoveRook(from - 4, from - 1);
+            }
+        }
+
+        int enPassantSquare = (int) (undo >>> EN_PASSANT_SHIFT & 127);
+        enPassantVulnerable = enPassantSquare == 0 ? null : (ChessPiece) board.pieceAt(enPassantSquare - 1);
+        check = (undo & CHECK_BIT) != 0;
+        attacks[0] = attacksStack[2 * ply];
+        attacks[1] = attacksStack[2 * ply + 1];
+        attacksValid = (undo & ATTACKS_VALID_BIT) != 0;
+        castling = (int) (undo >>> CASTLING_SHIFT & 15);
+        halfmoveClock = (int) (undo >>> HALFMOVE_SHIFT);
+        int stateCode = (int) (undo >>> STATE_SHIFT & 7);
+        state = stateCode == 0 ? null : STATES[stateCode - 1];
+        historySize--;
+        // a chave registrada da posição anterior menos a disposição das peças é a chave de estado de então
+        stateKey = keyHistory[historySize - 1] ^ board.getKey();
+        currentPlayer = opponent(currentPlayer);
+        turn--;
+    }
+
+    private int move(int index) {
+        return (int) (undoStack[index] & MOVE_MASK);
+    }
+
+    private void moveRook(int source, int target) {
+        ChessPiece rook = (ChessPiece) board.removePiece(source);
+        board.placePiece(rook, target);
+        rook.increaseMoveCount();
+    }
+
+    private void unmoveRook(int source, int target) {
+        ChessPiece rook = (ChessPiece) board.removePiece(target);
+        board.placePiece(rook, source);
+        rook.decreaseMoveCount();
+    }
+
+    private void validateSourcePosition(Position position) {
+        if (!board.thereIsAPiece(position)) {
+            throw new ChessException("There is no piece on source position");
+        }
+        if (((ChessPiece) board.piece(position)).getColor() != currentPlayer) {
+            throw new ChessException("The chosen piece is not yours");
+        }
+        if (!board.piece(position).isThereAnyPossibleMove()) {
+            throw new ChessException("There is no possible moves for the chosen piece");
+        }
+    }
+
+    private void validateTargetPosition(Position source, Position target) {
+        if (!board.piece(source).possibleMove(target)) {
+            throw new ChessException("The chosen piece can't move to target position");
+        }
+    }
+
+    private void nextTurn() {
+        turn++;
+        currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    }
+
+    private Color opponent(Color color) {
+        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    }
+
+    private void updateAttacks() {
+        attacks[0] = computeAttacks(Color.BLACK);
+        attacks[1] = computeAttacks(Color.WHITE);
+        attacksValid = true;
+    }
+
+    private long computeAttacks(Color color) {
+        long occupied = board.getOccupied();
+        long result = 0;
+        long pawns = board.getBitboard(ChessPiece.kind(PieceType.PAWN, color));
+        while (pawns != 0) {
+            result |= Attacks.pawn(color.getValue(), Long.numberOfTrailingZeros(pawns));
+            pawns &= pawns - 1;
+        }
+        long knights = board.getBitboard(ChessPiece.kind(PieceType.KNIGHT, color));
+        while (knights != 0) {
+            result |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+        long queens = board.getBitboard(ChessPiece.kind(PieceType.QUEEN, color));
+        long diagonals = board.getBitboard(ChessPiece.kind(PieceType.BISHOP, color)) | queens;
+        while (diagonals != 0) {
+            result |= Attacks.bishop(Long.numberOfTrailingZeros(diagonals), occupied);
+            diagonals &= diagonals - 1;
+        }
+        long lines = board.getBitboard(ChessPiece.kind(PieceType.ROOK, color)) | queens;
+        while (lines != 0) {
+            result |= Attacks.rook(Long.numberOfTrailingZeros(lines), occupied);
+            lines &= lines - 1;
+        }
+        return result | Attacks.king(kingSquares[color.getValue()]);
+    }
+
+    private boolean testCheck(Color color) {
+        return isSquareAttacked(kingSquares[color.getValue()], opponent(color));
+    }
+
+    /**
+     * Fecha um lance de performChessMove, ainda com a vez de quem jogou: calcula xeque, mate e a situação
+     * da partida gerando uma única vez os lances do adversário, e passa a vez se não houve mate.
+     */
+    private void concludeMove() {
+        Color opponent = opponent(currentPlayer);
+        updateAttacks();
+        long mark = MoveMetrics.ENABLED && sampled ? System.nanoTime() : 0;
+        check = testCheck(opponent);
+        long checkNanos = MoveMetrics.ENABLED && sampled ? System.nanoTime() - mark : 0;
+        // o roque do adversário depende dos direitos já atualizados por este lance
+        castling = computeCastlingRights();
+        mark = MoveMetrics.ENABLED && sampled ? System.nanoTime() : 0;
+        boolean noMoves = generator.generateLegal(opponent, scratchMoves(), 0) == 0;
+        checkMate = check && noMoves;
+        if (MoveMetrics.ENABLED && sampled) {
+            MoveMetrics.CHECK_DETECTION.sample(checkNanos);
+            MoveMetrics.CHECKMATE_DETECTION.sample(System.nanoTime() - mark);
+        }
+        if (!checkMate) {
+            nextTurn();
+        }
+        refreshState();
+        recordPosition();
+        state = classify(noMoves, check);
+    }
+
+    private GameState classify(boolean noMoves, boolean inCheck) {
+        if (noMoves) {
+            return inCheck ? GameState.CHECKMATE : GameState.STALEMATE;
+        }
+        if (insufficientMaterial()) {
+            return GameState.INSUFFICIENT_MATERIAL;
+        }
+        if (halfmoveClock >= 100) {
+            return GameState.FIFTY_MOVE_RULE;
+        }
+        return repetitions() >= 3 ? GameState.THREEFOLD_REPETITION : GameState.ONGOING;
+    }
+
+    /**
+     * Ocorrências da posição atual no histórico. Só as posições desde a última captura ou lance de peão,
+     * com o mesmo lado a jogar, podem se repetir.
+     */
+    private int repetitions() {
+        long key = keyHistory[historySize - 1];
+        int count = 1;
+        int limit = Math.max(0, historySize - 1 - halfmoveClock);
+        for (int i = historySize - 3; i >= limit; i -= 2) {
+            if (keyHistory[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Só reis, ou reis com um único cavalo ou bispo, ou só bispos todos em casas da mesma cor.
+     */
+    private boolean insufficientMaterial() {
+        long heavy = 0;
+        long knights = 0;
+        long bishops = 0;
+        for (int color = 0; color < 2; color++) {
+            int base = color * 6;
+            heavy |= board.getBitboard(base + PieceType.PAWN.ordinal()) | board.getBitboard(base + PieceType.ROOK.ordinal())
+                    | board.getBitboard(base + PieceType.QUEEN.ordinal());
+            knights |= board.getBitboard(base + PieceType.KNIGHT.ordinal());
+            bishops |= board.getBitboard(base + PieceType.BISHOP.ordinal());
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Publica a posição atual para os leitores. O campo volátil garante que quem lê a nova visão
+     * enxerga todo o conteúdo dela.
+     */
+    private void publish() {
+        ChessPiece[] pieces = new ChessPiece[64];
+        long occupied = board.getOccupied();
+        while (occupied != 0) {
+            int sq = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            pieces[sq] = (ChessPiece) board.pieceAt(sq);
+        }
+        view = new MatchView(++version, snapshot(), pieces);
+    }
+
+    private void recordPosition() {
+        long key = getZobristKey();
+        boolean shared = historySize < historyShared;
+        if (shared && historyShared != SHARED_HISTORY && keyHistory[historySize] == key) {
+            // a mesma posição já registrada (lance refeito depois de voltado): as fotografias continuam válidas
+            historySize++;
+            return;
+        }
+        if (shared || historySize == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, Math.max(keyHistory.length, historySize * 2));
+            historyShared = 0;
+        }
+        keyHistory[historySize++] = key;
+    }
+
+    /**
+     * Marca o histórico atual como lido por uma fotografia ou cópia.
+     */
+    private void shareHistory() {
+        historyShared = Math.max(historyShared, historySize);
+    }
+
+    /**
+     * Lance legal do jogador da vez de {@code from} para {@code to} (nas promoções, o que promove a
+     * {@code promotion}), ou {@link Move#NULL}.
+     */
+    private int findLegalMove(int from, int to, PieceType promotion) {
+        int[] moves = scratchMoves();
+        int end = generator.generateLegal(currentPlayer, moves, 0);
+        for (int i = 0; i < end; i++) {
+            int move = moves[i];
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (!Move.isPromotion(move) || Move.promotionType(move) == promotion)) {
+                return move;
+            }
+        }
+        return Move.NULL;
+    }
+
+    private int[] scratchMoves() {
+        return SCRATCH_MOVES.get();
+    }
+
+    private void placeNewPiece(char column, int row, ChessPiece piece) {
+        // mesma casa de ChessPosition.toPosition(), sem criar os objetos de posição
+        placeNewPiece(piece, (8 - row) * 8 + (column - 'a'));
+    }
+
+    void placeNewPiece(ChessPiece piece, int square) {
+        board.placePiece(piece, square);
+        piecesOnTheBoard.add(piece);
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().getValue()] = square;
+        }
+        attacksValid = false;
+    }
+
+    /**
+     * Conclui uma posição montada peça a peça (ver {@link Fen}): define o peão vulnerável a
+     * en passant e recalcula o xeque do jogador da vez.
+     */
+    void completeSetup(ChessPiece enPassantVulnerable) {
+        this.enPassantVulnerable = enPassantVulnerable;
+        refreshState();
+        check = testCheck(currentPlayer);
+        historySize = 0;
+        recordPosition();
+        state = null;
+        publish();
+        origin = view.getSnapshot();
+    }
+
+    private void initialSetup() {
+        // white pieces (back rank -> chess row 1)
+        placeNewPiece('a', 1, new Rook(board, Color.WHITE));
+        placeNewPiece('b', 1, new Knight(board, Color.WHITE));
+        placeNewPiece('c', 1, new Bishop(board, Color.WHITE));
+        placeNewPiece('d', 1, new Queen(board, Color.WHITE));
+        placeNewPiece('e', 1, new King(board, Color.WHITE));
+        placeNewPiece('f', 1, new Bishop(board, Color.WHITE));
+        placeNewPiece('g', 1, new Knight(board, Color.WHITE));
+        placeNewPiece('h', 1, new Rook(board, Color.WHITE));
+
+        // white pawns (chess row 2)
+        for (char col = 'a'; col <= 'h'; col++) {
+            placeNewPiece(col, 2, new Pawn(board, Color.WHITE));
+        }
+
+        // black pieces (back rank -> chess row 8)
+        placeNewPiece('a', 8, new Rook(board, Color.BLACK));
+        placeNewPiece('b', 8, new Knight(board, Color.BLACK));
+        placeNewPiece('c', 8, new Bishop(board, Color.BLACK));
+        placeNewPiece('d', 8, new Queen(board, Color.BLACK));
+        placeNewPiece('e', 8, new King(board, Color.BLACK));
+        placeNewPiece('f', 8, new Bishop(board, Color.BLACK));
+        placeNewPiece('g', 8, new Knight(board, Color.BLACK));
+        placeNewPiece('h', 8, new Rook(board, Color.BLACK));
+
+        // black pawns (chess row 7)
+        for (char col = 'a'; col <= 'h'; col++) {
+            placeNewPiece(col, 7, new Pawn(board, Color.BLACK));
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package core.chess;
+
+import core.board.Board;
+import core.board.Piece;
+import core.board.Position;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public abstract class ChessPiece extends Piece {
+
+    private static final Color[] COLORS = {Color.BLACK, Color.WHITE};
+
+    // cor e contador em campos estreitos: com as referências de Piece, cada peça cabe em 24 bytes
+    private final byte color;
+    private short moveCount;
+
+    public ChessPiece(Board board, Color color) {
+        super(board);
+        this.color = (byte) color.getValue();
+    }
+
+    /**
+     * Índice do bitboard de uma peça: pretas ocupam 0-5 e brancas 6-11, na ordem de {@link PieceType}.
+     */
+    public static int kind(PieceType type, Color color) {
+        return color.getValue() * 6 + type.ordinal();
+    }
+
+
+    public Color getColor() {
+        return COLORS[color];
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public void increaseMoveCount() {
+        moveCount++;
+    }
+
+    public void decreaseMoveCount() {
+        moveCount--;
+    }
+
+    void setMoveCount(int moveCount) {
+        this.moveCount = (short) moveCount;
+    }
+
+    /**
+     * Partida dona do tabuleiro da peça. Só vale para peças criadas sobre um {@link ChessBoard}, como
+     * {@link core.chess.pieces.Pawn} e {@link core.chess.pieces.King} exigem no construtor.
+     */
+    protected ChessMatch getMatch() {
+        return ((ChessBoard) getBoard()).getMatch();
+    }
+
+    public ChessPosition getChessPosition() {
+        return ChessPosition.fromPosition(position);
+    }
+
+    public abstract PieceType getType();
+
+    /**
+     * Casas de destino possíveis como bitboard (bit = row * 8 + column).
+     */
+    public abstract long possibleMovesMask();
+
+    @Override
+    protected int kind() {
+        return color * 6 + getType().ordinal();
+    }
+
+    @Override
+    public boolean[][] possibleMoves() {
+        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
+        long targets = possibleMovesMask();
+        while (targets != 0) {
+            int sq = Long.numberOfTrailingZeros(targets);
+            mat[sq >>> 3][sq & 7] = true;
+            targets &= targets - 1;
+        }
+        return mat;
+    }
+
+    @Override
+    public boolean possibleMove(Position target) {
+        return (possibleMovesMask() & (1L << getBoard().square(target))) != 0;
+    }
+
+    @Override
+    public boolean isThereAnyPossibleMove() {
+        return possibleMovesMask() != 0;
+    }
+
+    protected int square() {
+        return getBoard().square(position);
+    }
+
+    protected long ownPieces() {
+        return colorPieces(color);
+    }
+
+    protected long opponentPieces() {
+        return colorPieces(color ^ 1);
+    }
+
+    private long colorPieces(int c) {
+        int base = c * 6;
+        Board board = getBoard();
+        return board.getBitboard(base) | board.getBitboard(base + 1) | board.getBitboard(base + 2)
+                | board.getBitboard(base + 3) | board.getBitboard(base + 4) | board.getBitboard(base + 5);
+    }
+
+    protected boolean isThereOpponentPiece(Position position) {
+        ChessPiece p = (ChessPiece) getBoard().piece(position);
+        return p != null && p.color != color;
+    }
+}
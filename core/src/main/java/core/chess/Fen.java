@@ -0,0 +1,288 @@
+package core.chess;
+
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+import core.chess.exceptions.ChessException;
+
+/**
+ * Leitura e escrita de posições em notação FEN (Forsyth-Edwards).
+ * A leitura percorre o texto com um cursor, sem dividir a linha nem alocar por caractere;
+ * a escrita acrescenta a um {@link StringBuilder} fornecido pelo chamador.
+ */
+public final class Fen {
+
+    public static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Fen() {
+    }
+
+    /**
+     * Monta uma partida a partir de uma FEN. Os direitos de roque e o avanço dos peões são
+     * representados pelos contadores de movimento das peças, como no restante do ChessMatch;
+     * o número do lance vira {@code turn} e o contador de meios-lances vira {@link ChessMatch#getHalfmoveClock()}.
+     * Os campos depois da disposição das peças e do jogador da vez são opcionais.
+     */
+    public static ChessMatch parse(CharSequence fen) {
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        // o jogador da vez vem depois da disposição, mas é necessário para criar a partida
+        int placementStart = i;
+        while (i < length && !isSpace(fen.charAt(i))) {
+            i++;
+        }
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen);
+        }
+        Color player = parseColor(fen.charAt(i++), fen);
+
+        ChessMatch match = new ChessMatch(player, 1);
+        parsePlacement(fen, placementStart, match);
+
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            i = parseCastling(fen, i, match);
+        }
+        ChessPiece vulnerable = null;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            if (fen.charAt(i) == '-') {
+                i++;
+            } else {
+                vulnerable = parseEnPassant(fen, i, player, match);
+                i += 2;
+            }
+        }
+
+        int halfmove = 0;
+        int fullMove = 1;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            int end = numberEnd(fen, i);
+            halfmove = parseNumber(fen, i, end);
+            i = skipSpaces(fen, end);
+            if (i < length) {
+                end = numberEnd(fen, i);
+                fullMove = parseNumber(fen, i, end);
+                i = skipSpaces(fen, end);
+            }
+        }
+        if (i != length) {
+            throw invalid(fen);
+        }
+
+        match.setTurn(2 * (Math.max(fullMove, 1) - 1) + (player == Color.WHITE ? 1 : 2));
+        match.setHalfmoveClock(halfmove);
+        match.completeSetup(vulnerable);
+        return match;
+    }
+
+    /**
+     * FEN da posição atual da partida.
+     */
+    public static String toFen(ChessMatch match) {
+        StringBuilder sb = new StringBuilder(90);
+        write(match, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Acrescenta a FEN da posição a {@code out}; com um builder reaproveitado, não aloca.
+     * Numa partida encerrada por xeque-mate o jogador da vez é o que levou o mate.
+     */
+    public static void write(ChessMatch match, StringBuilder out) {
+        for (int row = 0; row < 8; row++) {
+            if (row > 0) {
+                out.append('/');
+            }
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = match.pieceAt(row * 8 + col);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = piece.getType().getLetter();
+                out.append(piece.getColor() == Color.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+        }
+
+        Color player = match.sideToMove();
+        // o turno também não avança quando a vez não passou
+        int turn = player == match.getCurrentPlayer() ? match.getTurn() : match.getTurn() + 1;
+        out.append(' ').append(player == Color.WHITE ? 'w' : 'b').append(' ');
+
+        int rights = match.castlingRights();
+        if (rights == 0) {
+            out.append('-');
+        } else {
+            if ((rights & 1) != 0) out.append('K');
+            if ((rights & 2) != 0) out.append('Q');
+            if ((rights & 4) != 0) out.append('k');
+            if ((rights & 8) != 0) out.append('q');
+        }
+
+        out.append(' ');
+        ChessPiece vulnerable = match.getEnPassantVulnerable();
+        if (vulnerable == null) {
+            out.append('-');
+        } else {
+            // casa atravessada pelo peão que avançou duas casas
+            int square = vulnerable.square() + (vulnerable.getColor() == Color.WHITE ? 8 : -8);
+            out.append((char) ('a' + (square & 7))).append((char) ('0' + 8 - (square >>> 3)));
+        }
+
+        out.append(' ').append(match.getHalfmoveClock()).append(' ').append((turn + 1) / 2);
+    }
+
+    private static void parsePlacement(CharSequence fen, int start, ChessMatch match) {
+        int row = 0;
+        int col = 0;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (int i = start; i < fen.length(); i++) {
+            char c = fen.charAt(i);
+            if (isSpace(c)) {
+                break;
+            }
+            if (c == '/') {
+                if (col != 8) {
+                    throw invalid(fen);
+                }
+                row++;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                if (row > 7 || col > 7) {
+                    throw invalid(fen);
+                }
+                PieceType type = pieceType(c, fen);
+                Color color = c < 'a' ? Color.WHITE : Color.BLACK;
+                // peão na primeira ou na última fileira não tem para onde avançar
+                if (type == PieceType.PAWN && (row == 0 || row == 7)) {
+                    throw invalid(fen);
+                }
+                if (type == PieceType.KING) {
+                    if (color == Color.WHITE) whiteKings++; else blackKings++;
+                }
+                ChessPiece piece = match.newPiece(type, color);
+                // peões fora da fileira inicial já se moveram; rei e torre só ficam intactos se a FEN der o roque
+                if (type == PieceType.PAWN && row != (color == Color.WHITE ? 6 : 1)
+                        || type == PieceType.KING || type == PieceType.ROOK) {
+                    piece.setMoveCount(1);
+                }
+                match.placeNewPiece(piece, row * 8 + col);
+                col++;
+            }
+        }
+        if (row != 7 || col != 8 || whiteKings != 1 || blackKings != 1) {
+            throw invalid(fen);
+        }
+    }
+
+    private static int parseCastling(CharSequence fen, int i, ChessMatch match) {
+        for (; i < fen.length() && !isSpace(fen.charAt(i)); i++) {
+            switch (fen.charAt(i)) {
+                case 'K': grantCastling(match, 60, 63, Color.WHITE); break;
+                case 'Q': grantCastling(match, 60, 56, Color.WHITE); break;
+                case 'k': grantCastling(match, 4, 7, Color.BLACK); break;
+                case 'q': grantCastling(match, 4, 0, Color.BLACK); break;
+                case '-': break;
+                default: throw invalid(fen);
+            }
+        }
+        return i;
+    }
+
+    private static ChessPiece parseEnPassant(CharSequence fen, int i, Color player, ChessMatch match) {
+        if (i + 1 >= fen.length()) {
+            throw invalid(fen);
+        }
+        int file = fen.charAt(i) - 'a';
+        int rank = fen.charAt(i + 1) - '0';
+        if (file < 0 || file > 7 || rank != (player == Color.WHITE ? 6 : 3)) {
+            throw invalid(fen);
+        }
+        // o peão vulnerável está uma casa à frente da casa de destino da captura
+        int pawnRow = player == Color.WHITE ? 8 - 5 : 8 - 4;
+        ChessPiece p = match.pieceAt(pawnRow * 8 + file);
+        if (p != null && p.getType() == PieceType.PAWN && p.getColor() != player) {
+            return p;
+        }
+        return null;
+    }
+
+    private static void grantCastling(ChessMatch match, int kingSquare, int rookSquare, Color color) {
+        ChessPiece king = match.pieceAt(kingSquare);
+        ChessPiece rook = match.pieceAt(rookSquare);
+        if (king != null && king.getType() == PieceType.KING && king.getColor() == color
+                && rook != null && rook.getType() == PieceType.ROOK && rook.getColor() == color) {
+            king.setMoveCount(0);
+            rook.setMoveCount(0);
+        }
+    }
+
+    private static PieceType pieceType(char c, CharSequence fen) {
+        char upper = c >= 'a' ? (char) (c - 32) : c;
+        for (PieceType type : TYPES) {
+            if (type.getLetter() == upper) {
+                return type;
+            }
+        }
+        throw invalid(fen);
+    }
+
+    private static Color parseColor(char c, CharSequence fen) {
+        if (c == 'w') return Color.WHITE;
+        if (c == 'b') return Color.BLACK;
+        throw invalid(fen);
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && isSpace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c <= ' ';
+    }
+
+    private static int numberEnd(CharSequence fen, int i) {
+        while (i < fen.length() && !isSpace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseNumber(CharSequence fen, int start, int end) {
+        if (start == end || end - start > 6) {
+            throw invalid(fen);
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalid(fen);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static ChessException invalid(CharSequence fen) {
+        return new ChessException("Invalid FEN: " + fen);
+    }
+}
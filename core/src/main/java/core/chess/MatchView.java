@@ -0,0 +1,75 @@
+package core.chess;
+
+import core.chess.enums.GameState;
+
+/**
+ * Estado de uma partida publicado ao fim de cada lance concluído (ver {@link ChessMatch#getView()}).
+ * Imutável: leitores em outras threads obtêm sempre uma posição inteira, nunca um lance pela metade,
+ * sem bloquear quem joga. A versão cresce a cada publicação.
+ */
+public final class MatchView {
+
+    private final long version;
+    private final PositionSnapshot snapshot;
+    // peças da partida por casa no momento da publicação; as referências são as mesmas do tabuleiro
+    private final ChessPiece[] pieces;
+    // calculados na primeira consulta; várias threads podem calcular ao mesmo tempo, com o mesmo resultado
+    private GameState state;
+    private String fen;
+
+    MatchView(long version, PositionSnapshot snapshot, ChessPiece[] pieces) {
+        this.version = version;
+        this.snapshot = snapshot;
+        this.pieces = pieces;
+        this.state = snapshot.getState();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PositionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public ChessPiece pieceAt(int square) {
+        return pieces[square];
+    }
+
+    /**
+     * Matriz de peças como {@link ChessMatch#getPieces()}, montada a cada chamada.
+     */
+    public ChessPiece[][] getPieces() {
+        ChessPiece[][] matrix = new ChessPiece[8][8];
+        for (int square = 0; square < 64; square++) {
+            matrix[square >>> 3][square & 7] = pieces[square];
+        }
+        return matrix;
+    }
+
+    public boolean isCheck() {
+        return snapshot.isCheck();
+    }
+
+    public boolean isCheckMate() {
+        return snapshot.isCheckMate();
+    }
+
+    public GameState getState() {
+        GameState result = state;
+        if (result == null) {
+            result = snapshot.toMatch().getState();
+            state = result;
+        }
+        return result;
+    }
+
+    public String getFen() {
+        String result = fen;
+        if (result == null) {
+            result = Fen.toFen(snapshot.toMatch());
+            fen = result;
+        }
+        return result;
+    }
+}
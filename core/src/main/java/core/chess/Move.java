@@ -0,0 +1,81 @@
+package core.chess;
+
+import core.chess.enums.PieceType;
+
+/**
+ * Lance compactado em um int: casa de origem (bits 0-5), casa de destino (bits 6-11),
+ * flags (bits 12-15) e tipo da peça de promoção (bits 16-18).
+ * As casas seguem a convenção do Board: square = row * 8 + column, linha 0 = fileira 8.
+ */
+public final class Move {
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+
+    /**
+     * Lance nulo (passar a vez), usado pela busca; nenhum lance real tem origem igual ao destino.
+     */
+    public static final int NULL = 0;
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Move() {
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int promotion(int from, int to, boolean capture, PieceType type) {
+        return of(from, to, PROMOTION | (capture ? CAPTURE : 0)) | (type.ordinal() << 16);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static PieceType promotionType(int move) {
+        return TYPES[(move >>> 16) & 0x7];
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (8 - (square >>> 3));
+    }
+
+    /**
+     * Notação de coordenadas (UCI), por exemplo "e2e4" ou "e7e8q".
+     */
+    public static String toString(int move) {
+        String s = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            s += Character.toLowerCase(promotionType(move).getLetter());
+        }
+        return s;
+    }
+}
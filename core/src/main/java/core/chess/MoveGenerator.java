@@ -0,0 +1,300 @@
+package core.chess;
+
+import core.board.Board;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+/**
+ * Gera lances direto dos bitboards, escrevendo-os como {@link Move} em um buffer fornecido pelo chamador,
+ * sem alocar. {@link #generate} produz lances pseudo-legais (podem deixar o próprio rei em xeque);
+ * {@link #generateLegal} calcula antes as peças cravadas e as peças que dão xeque e só produz lances legais,
+ * sem precisar executar e desfazer cada candidato.
+ */
+final class MoveGenerator {
+
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    private final ChessMatch match;
+    private final Board board;
+
+    MoveGenerator(ChessMatch match, Board board) {
+        this.match = match;
+        this.board = board;
+    }
+
+    /**
+     * @return índice seguinte ao último lance escrito em {@code moves}
+     */
+    int generate(Color color, int[] moves, int offset) {
+        return generate(color, moves, offset, false);
+    }
+
+    /**
+     * Como {@link #generate}, mas só com lances legais: em xeque duplo, só lances do rei; em xeque simples,
+     * capturas da peça que dá xeque e bloqueios; peças cravadas só se movem sobre a linha da cravada.
+     */
+    int generateLegal(Color color, int[] moves, int offset) {
+        return generate(color, moves, offset, true);
+    }
+
+    /**
+     * Indica se um lance pseudo-legal de {@code color} não deixa o próprio rei em xeque.
+     */
+    boolean isLegal(Color color, int move) {
+        int us = color.getValue();
+        int enemyBase = (1 - us) * 6;
+        long kings = board.getBitboard(us * 6 + KING);
+        if (kings == 0) {
+            return true;
+        }
+        int king = Long.numberOfTrailingZeros(kings);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long occupied = board.getOccupied();
+        if (from == king) {
+            // o roque já é validado na geração
+            return Move.flags(move) == Move.KING_CASTLE || Move.flags(move) == Move.QUEEN_CASTLE
+                    || attackers(to, us, enemyBase, occupied ^ 1L << from) == 0;
+        }
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            return enPassantLegal(from, to, king, us, enemyBase, occupied);
+        }
+        long checkers = attackers(king, us, enemyBase, occupied);
+        if (checkers != 0 && (Long.bitCount(checkers) > 1
+                || ((Attacks.between(king, Long.numberOfTrailingZeros(checkers)) | checkers) & 1L << to) == 0)) {
+            return false;
+        }
+        return (pinned(king, us * 6, enemyBase, occupied) & 1L << from) == 0 || (Attacks.line(king, from) & 1L << to) != 0;
+    }
+
+    private int generate(Color color, int[] moves, int offset, boolean legal) {
+        int us = color.getValue();
+        int base = us * 6;
+        int enemyBase = (1 - us) * 6;
+        long own = colorPieces(base);
+        long enemy = colorPieces(enemyBase);
+        long occupied = own | enemy;
+        long kings = board.getBitboard(base + KING);
+        int king = kings != 0 ? Long.numberOfTrailingZeros(kings) : -1;
+        legal &= king >= 0;
+        int n = offset;
+
+        // casas que resolvem o xeque (todas, sem xeque) e peças cravadas contra o próprio rei
+        long evasions = -1L;
+        long pinned = 0;
+        long checkers = 0;
+        if (legal) {
+            checkers = attackers(king, us, enemyBase, occupied);
+            if (Long.bitCount(checkers) > 1) {
+                return addKingMoves(king, own, enemy, us, enemyBase, occupied, moves, n);
+            }
+            if (checkers != 0) {
+                evasions = Attacks.between(king, Long.numberOfTrailingZeros(checkers)) | checkers;
+            }
+            pinned = pinned(king, base, enemyBase, occupied);
+        }
+        long targets = ~own & evasions;
+
+        n = generatePawnMoves(color, board.getBitboard(base + PAWN), enemy, occupied, evasions, pinned, king,
+                legal, moves, n);
+
+        long knights = board.getBitboard(base + KNIGHT) & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            n = addMoves(from, Attacks.knight(from) & targets, enemy, moves, n);
+        }
+        long bishops = board.getBitboard(base + BISHOP);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            n = addMoves(from, Attacks.bishop(from, occupied) & targets & pinRay(from, king, pinned), enemy, moves, n);
+        }
+        long rooks = board.getBitboard(base + ROOK);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            n = addMoves(from, Attacks.rook(from, occupied) & targets & pinRay(from, king, pinned), enemy, moves, n);
+        }
+        long queens = board.getBitboard(base + QUEEN);
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            n = addMoves(from, Attacks.queen(from, occupied) & targets & pinRay(from, king, pinned), enemy, moves, n);
+        }
+        if (king >= 0) {
+            if (legal) {
+                n = addKingMoves(king, own, enemy, us, enemyBase, occupied, moves, n);
+            } else {
+                n = addMoves(king, Attacks.king(king) & ~own, enemy, moves, n);
+            }
+            if (checkers == 0) {
+                n = generateCastling(color, king, occupied, moves, n);
+            }
+        }
+        return n;
+    }
+
+    private int generatePawnMoves(Color color, long pawns, long enemy, long occupied, long evasions, long pinned,
+                                  int king, boolean legal, int[] moves, int n) {
+        boolean white = color == Color.WHITE;
+        int us = color.getValue();
+        int forward = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+
+        ChessPiece vulnerable = match.getEnPassantVulnerable();
+        long enPassantTarget = 0;
+        if (vulnerable != null && vulnerable.getColor() != color) {
+            enPassantTarget = 1L << (vulnerable.square() + forward);
+        }
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = evasions & pinRay(from, king, pinned);
+
+            int one = from + forward;
+            if ((occupied & (1L << one)) == 0) {
+                if ((allowed & (1L << one)) != 0) {
+                    n = addPawnMove(from, one, false, moves, n);
+                }
+                int two = one + forward;
+                if (from >>> 3 == startRow && (occupied & (1L << two)) == 0 && (allowed & (1L << two)) != 0) {
+                    moves[n++] = Move.of(from, two, Move.DOUBLE_PAWN_PUSH);
+                }
+            }
+
+            long attacks = Attacks.pawn(us, from);
+            long captures = attacks & enemy & allowed;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                n = addPawnMove(from, to, true, moves, n);
+            }
+            if ((attacks & enPassantTarget) != 0) {
+                int to = Long.numberOfTrailingZeros(enPassantTarget);
+                if (!legal || enPassantLegal(from, to, king, us, (1 - us) * 6, occupied)) {
+                    moves[n++] = Move.of(from, to, Move.EN_PASSANT);
+                }
+            }
+        }
+        return n;
+    }
+
+    private int addPawnMove(int from, int to, boolean capture, int[] moves, int n) {
+        if (to < 8 || to >= 56) {
+            for (PieceType type : PROMOTIONS) {
+                moves[n++] = Move.promotion(from, to, capture, type);
+            }
+        } else {
+            moves[n++] = Move.of(from, to, capture ? Move.CAPTURE : Move.QUIET);
+        }
+        return n;
+    }
+
+    /**
+     * Lances do rei para casas não atacadas; o rei sai da ocupação para que as peças deslizantes que o atacam
+     * também cubram as casas atrás dele na mesma linha.
+     */
+    private int addKingMoves(int king, long own, long enemy, int us, int enemyBase, long occupied, int[] moves, int n) {
+        long targets = Attacks.king(king) & ~own;
+        long without = occupied ^ 1L << king;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (attackers(to, us, enemyBase, without) == 0) {
+                moves[n++] = Move.of(king, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+            }
+        }
+        return n;
+    }
+
+    private int generateCastling(Color color, int king, long occupied, int[] moves, int n) {
+        int rights = match.castlingRights() >>> (color == Color.WHITE ? 0 : 2);
+        if ((rights & 3) == 0) {
+            return n;
+        }
+        Color opponent = color.opposite();
+        if (match.isSquareAttacked(king, opponent)) {
+            return n;
+        }
+        if ((rights & 1) != 0 && (occupied & (0b11L << (king + 1))) == 0
+                && !match.isSquareAttacked(king + 1, opponent) && !match.isSquareAttacked(king + 2, opponent)) {
+            moves[n++] = Move.of(king, king + 2, Move.KING_CASTLE);
+        }
+        if ((rights & 2) != 0 && (occupied & (0b111L << (king - 3))) == 0
+                && !match.isSquareAttacked(king - 1, opponent) && !match.isSquareAttacked(king - 2, opponent)) {
+            moves[n++] = Move.of(king, king - 2, Move.QUEEN_CASTLE);
+        }
+        return n;
+    }
+
+    /**
+     * A captura en passant tira duas peças da mesma fileira de uma vez, o que pode descobrir um ataque ao rei
+     * que a análise de cravadas não enxerga; por isso é verificada refazendo a ocupação.
+     */
+    private boolean enPassantLegal(int from, int to, int king, int us, int enemyBase, long occupied) {
+        int captured = (from & ~7) | (to & 7);
+        long after = (occupied ^ 1L << from ^ 1L << captured) | 1L << to;
+        return (attackers(king, us, enemyBase, after) & ~(1L << captured)) == 0;
+    }
+
+    /**
+     * Peças adversárias que atacam a casa com a ocupação informada; {@code us} é a cor defensora.
+     */
+    private long attackers(int square, int us, int enemyBase, long occupied) {
+        long queens = board.getBitboard(enemyBase + QUEEN);
+        // um peão adversário ataca a casa se estiver onde um peão nosso na casa atacaria
+        return Attacks.pawn(us, square) & board.getBitboard(enemyBase + PAWN)
+                | Attacks.knight(square) & board.getBitboard(enemyBase + KNIGHT)
+                | Attacks.king(square) & board.getBitboard(enemyBase + KING)
+                | Attacks.bishop(square, occupied) & (board.getBitboard(enemyBase + BISHOP) | queens)
+                | Attacks.rook(square, occupied) & (board.getBitboard(enemyBase + ROOK) | queens);
+    }
+
+    /**
+     * Peças próprias que são a única peça entre o rei e uma peça deslizante adversária alinhada com ele.
+     */
+    private long pinned(int king, int base, int enemyBase, long occupied) {
+        long enemy = colorPieces(enemyBase);
+        long queens = board.getBitboard(enemyBase + QUEEN);
+        // com só as peças adversárias na ocupação, os raios do rei atravessam as próprias peças
+        long snipers = Attacks.rook(king, enemy) & (board.getBitboard(enemyBase + ROOK) | queens)
+                | Attacks.bishop(king, enemy) & (board.getBitboard(enemyBase + BISHOP) | queens);
+        long own = colorPieces(base);
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & blockers - 1) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static long pinRay(int from, int king, long pinned) {
+        return (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : -1L;
+    }
+
+    private static int addMoves(int from, long targets, long enemy, int[] moves, int n) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[n++] = Move.of(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+        }
+        return n;
+    }
+
+    private long colorPieces(int base) {
+        return board.getBitboard(base) | board.getBitboard(base + 1) | board.getBitboard(base + 2)
+                | board.getBitboard(base + 3) | board.getBitboard(base + 4) | board.getBitboard(base + 5);
+    }
+}
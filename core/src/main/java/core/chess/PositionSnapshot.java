@@ -0,0 +1,112 @@
+package core.chess;
+
+import core.chess.enums.Color;
+import core.chess.enums.GameState;
+import core.chess.enums.PieceType;
+
+/**
+ * Fotografia imutável de uma posição, tirada por {@link ChessMatch#snapshot()}: os bitboards das doze peças,
+ * o estado fora do tabuleiro e o histórico de chaves para a repetição. Não guarda objetos de peça, então pode
+ * ser compartilhada entre threads e guardada aos milhares. O histórico é compartilhado com a partida de origem
+ * e com as partidas criadas por {@link #toMatch()}; quem escreve nele copia antes (cópia na escrita).
+ */
+public final class PositionSnapshot {
+
+    private final long[] bitboards;
+    private final long key;
+    private final Color currentPlayer;
+    private final int turn;
+    private final int halfmoveClock;
+    private final int castling;
+    private final int enPassantSquare;
+    private final boolean check;
+    private final boolean checkMate;
+    private final GameState state;
+    private final long[] keyHistory;
+    private final int historySize;
+
+    PositionSnapshot(long[] bitboards, long key, Color currentPlayer, int turn, int halfmoveClock, int castling,
+                     int enPassantSquare, boolean check, boolean checkMate, GameState state,
+                     long[] keyHistory, int historySize) {
+        this.bitboards = bitboards;
+        this.key = key;
+        this.currentPlayer = currentPlayer;
+        this.turn = turn;
+        this.halfmoveClock = halfmoveClock;
+        this.castling = castling;
+        this.enPassantSquare = enPassantSquare;
+        this.check = check;
+        this.checkMate = checkMate;
+        this.state = state;
+        this.keyHistory = keyHistory;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Partida nova e independente na posição da fotografia, pronta para receber lances.
+     */
+    public ChessMatch toMatch() {
+        return ChessMatch.restore(this);
+    }
+
+    public long getBitboard(PieceType type, Color color) {
+        return bitboards[ChessPiece.kind(type, color)];
+    }
+
+    public Color getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Direitos de roque no formato de {@link ChessMatch#castlingRights()}.
+     */
+    public int castlingRights() {
+        return castling;
+    }
+
+    /**
+     * Casa do peão que pode ser capturado en passant, ou -1.
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+
+    public boolean isCheckMate() {
+        return checkMate;
+    }
+
+    /**
+     * Chave de Zobrist da posição, igual à de {@link ChessMatch#getZobristKey()} no momento da fotografia.
+     */
+    public long getZobristKey() {
+        return key;
+    }
+
+    GameState getState() {
+        return state;
+    }
+
+    long bitboard(int kind) {
+        return bitboards[kind];
+    }
+
+    long[] keyHistory() {
+        return keyHistory;
+    }
+
+    int historySize() {
+        return historySize;
+    }
+}
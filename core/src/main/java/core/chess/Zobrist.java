@@ -0,0 +1,80 @@
+package core.chess;
+
+import core.board.Board;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves de Zobrist do estado que não está no tabuleiro: direitos de roque, coluna de en passant
+ * e lado a jogar. A parte das peças é mantida pelo próprio {@link Board} (ver {@link Board#getKey()}).
+ */
+public final class Zobrist {
+
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0xC4E55_5747EL);
+        WHITE_TO_MOVE = random.nextLong();
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int file) {
+        return EN_PASSANT[file];
+    }
+
+    public static long whiteToMove() {
+        return WHITE_TO_MOVE;
+    }
+
+    /**
+     * Recalcula do zero a chave que o ChessMatch mantém incrementalmente; usado para validação.
+     */
+    public static long compute(ChessMatch match) {
+        Board board = match.getBoard();
+        long key = 0;
+        long occupied = board.getOccupied();
+        while (occupied != 0) {
+            int sq = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            ChessPiece piece = (ChessPiece) board.pieceAt(sq);
+            key ^= Board.pieceKey(ChessPiece.kind(piece.getType(), piece.getColor()), sq);
+        }
+        key ^= CASTLING[match.computeCastlingRights()];
+        if (match.getCurrentPlayer() == Color.WHITE) {
+            key ^= WHITE_TO_MOVE;
+        }
+        return key ^ enPassantKey(match, board);
+    }
+
+    /**
+     * A coluna de en passant só entra na chave quando há um peão do jogador da vez em condições de capturar,
+     * para que posições idênticas na prática tenham a mesma chave.
+     */
+    static long enPassantKey(ChessMatch match, Board board) {
+        ChessPiece vulnerable = match.getEnPassantVulnerable();
+        if (vulnerable == null) {
+            return 0;
+        }
+        Color player = match.getCurrentPlayer();
+        int target = vulnerable.square() + (player == Color.WHITE ? -8 : 8);
+        long capturers = Attacks.pawn(player.opposite().getValue(), target)
+                & board.getBitboard(ChessPiece.kind(PieceType.PAWN, player));
+        return capturers != 0 ? EN_PASSANT[target & 7] : 0;
+    }
+}
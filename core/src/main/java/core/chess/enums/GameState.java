@@ -0,0 +1,22 @@
+package core.chess.enums;
+
+/**
+ * Situação da partida na posição atual. Os empates são os que a regra declara sem acordo entre os jogadores:
+ * afogamento, tripla repetição, regra dos cinquenta lances e material insuficiente para dar mate.
+ */
+public enum GameState {
+    ONGOING,
+    CHECKMATE,
+    STALEMATE,
+    THREEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
+    INSUFFICIENT_MATERIAL;
+
+    public boolean isOver() {
+        return this != ONGOING;
+    }
+
+    public boolean isDraw() {
+        return this != ONGOING && this != CHECKMATE;
+    }
+}
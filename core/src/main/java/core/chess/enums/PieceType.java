@@ -0,0 +1,27 @@
+package core.chess.enums;
+
+public enum PieceType {
+    PAWN('P'),
+    KNIGHT('N'),
+    BISHOP('B'),
+    ROOK('R'),
+    QUEEN('Q'),
+    KING('K');
+
+    private final char letter;
+
+    PieceType(char letter) {
+        this.letter = letter;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    public static PieceType fromLetter(char letter) {
+        for (PieceType t : values()) {
+            if (t.letter == Character.toUpperCase(letter)) return t;
+        }
+        throw new IllegalArgumentException("Invalid PieceType letter: " + letter);
+    }
+}
@@ -0,0 +1,30 @@
+package core.chess.pieces;
+
+import core.board.Board;
+import core.chess.Attacks;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class Bishop extends ChessPiece {
+
+    public Bishop(Board board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "B";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.BISHOP;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        return Attacks.bishop(square(), getBoard().getOccupied()) & ~ownPieces();
+    }
+}
@@ -0,0 +1,64 @@
+package core.chess.pieces;
+
+import core.chess.Attacks;
+import core.chess.ChessBoard;
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class King extends ChessPiece {
+
+    /**
+     * @param board tabuleiro de uma partida, de onde a peça obtém a partida sem guardar referência própria
+     */
+    public King(ChessBoard board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "K";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        int sq = square();
+        long mask = Attacks.king(sq) & ~ownPieces();
+
+        // special move castling
+        // the king may not castle out of, through or into an attacked square
+        Color opponent = getColor().opposite();
+        ChessMatch match = getMatch();
+        if (getMoveCount() == 0 && !match.isSquareAttacked(sq, opponent)) {
+            long occupied = getBoard().getOccupied();
+            int col = sq & 7;
+
+            // kingside rook
+            if (col + 3 < 8 && testRookCastling(sq + 3) && (occupied & (0b11L << (sq + 1))) == 0
+                    && !match.isSquareAttacked(sq + 1, opponent) && !match.isSquareAttacked(sq + 2, opponent)) {
+                mask |= 1L << (sq + 2);
+            }
+
+            // queenside rook
+            if (col - 4 >= 0 && testRookCastling(sq - 4) && (occupied & (0b111L << (sq - 3))) == 0
+                    && !match.isSquareAttacked(sq - 1, opponent) && !match.isSquareAttacked(sq - 2, opponent)) {
+                mask |= 1L << (sq - 2);
+            }
+        }
+
+        return mask;
+    }
+
+
+    private boolean testRookCastling(int square) {
+        ChessPiece p = (ChessPiece) getBoard().pieceAt(square);
+        return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
+    }
+}
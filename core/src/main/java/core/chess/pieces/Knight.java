@@ -0,0 +1,30 @@
+package core.chess.pieces;
+
+import core.board.Board;
+import core.chess.Attacks;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class Knight extends ChessPiece {
+
+    public Knight(Board board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "N";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        return Attacks.knight(square()) & ~ownPieces();
+    }
+}
@@ -0,0 +1,68 @@
+package core.chess.pieces;
+
+import core.chess.Attacks;
+import core.chess.ChessBoard;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class Pawn extends ChessPiece {
+
+    /**
+     * @param board tabuleiro de uma partida, de onde a peça obtém a partida sem guardar referência própria
+     */
+    public Pawn(ChessBoard board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "P";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        int sq = square();
+        long occupied = getBoard().getOccupied();
+        // white pawns move towards row 0, black pawns towards row 7
+        int forward = getColor() == Color.WHITE ? -8 : 8;
+        long mask = 0L;
+
+        // move forward
+        int one = sq + forward;
+        if (one >= 0 && one < 64 && (occupied & (1L << one)) == 0) {
+            mask |= 1L << one;
+            // first move can move two squares
+            int two = one + forward;
+            if (getMoveCount() == 0 && two >= 0 && two < 64 && (occupied & (1L << two)) == 0) {
+                mask |= 1L << two;
+            }
+        }
+
+        // capture diagonally
+        long attacks = Attacks.pawn(getColor().getValue(), sq);
+        mask |= attacks & opponentPieces();
+
+        // special move en passant
+        ChessPiece vulnerable = getMatch().getEnPassantVulnerable();
+        int row = sq >>> 3;
+        if (vulnerable != null && vulnerable.getColor() != getColor()
+                && (getColor() == Color.WHITE && row == 3 || getColor() == Color.BLACK && row == 4)) {
+            int col = sq & 7;
+            if (col > 0 && getBoard().pieceAt(sq - 1) == vulnerable) {
+                mask |= 1L << (sq - 1 + forward);
+            }
+            if (col < 7 && getBoard().pieceAt(sq + 1) == vulnerable) {
+                mask |= 1L << (sq + 1 + forward);
+            }
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,30 @@
+package core.chess.pieces;
+
+import core.board.Board;
+import core.chess.Attacks;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class Queen extends ChessPiece {
+
+    public Queen(Board board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "Q";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.QUEEN;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        return Attacks.queen(square(), getBoard().getOccupied()) & ~ownPieces();
+    }
+}
@@ -0,0 +1,30 @@
+package core.chess.pieces;
+
+import core.board.Board;
+import core.chess.Attacks;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+public class Rook extends ChessPiece {
+
+    public Rook(Board board, Color color) {
+        super(board, color);
+    }
+
+
+    @Override
+    public String toString() {
+        return "R";
+    }
+
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
+    @Override
+    public long possibleMovesMask() {
+        return Attacks.rook(square(), getBoard().getOccupied()) & ~ownPieces();
+    }
+}
@@ -0,0 +1,142 @@
+package core.engine;
+
+import core.chess.ChessMatch;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+/**
+ * Avaliação estática: material mais tabelas de posição por casa, com a tabela do rei
+ * interpolada entre meio-jogo e final conforme o material restante.
+ * As tabelas estão do ponto de vista das brancas, na ordem das casas do Board (a8 = 0, h1 = 63);
+ * para as pretas a casa é espelhada com {@code square ^ 56}.
+ */
+public final class Evaluator {
+
+    // na ordem de PieceType: PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING
+    static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    private static final int MAX_PHASE = 24;
+
+    private static final int[][] TABLES = {
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            {
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20
+            },
+            {
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            }
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Evaluator() {
+    }
+
+    /**
+     * @return pontuação em centipeões do ponto de vista do jogador da vez
+     */
+    public static int evaluate(ChessMatch match) {
+        int score = 0;
+        int phase = 0;
+        int kingMiddle = 0;
+        int kingEnd = 0;
+        for (int c = 0; c < 2; c++) {
+            Color color = c == 0 ? Color.WHITE : Color.BLACK;
+            int sign = c == 0 ? 1 : -1;
+            int mirror = c == 0 ? 0 : 56;
+            for (int t = 0; t < 5; t++) {
+                long pieces = match.getBitboard(TYPES[t], color);
+                int[] table = TABLES[t];
+                while (pieces != 0) {
+                    int sq = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    score += sign * (VALUES[t] + table[sq ^ mirror]);
+                    phase += PHASE_WEIGHTS[t];
+                }
+            }
+            long king = match.getBitboard(PieceType.KING, color);
+            if (king != 0) {
+                int sq = Long.numberOfTrailingZeros(king) ^ mirror;
+                kingMiddle += sign * TABLES[5][sq];
+                kingEnd += sign * KING_ENDGAME[sq];
+            }
+        }
+        phase = Math.min(phase, MAX_PHASE);
+        score += (kingMiddle * phase + kingEnd * (MAX_PHASE - phase)) / MAX_PHASE;
+        return match.getCurrentPlayer() == Color.WHITE ? score : -score;
+    }
+
+    /**
+     * Indica se o jogador tem alguma peça além de peões e rei; sem elas a poda de lance nulo
+     * fica sujeita a zugzwang.
+     */
+    static boolean hasPieces(ChessMatch match, Color color) {
+        return (match.getBitboard(PieceType.KNIGHT, color) | match.getBitboard(PieceType.BISHOP, color)
+                | match.getBitboard(PieceType.ROOK, color) | match.getBitboard(PieceType.QUEEN, color)) != 0;
+    }
+}
@@ -0,0 +1,112 @@
+package core.engine;
+
+import core.chess.ChessMatch;
+import core.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Busca paralela Lazy SMP: todas as threads buscam a mesma raiz, cada uma sobre sua própria cópia da partida,
+ * e cooperam apenas pela {@link TranspositionTable} compartilhada. A thread que chama {@link #search} é a
+ * principal e define o resultado; as auxiliares começam em profundidades alternadas para desencontrar as
+ * árvores e são interrompidas quando a principal termina.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final int maxThreads;
+    private final Search[] workers;
+    private final ExecutorService helpers;
+
+    /**
+     * @param hashMegabytes tamanho da tabela de transposição compartilhada
+     * @param maxThreads    limite de threads por busca, incluindo a que chama {@link #search}
+     */
+    public ParallelSearch(int hashMegabytes, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required");
+        }
+        this.table = new TranspositionTable(hashMegabytes);
+        this.maxThreads = maxThreads;
+        this.workers = new Search[maxThreads];
+        for (int i = 0; i < maxThreads; i++) {
+            workers[i] = new Search(table);
+        }
+        this.helpers = maxThreads > 1 ? Executors.newFixedThreadPool(maxThreads - 1, r -> {
+            Thread thread = new Thread(r, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Tabelas de finais consultadas por todas as threads (ver {@link Search#setTablebases}).
+     */
+    public synchronized void setTablebases(Tablebases tablebases) {
+        for (Search worker : workers) {
+            worker.setTablebases(tablebases);
+        }
+    }
+
+    /**
+     * Busca com até {@code threads} threads (limitado ao máximo do construtor). O orçamento de nós é
+     * dividido entre as threads e o prazo é comum a todas; os nós informados são a soma de todas elas.
+     * A partida recebida não é alterada. Buscas simultâneas na mesma instância não são suportadas.
+     */
+    public synchronized SearchResult search(ChessMatch match, SearchLimits limits, int threads) {
+        int count = Math.max(1, Math.min(threads, maxThreads));
+        long start = System.nanoTime();
+        SearchLimits perThread = count == 1 || limits.getMaxNodes() == 0 ? limits
+                : new SearchLimits(limits.getMaxDepth(), Math.max(1, limits.getMaxNodes() / count), limits.getMaxTimeMillis());
+        table.newSearch();
+
+        List<Future<SearchResult>> futures = new ArrayList<>(count - 1);
+        for (int i = 1; i < count; i++) {
+            Search helper = workers[i];
+            ChessMatch copy = match.copy();
+            int firstDepth = 1 + (i & 1);
+            helper.reset();
+            futures.add(helpers.submit(() -> helper.run(copy, perThread, firstDepth, start)));
+        }
+
+        Search main = workers[0];
+        main.reset();
+        SearchResult result;
+        try {
+            result = main.run(match.copy(), perThread, 1, start);
+        } finally {
+            for (int i = 1; i < count; i++) {
+                workers[i].stop();
+            }
+        }
+
+        long nodes = result.getNodes();
+        for (Future<SearchResult> future : futures) {
+            try {
+                nodes += future.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
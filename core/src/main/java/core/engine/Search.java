@@ -0,0 +1,427 @@
+package core.engine;
+
+import core.chess.ChessMatch;
+import core.chess.Move;
+import core.tablebase.Tablebases;
+
+import java.util.Arrays;
+
+/**
+ * Busca alfa-beta (negamax) com aprofundamento iterativo, tabela de transposição, janelas de aspiração,
+ * poda de lance nulo e reduções de lances tardios, seguida de busca de quiescência nas capturas.
+ * Opera direto sobre {@link ChessMatch#makeMove(int)}/{@link ChessMatch#unmakeMove()} da partida recebida,
+ * que volta ao estado original ao final. Uma instância não é thread-safe; use uma por thread
+ * (ver {@link ParallelSearch}, em que várias instâncias compartilham a mesma tabela).
+ */
+public class Search {
+
+    public static final int MATE = 30000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = 32000;
+    private static final int ASPIRATION_WINDOW = 35;
+    private static final int MAX_MOVES = 256;
+
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+
+    private final TranspositionTable table;
+
+    private final int[] moves = new int[MAX_PLY * MAX_MOVES];
+    private final int[] scores = new int[MAX_PLY * MAX_MOVES];
+    private final int[] killers = new int[MAX_PLY * 2];
+    private final int[] history = new int[64 * 64];
+    // chaves da partida desde o último lance irreversível (path[0, root)) seguidas das do caminho atual
+    // (path[root + ply]), para detectar repetições dentro da árvore e de posições já jogadas
+    private long[] path = new long[MAX_PLY + 1];
+    private int root;
+    private final boolean[] nullMoveAt = new boolean[MAX_PLY + 1];
+
+    private Tablebases tablebases;
+    private ChessMatch match;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private int rootBest;
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public Search(int hashMegabytes) {
+        this(new TranspositionTable(hashMegabytes));
+    }
+
+    /**
+     * Tabelas de finais consultadas abaixo da raiz; com null (padrão), a busca não as usa.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Interrompe a busca em andamento (de outra thread); ela devolve a última iteração completa.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Nós visitados pela busca em andamento ou pela última busca.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public SearchResult search(ChessMatch match, SearchLimits limits) {
+        stopRequested = false;
+        table.newSearch();
+        return run(match, limits, 1, System.nanoTime());
+    }
+
+    /**
+     * Prepara a instância para uma nova busca disparada por outra thread, sem perder um {@link #stop()} posterior.
+     */
+    void reset() {
+        stopRequested = false;
+    }
+
+    /**
+     * Aprofundamento iterativo a partir de {@code firstDepth}, sem iniciar nova geração na tabela;
+     * usado diretamente pelas threads auxiliares da busca paralela.
+     */
+    SearchResult run(ChessMatch match, SearchLimits limits, int firstDepth, long start) {
+        this.match = match;
+        nodes = 0;
+        maxNodes = limits.getMaxNodes();
+        deadline = limits.getMaxTimeMillis() > 0 ? start + limits.getMaxTimeMillis() * 1_000_000L : 0;
+        aborted = false;
+        Arrays.fill(killers, 0);
+        Arrays.fill(history, 0);
+        if (path.length < match.getHalfmoveClock() + MAX_PLY + 1) {
+            path = new long[match.getHalfmoveClock() + MAX_PLY + 1];
+        }
+        root = match.repetitionKeys(path);
+
+        int count = match.legalMoves(moves, 0);
+        if (count == 0) {
+            int score = match.isCheck() ? -MATE : 0;
+            return new SearchResult(Move.NULL, score, 0, 0, elapsedMillis(start));
+        }
+
+        int maxDepth = limits.getMaxDepth() > 0 ? Math.min(limits.getMaxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        int bestMove = moves[0];
+        int bestScore = 0;
+        int completed = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int window = ASPIRATION_WINDOW;
+            int alpha = depth >= 4 ? Math.max(bestScore - window, -INFINITY) : -INFINITY;
+            int beta = depth >= 4 ? Math.min(bestScore + window, INFINITY) : INFINITY;
+            int score;
+            while (true) {
+                rootBest = Move.NULL;
+                score = negamax(depth, alpha, beta, 0, false);
+                if (aborted) {
+                    break;
+                }
+                // resultado fora da janela: alarga o lado que falhou e repete a iteração
+                window *= 4;
+                if (score <= alpha) {
+                    alpha = Math.max(score - window, -INFINITY);
+                } else if (score >= beta) {
+                    beta = Math.min(score + window, INFINITY);
+                } else {
+                    break;
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            completed = depth;
+            bestScore = score;
+            if (rootBest != Move.NULL) {
+                bestMove = rootBest;
+            }
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completed, nodes, elapsedMillis(start));
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, boolean allowNull) {
+        long key = match.getZobristKey();
+        path[root + ply] = key;
+        if (ply > 0 && (isRepetition(key, ply) || isFiftyMoveDraw(ply))) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (visit()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(match);
+        }
+        if (tablebases != null && ply > 0) {
+            int score = tablebases.probe(match);
+            if (score != Tablebases.UNKNOWN) {
+                // distância ao mate contada a partir da raiz
+                return score > 0 ? score - ply : score < 0 ? score + ply : 0;
+            }
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        int ttMove = Move.NULL;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && !pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        boolean inCheck = match.isCheck();
+        if (allowNull && !pvNode && !inCheck && depth >= 3
+                && Evaluator.hasPieces(match, match.getCurrentPlayer()) && Evaluator.evaluate(match) >= beta) {
+            int reduction = depth >= 6 ? 3 : 2;
+            match.makeNullMove();
+            nullMoveAt[ply + 1] = true;
+            int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            nullMoveAt[ply + 1] = false;
+            match.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score >= MATE - MAX_PLY ? beta : score;
+            }
+        }
+
+        int base = ply * MAX_MOVES;
+        int count = match.legalMoves(moves, base);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(base, count, ttMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NULL;
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(base, i, count);
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+            match.makeMove(move);
+            boolean givesCheck = match.isCheck();
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = 0;
+                if (depth >= 3 && i >= 3 && quiet && !inCheck && !givesCheck) {
+                    reduction = Math.min(i >= 8 ? 2 : 1, depth - 2);
+                }
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (reduction > 0 && score > alpha) {
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            match.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBest = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            storeKiller(move, ply);
+                            history[move & 0xFFF] += depth * depth;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        if (visit()) {
+            return 0;
+        }
+        boolean inCheck = match.isCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluator.evaluate(match);
+            if (best >= beta || ply >= MAX_PLY - 1) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        } else if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(match);
+        }
+
+        int base = ply * MAX_MOVES;
+        int count = match.legalMoves(moves, base);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(base, count, Move.NULL, ply);
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(base, i, count);
+            // fora do xeque só capturas e promoções; em xeque todas as defesas
+            if (!inCheck && !Move.isCapture(move) && !Move.isPromotion(move)) {
+                continue;
+            }
+            match.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            match.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Conta o nó e verifica o orçamento; devolve true quando a busca deve ser abandonada.
+     */
+    private boolean visit() {
+        if (aborted || maxNodes > 0 && nodes >= maxNodes) {
+            aborted = true;
+            return true;
+        }
+        nodes++;
+        if ((nodes & 1023) == 0 && (stopRequested || deadline != 0 && System.nanoTime() - deadline >= 0)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Se a posição já apareceu, com o mesmo lado a jogar, desde o último lance irreversível: na árvore ou na
+     * partida antes da raiz. Uma única repetição já conta como empate, pois quem pode repeti-la uma vez pode
+     * repeti-la de novo.
+     */
+    private boolean isRepetition(long key, int ply) {
+        int current = root + ply;
+        int limit = Math.max(0, current - match.getHalfmoveClock());
+        for (int i = current - 2; i >= limit; i -= 2) {
+            // lances nulos só existem na árvore (índices a partir da raiz)
+            int p = i - root;
+            if (p + 2 > 0 && nullMoveAt[p + 2] || p + 1 > 0 && nullMoveAt[p + 1]) {
+                return false;
+            }
+            if (path[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Regra dos 50 lances: cem meios-lances sem captura nem lance de peão empatam, salvo quando a posição é mate.
+     */
+    private boolean isFiftyMoveDraw(int ply) {
+        return match.getHalfmoveClock() >= 100
+                && (!match.isCheck() || match.legalMoves(moves, ply * MAX_MOVES) > 0);
+    }
+
+    /**
+     * Ordenação: lance da tabela, capturas por MVV-LVA, killers e por fim o histórico dos lances silenciosos.
+     */
+    private void scoreMoves(int base, int count, int ttMove, int ply) {
+        for (int i = base; i < base + count; i++) {
+            int move = moves[i];
+            int score;
+            if (move == ttMove) {
+                score = TT_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                int victim = Move.flags(move) == Move.EN_PASSANT || !Move.isCapture(move) ? 0
+                        : Evaluator.VALUES[match.pieceAt(Move.to(move)).getType().ordinal()];
+                int attacker = match.pieceAt(Move.from(move)).getType().ordinal();
+                int promotion = Move.isPromotion(move) ? Evaluator.VALUES[Move.promotionType(move).ordinal()] : 0;
+                score = CAPTURE_SCORE + (victim + promotion) * 8 - attacker;
+            } else if (move == killers[2 * ply]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[2 * ply + 1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = Math.min(history[move & 0xFFF], KILLER_SCORE - 1);
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Seleção parcial: traz para a posição {@code i} o lance restante de maior prioridade.
+     */
+    private int nextMove(int base, int i, int count) {
+        int bestIndex = base + i;
+        for (int j = base + i + 1; j < base + count; j++) {
+            if (scores[j] > scores[bestIndex]) {
+                bestIndex = j;
+            }
+        }
+        int move = moves[bestIndex];
+        moves[bestIndex] = moves[base + i];
+        moves[base + i] = move;
+        int score = scores[bestIndex];
+        scores[bestIndex] = scores[base + i];
+        scores[base + i] = score;
+        return move;
+    }
+
+    private void storeKiller(int move, int ply) {
+        if (killers[2 * ply] != move) {
+            killers[2 * ply + 1] = killers[2 * ply];
+            killers[2 * ply] = move;
+        }
+    }
+
+    // pontuações de mate são guardadas relativas ao nó, não à raiz
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,54 @@
+package core.engine;
+
+import core.chess.Move;
+
+/**
+ * Resultado de uma busca: melhor lance no formato de {@link Move} ({@link Move#NULL} quando não há
+ * lance legal), pontuação do ponto de vista do jogador da vez, profundidade completa alcançada e esforço gasto.
+ */
+public final class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    @Override
+    public String toString() {
+        return "bestmove " + (bestMove == Move.NULL ? "(none)" : Move.toString(bestMove))
+                + " score " + score + " depth " + depth + " nodes " + nodes + " time " + timeMillis;
+    }
+}
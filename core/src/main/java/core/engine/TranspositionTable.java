@@ -0,0 +1,96 @@
+package core.engine;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição da busca, indexada pela chave de Zobrist da posição e compartilhada sem bloqueio
+ * entre as threads de uma busca paralela. Cada entrada ocupa dois longs: a chave combinada por XOR com os
+ * dados e os dados em si, no mesmo formato da {@link core.perft.PerftTable}; escritas concorrentes que se
+ * misturam apenas invalidam a entrada.
+ * Dados: lance (bits 0-19), profundidade (bits 20-27), tipo de limite (bits 28-29), pontuação (bits 32-47)
+ * e geração da busca que gravou a entrada (bits 48-55).
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * Valor devolvido por {@link #probe(long)} quando a posição não está na tabela; nunca é um dado válido,
+     * pois toda entrada armazenada tem tipo de limite diferente de zero.
+     */
+    public static final long MISS = 0;
+
+    private final long[] entries;
+    private final int mask;
+    private int generation;
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+        }
+        long slots = Long.highestOneBit((long) megabytes * 1024 * 1024 / 16);
+        slots = Math.min(slots, 1 << 29);
+        entries = new long[(int) slots * 2];
+        mask = (int) slots - 1;
+    }
+
+    public long probe(long key) {
+        int i = ((int) key & mask) << 1;
+        long data = entries[i + 1];
+        return (entries[i] ^ data) == key ? data : MISS;
+    }
+
+    /**
+     * Inicia uma nova busca: entradas de buscas anteriores passam a ser substituídas primeiro.
+     * Deve ser chamado antes de as threads da busca começarem.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Guarda o resultado de uma busca. Uma entrada de outra posição só é mantida se for da busca atual
+     * e tiver profundidade maior; sem lance novo, o lance já guardado para a mesma posição é preservado.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int i = ((int) key & mask) << 1;
+        long old = entries[i + 1];
+        boolean samePosition = (entries[i] ^ old) == key;
+        if (!samePosition && age(old) == generation && depth(old) > depth) {
+            return;
+        }
+        if (samePosition && move == 0) {
+            move = move(old);
+        }
+        long data = (move & 0xFFFFFL) | ((long) depth << 20) | ((long) bound << 28) | ((score & 0xFFFFL) << 32)
+                | ((long) generation << 48);
+        entries[i] = key ^ data;
+        entries[i + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 20) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 28) & 0x3;
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 32);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+}
@@ -0,0 +1,97 @@
+package core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências em nanossegundos, sem lock. Os intervalos são log-lineares: 16 por potência de dois,
+ * com erro relativo de até 1/16, de 0 a cerca de 68 s (valores maiores caem no último). Cada thread grava em
+ * uma das faixas, escolhida pelo hash da thread, para que núcleos diferentes não disputem a mesma linha de
+ * cache; as leituras somam as faixas.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray[] stripes;
+    private final int mask;
+
+    public LatencyHistogram() {
+        int count = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors() * 2 - 1));
+        stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        mask = count - 1;
+    }
+
+    public void record(long nanos) {
+        stripes[Thread.currentThread().hashCode() & mask].incrementAndGet(index(nanos));
+    }
+
+    /**
+     * Contagem por intervalo, somada entre as faixas. As gravações simultâneas podem ou não aparecer.
+     */
+    public long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Limite superior do intervalo que contém o quantil {@code q} (entre 0 e 1), ou 0 sem amostras.
+     */
+    public long percentile(double q) {
+        return percentile(counts(), q);
+    }
+
+    static long percentile(long[] counts, double q) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+    }
+
+    static int index(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) (value >>> shift & (SUB_COUNT - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        return ((long) (SUB_COUNT | index & (SUB_COUNT - 1)) + 1 << shift) - 1;
+    }
+}
@@ -0,0 +1,71 @@
+package core.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas dos lances da partida, ligadas com {@code -Dchess.metrics=true} e publicadas por JMX em
+ * {@code core.metrics:type=MoveMetrics,name=...}.
+ * <p>
+ * {@link #ENABLED} é uma constante da classe: desligadas, o JIT remove as medições e os contadores nem são
+ * criados. Ligadas, todas as chamadas são contadas, mas só um lance em {@link #SAMPLE_RATE} é medido, junto
+ * com as suas fases de detecção de xeque e de mate: ler o relógio custa quase tanto quanto essas fases, e a
+ * amostra preserva a distribuição das latências. {@code possibleMoves} é raro e é medido a cada chamada.
+ * <p>
+ * As duas fases rodam uma vez em cada lance aceito por {@code performChessMove}, então as três operações
+ * dividem um só contador e o lance paga um único incremento atômico; zerar uma delas zera as três.
+ */
+public final class MoveMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("chess.metrics");
+    public static final int SAMPLE_RATE = 64;
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final LongAdder MOVES = ENABLED ? new LongAdder() : null;
+    public static final OperationMetrics PERFORM_MOVE = create("performChessMove", MOVES);
+    public static final OperationMetrics CHECK_DETECTION = create("testCheck", MOVES);
+    public static final OperationMetrics CHECKMATE_DETECTION = create("testCheckMate", MOVES);
+    public static final OperationMetrics POSSIBLE_MOVES = create("possibleMoves", new LongAdder());
+    public static final RejectionMetrics REJECTIONS = ENABLED ? new RejectionMetrics() : null;
+
+    static {
+        if (ENABLED) {
+            register(ManagementFactory.getPlatformMBeanServer());
+        }
+    }
+
+    private MoveMetrics() {
+    }
+
+    /**
+     * Início de uma medição amostrada, a fechar com {@link OperationMetrics#recordSample(long)}.
+     */
+    public static long sampleStart() {
+        return ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    static void register(MBeanServer server) {
+        try {
+            for (OperationMetrics metrics : new OperationMetrics[]{PERFORM_MOVE, POSSIBLE_MOVES, CHECK_DETECTION,
+                    CHECKMATE_DETECTION}) {
+                server.registerMBean(metrics, name(metrics.getName()));
+            }
+            server.registerMBean(REJECTIONS, name("rejections"));
+        } catch (JMException e) {
+            // as métricas continuam sendo coletadas; só não ficam visíveis por JMX
+            System.err.println("Move metrics not published: " + e.getMessage());
+        }
+    }
+
+    static ObjectName name(String operation) throws JMException {
+        return new ObjectName("core.metrics:type=MoveMetrics,name=" + operation);
+    }
+
+    private static OperationMetrics create(String name, LongAdder count) {
+        return ENABLED ? new OperationMetrics(name, count) : null;
+    }
+}
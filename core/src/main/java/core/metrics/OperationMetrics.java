@@ -0,0 +1,117 @@
+package core.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uma operação: {@link LongAdder} para as contagens e {@link LatencyHistogram} para as latências,
+ * ambos sem lock e com células por thread.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LongAdder count;
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public OperationMetrics(String name) {
+        this(name, new LongAdder());
+    }
+
+    /**
+     * Operação contada junto com outras que sempre executam o mesmo número de vezes.
+     */
+    OperationMetrics(String name, LongAdder count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    /**
+     * Conta uma execução não medida.
+     */
+    public void count() {
+        count.increment();
+    }
+
+    /**
+     * Conta uma execução e grava a latência.
+     */
+    public void record(long nanos) {
+        count.increment();
+        sample(nanos);
+    }
+
+    /**
+     * Grava a latência de uma execução já contada.
+     */
+    public void sample(long nanos) {
+        samples.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.record(nanos);
+    }
+
+    /**
+     * Fecha uma execução iniciada com {@link MoveMetrics#sampleStart()}: grava a latência se ela foi sorteada
+     * para medição e só conta se não foi.
+     */
+    public void recordSample(long start) {
+        if (start == MoveMetrics.NOT_SAMPLED) {
+            count.increment();
+        } else {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getSampleCount() {
+        return samples.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long n = samples.sum();
+        return n == 0 ? 0 : (double) totalNanos.sum() / n;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return histogram.percentile(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return histogram.percentile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return histogram.percentile(0.999);
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        samples.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        histogram.reset();
+    }
+}
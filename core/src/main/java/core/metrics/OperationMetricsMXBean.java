@@ -0,0 +1,26 @@
+package core.metrics;
+
+/**
+ * Contagem e latência de uma operação, publicadas por JMX. As latências são amostradas quando a operação é
+ * curta demais para ser medida toda vez; {@link #getSampleCount()} diz quantas entraram no histograma.
+ */
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCount();
+
+    long getSampleCount();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    void reset();
+}
@@ -0,0 +1,52 @@
+package core.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem de recusas por motivo. Os motivos são as mensagens fixas das exceções de validação, então o mapa
+ * fica pequeno; passando de {@link #MAX_REASONS}, as novas mensagens entram como "other".
+ */
+public final class RejectionMetrics implements RejectionMetricsMXBean {
+
+    static final int MAX_REASONS = 64;
+    static final String OTHER = "other";
+
+    private final ConcurrentMap<String, LongAdder> reasons = new ConcurrentHashMap<>();
+
+    public void record(String reason) {
+        String key = reason == null ? OTHER : reason;
+        LongAdder count = reasons.get(key);
+        if (count == null) {
+            if (reasons.size() >= MAX_REASONS) {
+                key = OTHER;
+            }
+            count = reasons.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Override
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder count : reasons.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getReasons() {
+        Map<String, Long> result = new TreeMap<>();
+        reasons.forEach((reason, count) -> result.put(reason, count.sum()));
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        reasons.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package core.metrics;
+
+import java.util.Map;
+
+/**
+ * Lances recusados, no total e por motivo (a mensagem da exceção), publicados por JMX.
+ */
+public interface RejectionMetricsMXBean {
+
+    long getTotal();
+
+    Map<String, Long> getReasons();
+
+    void reset();
+}
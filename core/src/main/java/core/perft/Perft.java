@@ -0,0 +1,146 @@
+package core.perft;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+
+/**
+ * Contagem de nós da árvore de lances legais (perft), usada como oráculo de correção do
+ * gerador de lances e como medida de desempenho.
+ *
+ * <pre>
+ * java core.perft.Perft [--fen "&lt;fen&gt;"] [--depth N] [--threads N] [--hash MB] [--divide]
+ * </pre>
+ */
+public class Perft {
+
+    private static final int MAX_MOVES = 256;
+
+    private final PerftTable table;
+
+    public Perft() {
+        this(null);
+    }
+
+    /**
+     * @param table tabela para memorizar contagens de subárvores, ou null para não usar hash
+     */
+    public Perft(PerftTable table) {
+        this.table = table;
+    }
+
+    public long perft(ChessMatch match, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return count(match, depth, new int[depth + 1][MAX_MOVES]);
+    }
+
+    /**
+     * Divide a contagem pelos lances da raiz, distribuindo cada subárvore em uma tarefa do pool.
+     * Cada tarefa trabalha sobre sua própria cópia da partida.
+     *
+     * @param perMove recebe cada lance da raiz (em notação UCI) e sua contagem, na ordem de geração
+     * @return total de nós
+     */
+    public long divide(ChessMatch match, int depth, ForkJoinPool pool, BiConsumer<String, Long> perMove) {
+        if (depth <= 0) {
+            return 1;
+        }
+        int[] moves = new int[MAX_MOVES];
+        int n = match.legalMoves(moves);
+
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ChessMatch child = match.copy();
+            child.makeMove(moves[i]);
+            tasks.add(pool.submit(() -> perft(child, depth - 1)));
+        }
+
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            long nodes = tasks.get(i).join();
+            if (perMove != null) {
+                perMove.accept(Move.toString(moves[i]), nodes);
+            }
+            total += nodes;
+        }
+        return total;
+    }
+
+    private long count(ChessMatch match, int depth, int[][] buffers) {
+        int[] moves = buffers[depth];
+        int n = match.legalMoves(moves);
+        if (depth == 1) {
+            return n;
+        }
+
+        long key = 0;
+        if (table != null) {
+            key = match.getZobristKey();
+            long cached = table.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            match.makeMove(moves[i]);
+            nodes += count(match, depth - 1, buffers);
+            match.unmakeMove();
+        }
+
+        if (table != null) {
+            table.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        String fen = Fen.INITIAL;
+        int depth = 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 0;
+        boolean divide = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fen": fen = args[++i]; break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--divide": divide = true; break;
+                default:
+                    System.out.println("Usage: Perft [--fen \"<fen>\"] [--depth N] [--threads N] [--hash MB] [--divide]");
+                    return;
+            }
+        }
+
+        ChessMatch match = Fen.parse(fen);
+        Perft perft = new Perft(hash > 0 ? new PerftTable(hash) : null);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        boolean printMoves = divide;
+
+        long start = System.nanoTime();
+        long nodes = perft.divide(match, depth, pool, (move, count) -> {
+            if (printMoves) {
+                System.out.println(move + ": " + count);
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.println();
+        System.out.println("Depth: " + depth);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("NPS: " + (elapsed > 0 ? nodes * 1_000_000_000L / elapsed : 0));
+    }
+}
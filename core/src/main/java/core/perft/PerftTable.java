@@ -0,0 +1,41 @@
+package core.perft;
+
+/**
+ * Tabela hash de contagens de subárvores, compartilhada entre threads sem bloqueio.
+ * Cada entrada guarda a chave combinada por XOR com os dados; uma escrita concorrente
+ * interrompida no meio apenas invalida a entrada, nunca produz uma contagem errada.
+ */
+public class PerftTable {
+
+    private final long[] entries;
+    private final int mask;
+
+    public PerftTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Perft table size must be at least 1 MB");
+        }
+        long slots = Long.highestOneBit((long) megabytes * 1024 * 1024 / 16);
+        slots = Math.min(slots, 1 << 29);
+        entries = new long[(int) slots * 2];
+        mask = (int) slots - 1;
+    }
+
+    /**
+     * @return a contagem armazenada para a posição e profundidade, ou -1 se não houver
+     */
+    public long probe(long key, int depth) {
+        int i = ((int) key & mask) << 1;
+        long data = entries[i + 1];
+        if ((entries[i] ^ data) == key && (data & 0xFF) == depth) {
+            return data >>> 8;
+        }
+        return -1;
+    }
+
+    public void store(long key, int depth, long nodes) {
+        int i = ((int) key & mask) << 1;
+        long data = (nodes << 8) | depth;
+        entries[i] = key ^ data;
+        entries[i + 1] = data;
+    }
+}
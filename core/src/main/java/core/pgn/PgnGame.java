@@ -0,0 +1,226 @@
+package core.pgn;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.enums.Color;
+import core.chess.exceptions.ChessException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Uma partida lida de um arquivo PGN e reproduzida lance a lance em um {@link ChessMatch}.
+ * Se algum lance não puder ser resolvido, a reprodução para ali e {@link #getError()} explica o motivo;
+ * os lances anteriores continuam disponíveis.
+ */
+public final class PgnGame {
+
+    private final long index;
+    private final Map<String, String> tags;
+    private final int[] moves;
+    private final String result;
+    private final ChessMatch match;
+    private final String error;
+
+    private PgnGame(long index, Map<String, String> tags, int[] moves, String result, ChessMatch match, String error) {
+        this.index = index;
+        this.tags = tags;
+        this.moves = moves;
+        this.result = result;
+        this.match = match;
+        this.error = error;
+    }
+
+    /**
+     * Posição da partida no arquivo, a partir de zero.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Lances reproduzidos no formato de {@link core.chess.Move}.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Resultado ao final do texto dos lances ("1-0", "0-1", "1/2-1/2" ou "*"), ou o da tag Result.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Partida na posição final, com os lances jogados como lances da partida (ver {@link ChessMatch#takeback()}).
+     */
+    public ChessMatch getMatch() {
+        return match;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Lê e reproduz o texto de uma partida: seção de tags seguida dos lances.
+     * Comentários ({@code {...}} e {@code ;}), variantes entre parênteses, NAGs e números de lance são ignorados.
+     */
+    public static PgnGame parse(long index, CharSequence text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '[') {
+                i = parseTag(text, i + 1, tags);
+            } else if (c <= ' ') {
+                i++;
+            } else {
+                break;
+            }
+        }
+
+        ChessMatch match;
+        String error = null;
+        try {
+            String fen = tags.get("FEN");
+            match = fen != null ? Fen.parse(fen) : new ChessMatch();
+        } catch (ChessException e) {
+            return new PgnGame(index, Collections.unmodifiableMap(tags), new int[0], tags.get("Result"), null, e.getMessage());
+        }
+
+        int[] moves = new int[128];
+        int count = 0;
+        int[] buffer = new int[256];
+        String result = tags.get("Result");
+        // profundidade de variantes: lances dentro de parênteses não pertencem à partida
+        int depth = 0;
+        while (i < length && error == null) {
+            char c = text.charAt(i);
+            if (c <= ' ') {
+                i++;
+            } else if (c == '{') {
+                while (i < length && text.charAt(i) != '}') i++;
+                i++;
+            } else if (c == ';' || c == '%' && (i == 0 || text.charAt(i - 1) == '\n')) {
+                while (i < length && text.charAt(i) != '\n') i++;
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else {
+                int end = i;
+                while (end < length && !isDelimiter(text.charAt(end))) end++;
+                if (end == i) {
+                    // delimitador solto, como '}' sem abertura
+                    i++;
+                    continue;
+                }
+                if (depth == 0 && c != '$') {
+                    int sanStart = i;
+                    if (isResult(text, i, end)) {
+                        result = text.subSequence(i, end).toString();
+                        sanStart = end;
+                    } else if (c >= '0' && c <= '9' && !isCastling(text, i, end)) {
+                        // número de lance ("12." ou "12..."), possivelmente colado ao lance ("12.e4")
+                        while (sanStart < end && (text.charAt(sanStart) <= '9' && text.charAt(sanStart) >= '0'
+                                || text.charAt(sanStart) == '.')) {
+                            sanStart++;
+                        }
+                    }
+                    if (sanStart < end) {
+                        if (count == moves.length) {
+                            moves = Arrays.copyOf(moves, count * 2);
+                        }
+                        try {
+                            int move = San.resolve(match, text.subSequence(sanStart, end), buffer);
+                            match.makeMove(move);
+                            moves[count++] = move;
+                        } catch (ChessException e) {
+                            // número do lance na partida, que pode ter começado de um [FEN] qualquer
+                            error = "Move " + (match.getTurn() + 1) / 2
+                                    + (match.getCurrentPlayer() == Color.BLACK ? "..." : "") + ": " + e.getMessage();
+                        }
+                    }
+                }
+                i = end;
+            }
+        }
+        // os lances foram resolvidos como lances internos; voltam e entram na partida de uma vez, com um único
+        // cálculo de mate e situação e uma única publicação da posição final
+        for (int k = 0; k < count; k++) {
+            match.unmakeMove();
+        }
+        match.playMoves(moves, count);
+        return new PgnGame(index, Collections.unmodifiableMap(tags), Arrays.copyOf(moves, count), result, match, error);
+    }
+
+    private static int parseTag(CharSequence text, int i, Map<String, String> tags) {
+        int length = text.length();
+        while (i < length && text.charAt(i) == ' ') i++;
+        int nameStart = i;
+        while (i < length && text.charAt(i) > ' ' && text.charAt(i) != ']') i++;
+        String name = text.subSequence(nameStart, i).toString();
+        while (i < length && text.charAt(i) != '"' && text.charAt(i) != ']') i++;
+        StringBuilder value = new StringBuilder();
+        if (i < length && text.charAt(i) == '"') {
+            i++;
+            while (i < length && text.charAt(i) != '"') {
+                char c = text.charAt(i);
+                if (c == '\\' && i + 1 < length) {
+                    c = text.charAt(++i);
+                }
+                value.append(c);
+                i++;
+            }
+        }
+        while (i < length && text.charAt(i) != ']') i++;
+        if (!name.isEmpty()) {
+            tags.put(name, value.toString());
+        }
+        return i + 1;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c <= ' ' || c == '{' || c == '}' || c == '(' || c == ')' || c == ';';
+    }
+
+    private static boolean isResult(CharSequence text, int start, int end) {
+        return matches(text, start, end, "1-0") || matches(text, start, end, "0-1")
+                || matches(text, start, end, "1/2-1/2") || matches(text, start, end, "*");
+    }
+
+    private static boolean isCastling(CharSequence text, int start, int end) {
+        return end - start >= 3 && text.charAt(start + 1) == '-';
+    }
+
+    private static boolean matches(CharSequence text, int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
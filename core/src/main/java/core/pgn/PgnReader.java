@@ -0,0 +1,176 @@
+package core.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de arquivos PGN em fluxo. Um único buffer NIO percorre o canal e separa o texto de cada partida;
+ * a reprodução dos lances ({@link PgnGame#parse}) é distribuída entre as threads de trabalho.
+ * A memória usada depende do tamanho da maior partida e da fila de partidas pendentes, não do arquivo:
+ * quando a fila enche, a própria thread leitora processa a partida.
+ */
+public class PgnReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int QUEUE_PER_THREAD = 64;
+
+    private final int threads;
+
+    public PgnReader(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.threads = threads;
+    }
+
+    public PgnStats read(Path file, Consumer<PgnGame> callback) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, callback);
+        }
+    }
+
+    /**
+     * Lê todas as partidas do canal e chama {@code callback} para cada uma, na thread que a reproduziu;
+     * com mais de uma thread a ordem de chegada não é a do arquivo (ver {@link PgnGame#getIndex()})
+     * e o callback precisa ser thread-safe.
+     */
+    public PgnStats read(ReadableByteChannel channel, Consumer<PgnGame> callback) throws IOException {
+        LongAdder invalid = new LongAdder();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ThreadPoolExecutor pool = threads == 1 ? null : new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+        long start = System.nanoTime();
+        long games;
+        try {
+            games = split(channel, (index, text) -> {
+                Runnable task = () -> {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    try {
+                        PgnGame game = PgnGame.parse(index, text);
+                        if (!game.isValid()) {
+                            invalid.increment();
+                        }
+                        callback.accept(game);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                };
+                if (pool == null) {
+                    task.run();
+                } else {
+                    pool.execute(task);
+                }
+            });
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                try {
+                    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    pool.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return new PgnStats(games, invalid.sum(), System.nanoTime() - start, threads);
+    }
+
+    interface GameText {
+        void accept(long index, String text);
+    }
+
+    /**
+     * Separa as partidas: uma nova começa na primeira linha de tag que aparece depois de algum texto de lances.
+     *
+     * @return quantidade de partidas encontradas
+     */
+    static long split(ReadableByteChannel channel, GameText sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] game = new byte[BUFFER_SIZE];
+        int length = 0;
+        int lineStart = 0;
+        boolean movetext = false;
+        long games = 0;
+
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (length == game.length) {
+                    game = Arrays.copyOf(game, length * 2);
+                }
+                game[length++] = b;
+                if (b != '\n') {
+                    continue;
+                }
+                int first = firstNonSpace(game, lineStart, length);
+                if (first < length && game[first] == '[' && movetext) {
+                    sink.accept(games++, new String(game, 0, lineStart, StandardCharsets.UTF_8));
+                    int line = length - lineStart;
+                    System.arraycopy(game, lineStart, game, 0, line);
+                    length = line;
+                    movetext = false;
+                } else if (first < length && game[first] != '[' && game[first] != '%') {
+                    movetext = true;
+                }
+                lineStart = length;
+            }
+            buffer.clear();
+        }
+        // última linha sem quebra e última partida
+        int first = firstNonSpace(game, lineStart, length);
+        if (first < length && game[first] != '[') {
+            movetext = true;
+        }
+        if (movetext) {
+            sink.accept(games++, new String(game, 0, length, StandardCharsets.UTF_8));
+        }
+        return games;
+    }
+
+    private static int firstNonSpace(byte[] bytes, int from, int to) {
+        while (from < to && (bytes[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                file = Paths.get(args[i]);
+            }
+        }
+        if (file == null) {
+            System.out.println("Usage: PgnReader <file.pgn> [--threads N]");
+            return;
+        }
+
+        LongAdder moves = new LongAdder();
+        PgnStats stats = new PgnReader(threads).read(file, game -> moves.add(game.getMoves().length));
+        System.out.println(stats);
+        System.out.println("Moves: " + moves.sum());
+    }
+}
@@ -0,0 +1,52 @@
+package core.pgn;
+
+/**
+ * Totais de uma leitura de PGN e a vazão obtida.
+ */
+public final class PgnStats {
+
+    private final long games;
+    private final long invalidGames;
+    private final long elapsedNanos;
+    private final int threads;
+
+    PgnStats(long games, long invalidGames, long elapsedNanos, int threads) {
+        this.games = games;
+        this.invalidGames = invalidGames;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Partidas com algum lance ilegal ou FEN inválida (entregues ao callback mesmo assim).
+     */
+    public long getInvalidGames() {
+        return invalidGames;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos > 0 ? games * 1e9 / elapsedNanos : 0;
+    }
+
+    public double getGamesPerSecondPerThread() {
+        return getGamesPerSecond() / threads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Games: %d (%d invalid)%nTime: %d ms%nGames/s: %.0f (%.0f per thread, %d threads)",
+                games, invalidGames, elapsedNanos / 1_000_000, getGamesPerSecond(), getGamesPerSecondPerThread(), threads);
+    }
+}
@@ -0,0 +1,131 @@
+package core.pgn;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.Move;
+import core.chess.enums.PieceType;
+import core.chess.exceptions.ChessException;
+
+/**
+ * Resolução de lances em notação algébrica padrão (SAN) contra os lances legais de uma partida.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Converte um lance SAN ("e4", "Nbd7", "exd8=Q+", "O-O") no lance legal correspondente.
+     *
+     * @param buffer buffer para os lances legais, com pelo menos 256 posições
+     * @throws ChessException se o lance não for legal ou for ambíguo
+     */
+    public static int resolve(ChessMatch match, CharSequence san, int[] buffer) {
+        int end = san.length();
+        // anotações finais: xeque, mate e avaliações
+        while (end > 0 && isSuffix(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end < 2) {
+            throw illegal(san);
+        }
+
+        // só os candidatos que casam com o texto passam pelo teste de legalidade
+        int count = match.pseudoLegalMoves(buffer, 0);
+        if (isCastling(san, end)) {
+            int flags = end >= 5 ? Move.QUEEN_CASTLE : Move.KING_CASTLE;
+            for (int i = 0; i < count; i++) {
+                if (Move.flags(buffer[i]) == flags && match.isLegal(buffer[i])) {
+                    return buffer[i];
+                }
+            }
+            throw illegal(san);
+        }
+
+        PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        if (last == 'Q' || last == 'R' || last == 'B' || last == 'N') {
+            promotion = PieceType.fromLetter(last);
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end < 2) {
+            throw illegal(san);
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw illegal(san);
+        }
+        int to = (7 - toRank) * 8 + toFile;
+
+        int start = 0;
+        PieceType type = PieceType.PAWN;
+        char first = san.charAt(0);
+        if (first == 'K' || first == 'Q' || first == 'R' || first == 'B' || first == 'N') {
+            type = PieceType.fromLetter(first);
+            start = 1;
+        }
+        // desambiguação: coluna e/ou fileira de origem, ignorando o 'x' de captura
+        int fromFile = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = 7 - (c - '1');
+            } else if (c != 'x' && c != '-' && c != ':') {
+                throw illegal(san);
+            }
+        }
+
+        int found = Move.NULL;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to
+                    || fromFile >= 0 && (from & 7) != fromFile
+                    || fromRow >= 0 && (from >>> 3) != fromRow) {
+                continue;
+            }
+            ChessPiece piece = match.pieceAt(from);
+            if (piece.getType() != type) {
+                continue;
+            }
+            if (Move.isPromotion(move) ? Move.promotionType(move) != promotion : promotion != null) {
+                continue;
+            }
+            if (!match.isLegal(move)) {
+                continue;
+            }
+            if (found != Move.NULL) {
+                throw new ChessException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NULL) {
+            throw illegal(san);
+        }
+        return found;
+    }
+
+    private static boolean isCastling(CharSequence san, int end) {
+        char c = san.charAt(0);
+        if (c != 'O' && c != '0') {
+            return false;
+        }
+        return end == 3 && san.charAt(1) == '-' && san.charAt(2) == c
+                || end == 5 && san.charAt(1) == '-' && san.charAt(2) == c && san.charAt(3) == '-' && san.charAt(4) == c;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static ChessException illegal(CharSequence san) {
+        return new ChessException("Illegal move: " + san);
+    }
+}
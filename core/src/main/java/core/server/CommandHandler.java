@@ -0,0 +1,164 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.ChessPosition;
+import core.chess.exceptions.ChessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interpreta o protocolo de linhas do servidor. Cada comando é uma linha com palavras separadas por espaço
+ * e cada resposta é uma linha começando com "OK" ou "ERR":
+ * <pre>
+ * CREATE                          -> OK &lt;id&gt;
+ * MOVE &lt;id&gt; &lt;from&gt; &lt;to&gt; [B|N|R|Q]  -> OK &lt;capturada ou -&gt; &lt;situação&gt;
+ * MOVES &lt;id&gt; &lt;square&gt;             -> OK [casas...]
+ * STATE &lt;id&gt;                      -> OK &lt;situação&gt; &lt;FEN&gt;
+ * RESIGN &lt;id&gt;                     -> OK &lt;vencedor&gt;
+ * </pre>
+ * As partidas ficam em um {@link MatchRegistry}, que hiberna as ociosas; o handler pode ser usado por várias
+ * conexões ao mesmo tempo. Com um {@link MoveJournal}, as partidas gravadas nele são recuperadas na criação
+ * do handler e os comandos aceitos passam a ser gravados: a resposta "OK" de CREATE, MOVE e RESIGN só sai
+ * depois que o registro está em disco. {@link #snapshot()} compacta o journal.
+ */
+public class CommandHandler {
+
+    // padrão: até 10 mil partidas vivas, hibernadas após 10 minutos sem comandos
+    private static final int DEFAULT_LIVE_MATCHES = 10_000;
+    private static final long DEFAULT_IDLE_MINUTES = 10;
+
+    private final MatchRegistry sessions;
+    private final MoveJournal journal;
+    private final AtomicLong ids = new AtomicLong();
+
+    public CommandHandler() {
+        this(new MatchRegistry(DEFAULT_LIVE_MATCHES, DEFAULT_IDLE_MINUTES, TimeUnit.MINUTES));
+    }
+
+    public CommandHandler(MatchRegistry sessions) {
+        this.sessions = sessions;
+        this.journal = null;
+    }
+
+    /**
+     * Handler com os limites padrão de partidas vivas, sobre o journal.
+     */
+    public CommandHandler(MoveJournal journal) throws IOException {
+        this(new MatchRegistry(DEFAULT_LIVE_MATCHES, DEFAULT_IDLE_MINUTES, TimeUnit.MINUTES), journal);
+    }
+
+    /**
+     * Handler que recupera as partidas do journal, reproduzindo-as em paralelo, e grava nele os próximos comandos.
+     */
+    public CommandHandler(MatchRegistry sessions, MoveJournal journal) throws IOException {
+        this.sessions = sessions;
+        this.journal = journal;
+        for (GameSession session : journal.recover(Runtime.getRuntime().availableProcessors())) {
+            sessions.add(session);
+            ids.accumulateAndGet(session.getId(), Math::max);
+        }
+    }
+
+    public int getMatchCount() {
+        return sessions.size();
+    }
+
+    public MatchRegistry getRegistry() {
+        return sessions;
+    }
+
+    /**
+     * Fotografa todas as partidas e descarta o journal anterior a ela (ver {@link MoveJournal#snapshot}).
+     * Os comandos continuam sendo atendidos durante a gravação.
+     */
+    public void snapshot() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("No journal to compact");
+        }
+        journal.snapshot(sessions.sessions());
+    }
+
+    public String handle(String line) {
+        String[] args = line.trim().split("\\s+");
+        try {
+            switch (args[0].toUpperCase()) {
+                case "CREATE":
+                    return "OK " + create();
+                case "MOVE":
+                    requireArgs(args, 4);
+                    GameSession.MoveResult result = session(args[1]).move(position(args[2]), position(args[3]),
+                            args.length > 4 ? args[4] : null);
+                    ChessPiece captured = result.getCaptured();
+                    return "OK " + (captured == null ? "-" : captured.toString()) + " " + result.getStatus();
+                case "MOVES":
+                    requireArgs(args, 3);
+                    return "OK" + squares(session(args[1]).possibleMoves(position(args[2])));
+                case "STATE":
+                    requireArgs(args, 2);
+                    return "OK " + session(args[1]).describe();
+                case "RESIGN":
+                    requireArgs(args, 2);
+                    return "OK " + session(args[1]).resign();
+                default:
+                    return "ERR Unknown command: " + args[0];
+            }
+        } catch (ChessException | IllegalArgumentException | IllegalStateException e) {
+            // IllegalStateException vem da partida fora de um estado que aceite o comando; a conexão continua aberta
+            return "ERR " + e.getMessage();
+        } catch (UncheckedIOException e) {
+            return "ERR Journal failure: " + e.getCause().getMessage();
+        }
+    }
+
+    private long create() {
+        long id = ids.incrementAndGet();
+        GameSession session = new GameSession(id, new ChessMatch());
+        if (journal == null) {
+            sessions.add(session);
+            return id;
+        }
+        try {
+            session.create(sessions, journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return id;
+    }
+
+    private GameSession session(String id) {
+        GameSession session = sessions.get(Long.parseLong(id));
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown match: " + id);
+        }
+        return session;
+    }
+
+    private static ChessPosition position(String square) {
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Invalid square: " + square);
+        }
+        return new ChessPosition(Character.toLowerCase(square.charAt(0)), square.charAt(1) - '0');
+    }
+
+    private static String squares(boolean[][] moves) {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < moves.length; row++) {
+            for (int col = 0; col < moves[row].length; col++) {
+                if (moves[row][col]) {
+                    sb.append(' ').append((char) ('a' + col)).append(8 - row);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void requireArgs(String[] args, int count) {
+        if (args.length < count) {
+            throw new IllegalArgumentException("Missing arguments for " + args[0]);
+        }
+    }
+}
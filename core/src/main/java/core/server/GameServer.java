@@ -0,0 +1,238 @@
+package core.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor TCP do protocolo de linhas de {@link CommandHandler}: uma thread por conexão, virtual quando a JVM
+ * oferece (Java 21+), de modo que milhares de conexões ociosas não ocupam threads de plataforma.
+ * Em JVMs mais antigas cai para um pool de threads de plataforma sob demanda.
+ * <p>
+ * A cada {@link #HIBERNATION_SWEEP_SECONDS} segundos o servidor hiberna as partidas ociosas do registro
+ * ({@link MatchRegistry#hibernateIdle()}), mesmo que nenhum comando chegue.
+ * <p>
+ * Aberto com um diretório de journal ({@link #start(int, Path, int, long, long)}), o servidor recupera as partidas
+ * gravadas, só responde aos comandos que alteram partidas depois do fsync do registro, fotografa as partidas
+ * periodicamente e fecha o journal no {@link #close()}.
+ */
+public class GameServer implements AutoCloseable {
+
+    // padrão do servidor com journal: group commit sem espera adicional, fotografia a cada 10 minutos
+    public static final int DEFAULT_JOURNAL_BATCH = 256;
+    public static final long DEFAULT_JOURNAL_DELAY_MICROS = 0;
+    public static final long DEFAULT_SNAPSHOT_MINUTES = 10;
+    // intervalo da varredura de partidas ociosas; bem menor que o prazo de ociosidade padrão do registro
+    public static final long HIBERNATION_SWEEP_SECONDS = 60;
+
+    private final CommandHandler handler;
+    // journal aberto pelo próprio servidor, ou null
+    private final MoveJournal journal;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Thread acceptor;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "game-server-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private GameServer(CommandHandler handler, MoveJournal journal, ServerSocket serverSocket) {
+        this.handler = handler;
+        this.journal = journal;
+        this.serverSocket = serverSocket;
+        this.connections = newConnectionExecutor();
+        this.acceptor = new Thread(this::acceptLoop, "game-server-acceptor");
+    }
+
+    /**
+     * Abre o servidor na porta informada (0 escolhe uma porta livre) e começa a aceitar conexões.
+     */
+    public static GameServer start(int port) throws IOException {
+        return start(new InetSocketAddress(port), new CommandHandler());
+    }
+
+    public static GameServer start(InetSocketAddress address, CommandHandler handler) throws IOException {
+        return start(address, handler, null);
+    }
+
+    /**
+     * Abre o servidor sobre o journal do diretório, com os padrões de lote, prazo de fsync e fotografia.
+     */
+    public static GameServer start(int port, Path journalDirectory) throws IOException {
+        return start(port, journalDirectory, DEFAULT_JOURNAL_BATCH, DEFAULT_JOURNAL_DELAY_MICROS,
+                DEFAULT_SNAPSHOT_MINUTES);
+    }
+
+    /**
+     * Abre o journal do diretório, recupera as partidas gravadas nele e começa a aceitar conexões.
+     *
+     * @param maxBatch        registros que encerram a espera adicional do grupo (ver {@link MoveJournal})
+     * @param maxDelayMicros  espera adicional dos registros que chegam durante um fsync, ou 0 para nenhuma
+     * @param snapshotMinutes intervalo entre fotografias, ou 0 para nunca fotografar
+     */
+    public static GameServer start(int port, Path journalDirectory, int maxBatch, long maxDelayMicros,
+                                   long snapshotMinutes) throws IOException {
+        MoveJournal journal = MoveJournal.open(journalDirectory, maxBatch, maxDelayMicros, TimeUnit.MICROSECONDS);
+        GameServer server;
+        try {
+            server = start(new InetSocketAddress(port), new CommandHandler(journal), journal);
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        if (snapshotMinutes > 0) {
+            server.scheduleSnapshots(snapshotMinutes, TimeUnit.MINUTES);
+        }
+        return server;
+    }
+
+    private static GameServer start(InetSocketAddress address, CommandHandler handler, MoveJournal journal)
+            throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(address, 1024);
+        GameServer server = new GameServer(handler, journal, socket);
+        server.scheduleHibernation(HIBERNATION_SWEEP_SECONDS, TimeUnit.SECONDS);
+        server.acceptor.start();
+        return server;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public CommandHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Fotografa as partidas a cada {@code period} (ver {@link CommandHandler#snapshot()}), o que mantém o journal
+     * e o tempo de recuperação limitados ao que foi jogado desde a última fotografia.
+     */
+    public void scheduleSnapshots(long period, TimeUnit unit) {
+        maintenance.scheduleWithFixedDelay(() -> {
+            try {
+                handler.snapshot();
+            } catch (IOException e) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Varre o registro a cada {@code period} e hiberna as partidas ociosas além do prazo dele. Sem a varredura,
+     * as ociosas só seriam hibernadas no próximo comando de qualquer partida.
+     */
+    public void scheduleHibernation(long period, TimeUnit unit) {
+        MatchRegistry registry = handler.getRegistry();
+        maintenance.scheduleWithFixedDelay(() -> {
+            try {
+                registry.hibernateIdle();
+            } catch (RuntimeException e) {
+                // uma exceção cancelaria as próximas execuções
+                System.err.println("Hibernation sweep failed: " + e);
+            }
+        }, period, period, unit);
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                open.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                out.write(handler.handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // conexão encerrada pelo cliente ou pelo close() do servidor
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    /**
+     * Para de aceitar conexões, fecha as abertas e, com journal, espera os comandos e a fotografia em andamento
+     * antes de fechá-lo: interromper uma thread no meio de uma escrita fecharia o arquivo do journal.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : open) {
+            socket.close();
+        }
+        if (journal == null) {
+            connections.shutdownNow();
+            maintenance.shutdownNow();
+            return;
+        }
+        connections.shutdown();
+        maintenance.shutdown();
+        try {
+            connections.awaitTermination(10, TimeUnit.SECONDS);
+            maintenance.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.shutdownNow();
+            maintenance.shutdownNow();
+            journal.close();
+        }
+    }
+
+    /**
+     * Executor de threads virtuais via reflexão, pois o projeto compila para Java 17.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "game-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
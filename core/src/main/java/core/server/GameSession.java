@@ -0,0 +1,328 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.ChessPosition;
+import core.chess.MatchView;
+import core.chess.enums.Color;
+import core.chess.enums.GameState;
+import core.chess.exceptions.ChessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uma partida hospedada pelo servidor. Os comandos que alteram a partida passam pelo lock da sessão, de modo que
+ * comandos simultâneos na mesma partida são aplicados um de cada vez. O lock é um {@link ReentrantLock}
+ * e não {@code synchronized} para não prender a thread de plataforma quando a conexão roda em thread virtual.
+ * As consultas de estado leem a visão publicada pela partida ({@link ChessMatch#getView()}) e não bloqueiam.
+ * <p>
+ * Uma sessão ociosa pode ser hibernada ({@link #hibernate()}): a partida é trocada pela forma compacta de
+ * {@link HibernatedMatch} e volta a existir, de forma transparente, no próximo comando ou consulta.
+ * <p>
+ * Com um {@link MoveJournal}, cada lance e abandono aceito é gravado com o lock e o comando só retorna depois do
+ * fsync do grupo que contém o registro, esperado já sem o lock para que outros comandos entrem no mesmo grupo.
+ * Se a gravação falhar, o comando é desfeito e termina com {@link UncheckedIOException}; se falhar o fsync, o
+ * comando também termina com ela, mas continua aplicado em memória (o journal não aceita mais gravações).
+ */
+public class GameSession {
+
+    public enum Status { PLAYING, CHECK, CHECKMATE, DRAW, RESIGNED }
+
+    /**
+     * Resultado de {@link #move}: peça capturada e situação da partida logo depois do lance.
+     */
+    public static final class MoveResult {
+        private final ChessPiece captured;
+        private final Status status;
+
+        MoveResult(ChessPiece captured, Status status) {
+            this.captured = captured;
+            this.status = status;
+        }
+
+        /**
+         * @return peça capturada ou null
+         */
+        public ChessPiece getCaptured() {
+            return captured;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+
+    private final long id;
+    private final ReentrantLock lock = new ReentrantLock();
+    // partida viva, ou null enquanto hibernada em hibernated; ambos só mudam com o lock
+    private volatile ChessMatch match;
+    private byte[] hibernated;
+    private volatile Color resigned;
+    private MoveJournal journal;
+    // comandos gravados no journal desde a criação; numera o próximo registro e diz à recuperação quais
+    // registros uma fotografia já contém
+    private int commands;
+    // último acesso pelo MatchRegistry, em nanossegundos do relógio dele; lido e escrito com o lock do registro
+    long lastAccess;
+    // registro que hospeda a sessão, avisado quando a partida volta da hibernação; null fora de um registro
+    volatile MatchRegistry registry;
+
+    public GameSession(long id, ChessMatch match) {
+        this.id = id;
+        this.match = match;
+    }
+
+    /**
+     * Sessão lida de uma fotografia, ainda hibernada.
+     */
+    GameSession(long id, byte[] hibernated, Color resigned, int commands) {
+        this.id = id;
+        this.hibernated = hibernated;
+        this.resigned = resigned;
+        this.commands = commands;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Registra a sessão nova e grava a criação no journal, com o lock da sessão: uma fotografia que comece depois
+     * da gravação já encontra a sessão no registro, e um comando que chegue antes do fim espera pelo lock.
+     * Se a gravação falhar, a sessão sai do registro.
+     */
+    void create(MatchRegistry registry, MoveJournal journal) throws IOException {
+        long sequence;
+        lock.lock();
+        try {
+            registry.add(this);
+            try {
+                sequence = journal.create(id);
+            } catch (IOException e) {
+                registry.remove(id);
+                throw e;
+            }
+            this.journal = journal;
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    /**
+     * Passa a gravar os próximos comandos no journal.
+     */
+    void attach(MoveJournal journal) {
+        lock.lock();
+        try {
+            this.journal = journal;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getCommands() {
+        lock.lock();
+        try {
+            return commands;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acerta a contagem de comandos depois de reproduzir o final do journal.
+     */
+    void restoreCommands(int commands) {
+        lock.lock();
+        try {
+            this.commands = commands;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava a sessão na fotografia, na forma compacta e sem tirá-la da hibernação. Espera o comando em
+     * andamento, para que a partida e a contagem de comandos gravadas correspondam.
+     */
+    void snapshotTo(SnapshotFile.Writer out) throws IOException {
+        lock.lock();
+        try {
+            ChessMatch live = match;
+            out.add(id, commands, resigned, live == null ? hibernated : HibernatedMatch.encode(live));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executa um lance. A promoção, quando houver, usa a peça informada ("Q" se nula).
+     *
+     * @return peça capturada e situação da partida, lidas com o lock, antes que outro comando altere a partida
+     */
+    public MoveResult move(ChessPosition source, ChessPosition target, String promotion) {
+        String type = promotion == null ? "Q" : promotion.toUpperCase();
+        if (!type.equals("B") && !type.equals("N") && !type.equals("R") && !type.equals("Q")) {
+            throw new ChessException("Invalid piece for promotion");
+        }
+        MoveResult result;
+        MoveJournal journal;
+        long sequence = 0;
+        lock.lock();
+        try {
+            ensurePlaying();
+            ChessMatch match = match();
+            // a peça da promoção entra com o lance: os leitores da visão nunca veem a dama provisória
+            ChessPiece captured = match.performChessMove(source, target, type);
+            boolean promotes = match.getPromoted() != null;
+            journal = this.journal;
+            if (journal != null) {
+                try {
+                    sequence = journal.move(id, commands + 1, source, target, promotes ? type.charAt(0) : 0);
+                } catch (IOException e) {
+                    // o lance não valeu: não pode ficar disponível para redo
+                    match.retractMove();
+                    throw new UncheckedIOException(e);
+                }
+                commands++;
+            }
+            result = new MoveResult(captured, status(match.getView()));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(journal, sequence);
+        return result;
+    }
+
+    public boolean[][] possibleMoves(ChessPosition source) {
+        lock.lock();
+        try {
+            return match().possibleMoves(source);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return cor vencedora
+     */
+    public Color resign() {
+        Color player;
+        MoveJournal journal;
+        long sequence = 0;
+        lock.lock();
+        try {
+            ensurePlaying();
+            player = match().getCurrentPlayer();
+            journal = this.journal;
+            if (journal != null) {
+                try {
+                    sequence = journal.resign(id, commands + 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                commands++;
+            }
+            resigned = player;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(journal, sequence);
+        return player.opposite();
+    }
+
+    /**
+     * Estado em uma linha: situação da partida seguida da posição em FEN.
+     */
+    public String describe() {
+        MatchView view = match().getView();
+        return status(view) + " " + view.getFen();
+    }
+
+    public Status status() {
+        return status(match().getView());
+    }
+
+    public ChessPiece[][] getPieces() {
+        return match().getPieces();
+    }
+
+    /**
+     * Troca a partida pela forma compacta. Não espera por comandos em andamento: nesse caso a sessão
+     * não está ociosa e o método devolve false. Isso vale também para o comando da própria thread, que pode
+     * chegar aqui pelo registro ao tirar a partida da hibernação.
+     */
+    boolean hibernate() {
+        if (lock.isHeldByCurrentThread() || !lock.tryLock()) {
+            return false;
+        }
+        try {
+            ChessMatch live = match;
+            if (live != null) {
+                hibernated = HibernatedMatch.encode(live);
+                match = null;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isHibernated() {
+        return match == null;
+    }
+
+    /**
+     * Partida viva, refeita da forma compacta quando a sessão estava hibernada. A sessão refeita volta ao LRU
+     * do registro como usada agora, mesmo quando não chegou aqui por {@link MatchRegistry#get(long)} (consultas
+     * diretas, ou uma varredura que a hibernou entre o get e o comando).
+     */
+    private ChessMatch match() {
+        ChessMatch live = match;
+        if (live != null) {
+            return live;
+        }
+        lock.lock();
+        try {
+            if (match == null) {
+                match = HibernatedMatch.decode(hibernated);
+                hibernated = null;
+                MatchRegistry registry = this.registry;
+                if (registry != null) {
+                    registry.rehydrated(this);
+                }
+            }
+            return match;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void awaitDurable(MoveJournal journal, long sequence) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Status status(MatchView view) {
+        if (resigned != null) return Status.RESIGNED;
+        GameState state = view.getState();
+        if (state == GameState.CHECKMATE) return Status.CHECKMATE;
+        if (state.isDraw()) return Status.DRAW;
+        return view.isCheck() ? Status.CHECK : Status.PLAYING;
+    }
+
+    private void ensurePlaying() {
+        if (resigned != null || match().isGameOver()) {
+            throw new ChessException("The match is over");
+        }
+    }
+}
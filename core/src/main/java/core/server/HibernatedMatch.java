@@ -0,0 +1,77 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.Fen;
+import core.chess.Move;
+import core.chess.enums.PieceType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forma compacta de uma partida ociosa: posição de início e lances jogados. Voltar à partida é jogar de novo
+ * os lances a partir do início, o que reconstrói também o histórico de repetição, o en passant, os direitos
+ * de roque e o que {@link ChessMatch#takeback()} precisa.
+ * <pre>
+ * flags (1 byte)     bit 0: início por FEN
+ * [tamanho (2) + FEN em ASCII]
+ * lances (2)         seguidos de 2 bytes por lance: origem | destino &lt;&lt; 6 | promoção &lt;&lt; 12
+ * </pre>
+ * Os lances voltados e ainda não refeitos, assim como o histórico de repetição anterior ao início de uma
+ * partida criada por {@link ChessMatch#copy()} ou por fotografia, não são guardados.
+ */
+final class HibernatedMatch {
+
+    private static final int FLAG_FEN = 1;
+    private static final String PROMOTION_LETTERS = "PNBRQK";
+
+    private HibernatedMatch() {
+    }
+
+    static byte[] encode(ChessMatch match) {
+        String fen = match.getStartFen();
+        byte[] start = fen == null ? null : fen.getBytes(StandardCharsets.US_ASCII);
+        int[] moves = match.getMoveHistory();
+        ByteBuffer out = ByteBuffer.allocate(1 + (start == null ? 0 : 2 + start.length) + 2 + 2 * moves.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.put((byte) (start == null ? 0 : FLAG_FEN));
+        if (start != null) {
+            out.putShort((short) start.length);
+            out.put(start);
+        }
+        out.putShort((short) moves.length);
+        for (int move : moves) {
+            int promotion = Move.isPromotion(move) ? Move.promotionType(move).ordinal() : 0;
+            out.putShort((short) (Move.from(move) | Move.to(move) << 6 | promotion << 12));
+        }
+        return out.array();
+    }
+
+    static ChessMatch decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int flags = in.get();
+        ChessMatch match;
+        if ((flags & FLAG_FEN) != 0) {
+            byte[] start = new byte[in.getShort() & 0xFFFF];
+            in.get(start);
+            match = Fen.parse(new String(start, StandardCharsets.US_ASCII));
+        } else {
+            match = new ChessMatch();
+        }
+        int count = in.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            int code = in.getShort() & 0xFFFF;
+            // 0 nos lances que não promovem; a peça da promoção entra com o lance, como em GameSession.move()
+            int promotion = code >>> 12;
+            char type = PROMOTION_LETTERS.charAt(promotion == 0 ? PieceType.QUEEN.ordinal() : promotion);
+            match.performChessMove(position(code & 63), position(code >>> 6 & 63), String.valueOf(type));
+        }
+        return match;
+    }
+
+    private static ChessPosition position(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
+    }
+}
@@ -0,0 +1,206 @@
+package core.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Sessões hospedadas, indexadas pelo id. Só as usadas mais recentemente ficam com a partida viva: um LRU
+ * limitado guarda as sessões ativas em ordem de acesso, e as que passam do limite ou ficam ociosas além do
+ * prazo são hibernadas ({@link GameSession#hibernate()}). A sessão hibernada volta sozinha no próximo uso.
+ * <p>
+ * A varredura das ociosas acontece a cada {@link #get(long)}, a partir da sessão mais antiga do LRU, e também
+ * pode ser chamada por fora com {@link #hibernateIdle()}, como faz periodicamente o {@link GameServer}.
+ * Uma sessão tirada da hibernação por qualquer caminho volta ao LRU pelo {@link #rehydrated(GameSession)}.
+ */
+public class MatchRegistry {
+
+    private final ConcurrentMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    // sessões com partida viva, da menos para a mais recentemente usada; só acessado com liveLock
+    private final LinkedHashMap<Long, GameSession> live = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock liveLock = new ReentrantLock();
+    private final int maxLive;
+    private final long idleNanos;
+    private final LongSupplier clock;
+
+    /**
+     * @param maxLive  máximo de sessões com partida viva
+     * @param idleTime tempo sem uso a partir do qual a sessão é hibernada
+     */
+    public MatchRegistry(int maxLive, long idleTime, TimeUnit unit) {
+        this(maxLive, unit.toNanos(idleTime), System::nanoTime);
+    }
+
+    MatchRegistry(int maxLive, long idleNanos, LongSupplier clock) {
+        if (maxLive < 1) {
+            throw new IllegalArgumentException("At least one live match is required");
+        }
+        this.maxLive = maxLive;
+        this.idleNanos = idleNanos;
+        this.clock = clock;
+    }
+
+    public void add(GameSession session) {
+        if (sessions.putIfAbsent(session.getId(), session) != null) {
+            throw new IllegalArgumentException("Duplicate match: " + session.getId());
+        }
+        session.registry = this;
+        if (!session.isHibernated()) {
+            // as recuperadas de uma fotografia só entram no LRU no primeiro uso
+            hibernate(touch(session));
+        }
+    }
+
+    void remove(long id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            session.registry = null;
+            liveLock.lock();
+            try {
+                live.remove(id);
+            } finally {
+                liveLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Sessão com o id, ou null. Conta como uso: a sessão passa a ser a mais recente do LRU.
+     */
+    public GameSession get(long id) {
+        GameSession session = sessions.get(id);
+        if (session != null) {
+            hibernate(touch(session));
+        }
+        return session;
+    }
+
+    /**
+     * Chamado pela sessão, com o lock dela, ao refazer a partida hibernada: conta como uso, para que o LRU e
+     * {@link #liveCount()} incluam a sessão e o limite de partidas vivas continue valendo.
+     */
+    void rehydrated(GameSession session) {
+        if (sessions.get(session.getId()) == session) {
+            hibernate(touch(session));
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Todas as sessões, vivas ou hibernadas, sem contar como uso. A iteração não bloqueia o registro e
+     * inclui toda sessão adicionada antes de começar.
+     */
+    public Collection<GameSession> sessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Sessões que contam como vivas no LRU (as hibernadas saem dele até o próximo uso).
+     */
+    public int liveCount() {
+        liveLock.lock();
+        try {
+            return live.size();
+        } finally {
+            liveLock.unlock();
+        }
+    }
+
+    /**
+     * Hiberna as sessões ociosas além do prazo.
+     *
+     * @return quantidade de sessões hibernadas
+     */
+    public int hibernateIdle() {
+        List<GameSession> victims;
+        liveLock.lock();
+        try {
+            victims = evict(clock.getAsLong());
+        } finally {
+            liveLock.unlock();
+        }
+        return hibernate(victims);
+    }
+
+    /**
+     * Marca o uso e separa do LRU, com o lock dele, as sessões a hibernar.
+     */
+    private List<GameSession> touch(GameSession session) {
+        long now = clock.getAsLong();
+        liveLock.lock();
+        try {
+            session.lastAccess = now;
+            live.put(session.getId(), session);
+            return evict(now);
+        } finally {
+            liveLock.unlock();
+        }
+    }
+
+    private boolean isLive(GameSession session) {
+        liveLock.lock();
+        try {
+            return live.containsKey(session.getId());
+        } finally {
+            liveLock.unlock();
+        }
+    }
+
+    private List<GameSession> evict(long now) {
+        List<GameSession> victims = null;
+        Iterator<GameSession> oldest = live.values().iterator();
+        while (oldest.hasNext()) {
+            GameSession session = oldest.next();
+            if (live.size() <= maxLive && now - session.lastAccess < idleNanos) {
+                break;
+            }
+            oldest.remove();
+            if (victims == null) {
+                victims = new ArrayList<>();
+            }
+            victims.add(session);
+        }
+        return victims;
+    }
+
+    /**
+     * Hiberna fora do lock do LRU, já que a codificação percorre os lances da partida. Uma sessão ocupada
+     * por um comando não está ociosa: volta ao LRU como usada agora.
+     */
+    private int hibernate(List<GameSession> victims) {
+        if (victims == null) {
+            return 0;
+        }
+        int count = 0;
+        for (GameSession session : victims) {
+            if (isLive(session)) {
+                // usada de novo desde que saiu do LRU
+                continue;
+            }
+            if (session.hibernate()) {
+                count++;
+            } else {
+                // sem nova varredura: o excesso sai no próximo acesso
+                liveLock.lock();
+                try {
+                    session.lastAccess = clock.getAsLong();
+                    live.put(session.getId(), session);
+                } finally {
+                    liveLock.unlock();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,611 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal só de acréscimo com os comandos aceitos pelo servidor: criação de partida, lance (já com a peça de
+ * promoção escolhida) e abandono. Cada registro tem 20 bytes, little-endian:
+ * <pre>
+ * tipo (1) | origem (1) | destino (1) | promoção (1, letra ou 0) | número do comando na partida (4)
+ *          | id da partida (8) | CRC32C dos 16 anteriores (4)
+ * </pre>
+ * O registro vai para o arquivo na hora, com uma escrita no canal, e sobrevive a uma queda da JVM. A cópia
+ * em disco (fsync) é feita em grupo por uma thread própria: com a fila vazia, o primeiro registro é copiado na
+ * hora; os que chegam enquanto um fsync está em andamento esperam por ele e vão juntos no fsync seguinte.
+ * Quem precisa esperar pela cópia usa {@link #awaitDurable(long)}, que dura no máximo dois fsyncs. Um
+ * {@code maxDelay} maior que zero faz esse grupo esperar ainda até juntar {@code maxBatch} registros ou até o
+ * prazo, trocando latência por menos fsyncs; um registro que chega com a fila vazia nunca espera o prazo.
+ * <p>
+ * Os registros ficam em segmentos numerados ({@code journal-N.log}) em um diretório. {@link #snapshot} passa a
+ * gravar em um segmento novo, grava o estado de todas as partidas em {@code snapshot-N.snap} (ver
+ * {@link SnapshotFile}) e apaga os segmentos e fotografias anteriores. {@link #recover(int)} carrega a última
+ * fotografia e reproduz só os segmentos seguintes; o número do comando de cada registro diz quais deles a
+ * fotografia já contém.
+ * <p>
+ * Na abertura, um registro final incompleto ou com CRC inválido (escrita interrompida) é descartado. Uma escrita
+ * que falha com o journal aberto é desfeita na hora; se não der, o journal deixa de aceitar registros.
+ */
+public final class MoveJournal implements Closeable {
+
+    static final int RECORD_SIZE = 20;
+    static final byte CREATE = 1;
+    static final byte MOVE = 2;
+    static final byte RESIGN = 3;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    // estado encontrado na abertura, que recover() reconstrói: última fotografia (0 se nenhuma),
+    // segmentos a reproduzir e tamanho válido do último
+    private final long recoveredSnapshot;
+    private final long[] recoveredSegments;
+    private final long lastSegmentSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // acorda a thread de fsync (lote cheio, primeiro registro pendente ou fechamento)
+    private final Condition work = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    // uma fotografia por vez
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private final Thread committer;
+    // segmento atual; trocado por snapshot() com o lock
+    private FileChannel channel;
+    private long segment;
+    // número de registros escritos e de registros já copiados em disco, desde a abertura
+    private long written;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+
+    private MoveJournal(Path directory, int maxBatch, long maxDelayNanos, long snapshot, long[] segments,
+                        long lastSegmentSize, FileChannel channel) {
+        this.directory = directory;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelayNanos;
+        this.recoveredSnapshot = snapshot;
+        this.recoveredSegments = segments;
+        this.lastSegmentSize = lastSegmentSize;
+        this.channel = channel;
+        this.segment = segments[segments.length - 1];
+        this.committer = new Thread(this::commitLoop, "move-journal-" + directory.getFileName());
+        committer.setDaemon(true);
+    }
+
+    /**
+     * Abre (ou cria) o journal no diretório, descarta um final interrompido e passa a acrescentar registros
+     * no último segmento.
+     *
+     * @param maxBatch registros que encerram a espera de {@code maxDelay}
+     * @param maxDelay espera adicional dos registros que chegaram durante um fsync, antes do fsync deles;
+     *                 0 para copiá-los assim que o anterior terminar
+     */
+    public static MoveJournal open(Path directory, int maxBatch, long maxDelay, TimeUnit unit) throws IOException {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("The batch must hold at least one record");
+        }
+        Files.createDirectories(directory);
+        long snapshot = latest(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        TreeSet<Long> numbers = numbers(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        // segmentos anteriores à fotografia sobraram de uma limpeza interrompida
+        numbers.removeIf(n -> n < snapshot);
+        if (numbers.isEmpty()) {
+            numbers.add(Math.max(1, snapshot));
+        }
+        long[] segments = numbers.stream().mapToLong(Long::longValue).toArray();
+
+        FileChannel channel = FileChannel.open(segmentFile(directory, segments[segments.length - 1]),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = validSize(channel);
+            if (size < channel.size()) {
+                channel.truncate(size);
+                channel.force(false);
+            }
+            channel.position(size);
+            MoveJournal journal = new MoveJournal(directory, maxBatch, unit.toNanos(maxDelay), snapshot, segments,
+                    size, channel);
+            journal.committer.start();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    long create(long id) throws IOException {
+        return append(CREATE, id, 0, 0, 0, 0);
+    }
+
+    /**
+     * @param command   número do comando na partida, a partir de 1
+     * @param promotion letra da peça de promoção, ou 0
+     */
+    long move(long id, int command, ChessPosition source, ChessPosition target, char promotion) throws IOException {
+        return append(MOVE, id, command, square(source), square(target), promotion);
+    }
+
+    long resign(long id, int command) throws IOException {
+        return append(RESIGN, id, command, 0, 0, 0);
+    }
+
+    /**
+     * Espera até que o registro de número {@code sequence} (devolvido na gravação) esteja em disco.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (closed) {
+                    throw new IOException("Journal closed");
+                }
+                synced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fotografa as partidas e apaga o histórico que ela torna desnecessário. Os comandos continuam sendo
+     * aceitos durante a gravação: vão para o segmento novo, aberto antes de qualquer partida ser lida.
+     *
+     * @param sessions todas as sessões hospedadas; as hibernadas são gravadas sem voltar à memória
+     */
+    public void snapshot(Collection<GameSession> sessions) throws IOException {
+        snapshotLock.lock();
+        try {
+            long next = rotate();
+            SnapshotFile.write(snapshotFile(directory, next), next, sessions);
+            for (long n : numbers(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (n < next) {
+                    Files.deleteIfExists(segmentFile(directory, n));
+                }
+            }
+            for (long n : numbers(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (n < next) {
+                    Files.deleteIfExists(snapshotFile(directory, n));
+                }
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Faz o fsync do que falta e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reconstrói as partidas gravadas até a abertura: as da fotografia voltam hibernadas, sem reproduzir lances,
+     * e as que têm comandos nos segmentos seguintes são reproduzidas, uma tarefa por partida distribuída entre
+     * {@code threads} threads. As sessões devolvidas gravam os próximos comandos neste journal.
+     */
+    public List<GameSession> recover(int threads) throws IOException {
+        Map<Long, GameSession> sessions = new LinkedHashMap<>();
+        if (recoveredSnapshot > 0) {
+            for (GameSession session : SnapshotFile.read(snapshotFile(directory, recoveredSnapshot), recoveredSnapshot)) {
+                sessions.put(session.getId(), session);
+            }
+        }
+        Map<Long, List<long[]>> tail = new LinkedHashMap<>();
+        for (int i = 0; i < recoveredSegments.length; i++) {
+            boolean last = i == recoveredSegments.length - 1;
+            Path file = segmentFile(directory, recoveredSegments[i]);
+            if (!last && !Files.exists(file)) {
+                continue;
+            }
+            try (FileChannel segmentChannel = last ? null : FileChannel.open(file, StandardOpenOption.READ)) {
+                FileChannel source = last ? channel : segmentChannel;
+                readRecords(source, last ? lastSegmentSize : validSize(source), sessions, tail);
+            }
+        }
+
+        Map<Long, Integer> restored = new HashMap<>();
+        for (GameSession session : sessions.values()) {
+            restored.put(session.getId(), session.getCommands());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "move-journal-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<GameSession>> tasks = new ArrayList<>(tail.size());
+            for (Map.Entry<Long, List<long[]>> entry : tail.entrySet()) {
+                long id = entry.getKey();
+                GameSession session = sessions.get(id);
+                tasks.add(() -> replay(id, session, restored.getOrDefault(id, 0), entry.getValue()));
+            }
+            for (Future<GameSession> future : pool.invokeAll(tasks)) {
+                GameSession session = future.get();
+                sessions.put(session.getId(), session);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Journal recovery interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Corrupted journal: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        for (GameSession session : sessions.values()) {
+            session.attach(this);
+        }
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Lê os registros de um segmento, agrupados por partida, descartando os que a fotografia já contém.
+     * Cada registro vira {tipo | origem | destino | promoção, número do comando}.
+     */
+    private static void readRecords(FileChannel source, long size, Map<Long, GameSession> restored,
+                                    Map<Long, List<long[]>> tail) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - position));
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Journal truncated while recovering");
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                int command = buffer.getInt();
+                int number = buffer.getInt();
+                long id = buffer.getLong();
+                buffer.getInt();
+                GameSession session = restored.get(id);
+                if (session != null && number <= session.getCommands()) {
+                    continue;
+                }
+                List<long[]> list = tail.get(id);
+                if ((command & 0xFF) == CREATE) {
+                    if (list != null || session != null) {
+                        throw new IOException("Corrupted journal: match " + id + " created twice");
+                    }
+                    tail.put(id, new ArrayList<>());
+                } else if (list == null && session == null) {
+                    throw new IOException("Corrupted journal: command for unknown match " + id);
+                } else {
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        tail.put(id, list);
+                    }
+                    list.add(new long[]{command, number});
+                }
+            }
+            position += buffer.limit();
+        }
+    }
+
+    /**
+     * Aplica os comandos do final do journal sobre a sessão da fotografia, ou sobre uma partida nova.
+     */
+    private GameSession replay(long id, GameSession session, int restored, List<long[]> commands) {
+        if (session == null) {
+            session = new GameSession(id, new ChessMatch());
+        }
+        int expected = restored;
+        for (long[] entry : commands) {
+            int command = (int) entry[0];
+            if (entry[1] != ++expected) {
+                throw new IllegalStateException("match " + id + " is missing command " + expected);
+            }
+            if ((command & 0xFF) == RESIGN) {
+                session.resign();
+            } else {
+                int promotion = command >>> 24;
+                session.move(position(command >>> 8 & 0xFF), position(command >>> 16 & 0xFF),
+                        promotion == 0 ? null : String.valueOf((char) promotion));
+            }
+        }
+        session.restoreCommands(expected);
+        return session;
+    }
+
+    private long append(byte type, long id, int command, int from, int to, int promotion) throws IOException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (closed) {
+                throw new IOException("Journal closed");
+            }
+            record.clear();
+            record.put(type).put((byte) from).put((byte) to).put((byte) promotion).putInt(command).putLong(id);
+            record.flip();
+            crc.reset();
+            crc.update(record);
+            record.limit(RECORD_SIZE);
+            record.putInt((int) crc.getValue());
+            record.flip();
+            long start = -1;
+            try {
+                start = channel.position();
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException e) {
+                discard(start, e);
+                throw e;
+            }
+            if (written == durable) {
+                work.signal();
+            }
+            written++;
+            if (written - durable >= maxBatch) {
+                work.signal();
+            }
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tira do segmento o que uma escrita que falhou chegou a gravar, para que os registros seguintes não fiquem
+     * depois de um registro quebrado (a abertura descartaria todos eles). Se nem isso for possível, o journal
+     * passa a recusar gravações com o erro original. Chamado com o lock.
+     */
+    private void discard(long start, IOException error) {
+        try {
+            if (start < 0) {
+                // nem a posição foi lida: o canal já estava fechado
+                throw new ClosedChannelException();
+            }
+            if (channel.size() > start) {
+                channel.truncate(start);
+            }
+            channel.position(start);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+            failure = error;
+            work.signal();
+            synced.signalAll();
+        }
+    }
+
+    /**
+     * Fecha o segmento atual, já copiado em disco, e passa a gravar no seguinte.
+     *
+     * @return número do novo segmento
+     */
+    private long rotate() throws IOException {
+        FileChannel previous;
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (closed) {
+                throw new IOException("Journal closed");
+            }
+            long next = segment + 1;
+            FileChannel created = FileChannel.open(segmentFile(directory, next), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            previous = channel;
+            try {
+                previous.force(false);
+            } catch (IOException e) {
+                created.close();
+                throw e;
+            }
+            channel = created;
+            segment = next;
+            durable = written;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        previous.close();
+        return segment;
+    }
+
+    /**
+     * Thread de fsync (group commit): com a fila vazia, espera o primeiro registro e o copia na hora; os que
+     * chegam durante um fsync formam o grupo do seguinte, que só espera {@code maxDelay} se ele for configurado.
+     */
+    private void commitLoop() {
+        // registros pendentes ao fim do último fsync, ou seja, que chegaram enquanto ele estava em andamento
+        boolean queued = false;
+        long queuedNanos = 0;
+        while (true) {
+            long target;
+            FileChannel current;
+            lock.lock();
+            try {
+                while (written == durable && !closed) {
+                    work.awaitUninterruptibly();
+                }
+                if (written == durable) {
+                    return;
+                }
+                long wait;
+                while (queued && !closed && written - durable < maxBatch
+                        && (wait = queuedNanos + maxDelayNanos - System.nanoTime()) > 0) {
+                    work.awaitNanos(wait);
+                }
+                target = written;
+                current = channel;
+            } catch (InterruptedException e) {
+                target = written;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            ClosedChannelException closedChannel = null;
+            try {
+                current.force(false);
+            } catch (ClosedChannelException e) {
+                closedChannel = e;
+            } catch (IOException e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                // canal fechado: ou o segmento foi trocado por rotate(), que já fez o fsync de tudo o que estava
+                // escrito, ou a escrita foi interrompida e o fechou, e nada garante que os registros chegaram ao disco
+                if (closedChannel != null && current == channel) {
+                    error = failure != null ? failure : closedChannel;
+                }
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = Math.max(durable, target);
+                    queued = written > durable;
+                    queuedNanos = System.nanoTime();
+                }
+                synced.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Tamanho do maior prefixo do arquivo formado por registros inteiros com CRC válido.
+     */
+    private static long validSize(FileChannel channel) throws IOException {
+        long size = channel.size() - channel.size() % RECORD_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - position));
+            int read = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position + read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            buffer.flip();
+            for (int offset = 0; offset + RECORD_SIZE <= buffer.limit(); offset += RECORD_SIZE) {
+                crc.reset();
+                crc.update(buffer.slice(offset, RECORD_SIZE - 4));
+                if ((int) crc.getValue() != buffer.getInt(offset + RECORD_SIZE - 4)) {
+                    return position + offset;
+                }
+            }
+            position += buffer.limit();
+        }
+        return size;
+    }
+
+    private static Path segmentFile(Path directory, long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static Path snapshotFile(Path directory, long number) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX));
+    }
+
+    private static long latest(Path directory, String prefix, String suffix) throws IOException {
+        TreeSet<Long> numbers = numbers(directory, prefix, suffix);
+        return numbers.isEmpty() ? 0 : numbers.last();
+    }
+
+    private static TreeSet<Long> numbers(Path directory, String prefix, String suffix) throws IOException {
+        TreeSet<Long> numbers = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // outro arquivo com nome parecido
+                }
+            }
+        }
+        return numbers;
+    }
+
+    private static int square(ChessPosition position) {
+        return (8 - position.getRow()) * 8 + (position.getColumn() - 'a');
+    }
+
+    private static ChessPosition position(int square) {
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >>> 3));
+    }
+}
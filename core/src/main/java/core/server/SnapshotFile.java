@@ -0,0 +1,212 @@
+package core.server;
+
+import core.chess.enums.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Fotografia de todas as sessões, gravada e lida em sequência por um buffer direto de 1 MB reaproveitado, sem
+ * mapear o arquivo: um mapeamento vivo impediria, no Windows, cortar o arquivo ou apagá-lo na compactação
+ * seguinte. Little-endian:
+ * <pre>
+ * cabeçalho (32)  magia (4) | versão (4) | primeiro segmento do journal a reproduzir (8) | sessões (8)
+ *                 | CRC32C das sessões (4) | reservado (4)
+ * sessão          id (8) | comandos gravados (4) | abandono (1: 0, ou cor + 1) | tamanho (4)
+ *                 | partida na forma de {@link HibernatedMatch}
+ * </pre>
+ * O primeiro segmento é o número do próprio arquivo ({@code snapshot-N.snap}) e é conferido na leitura.
+ * A gravação é feita em um arquivo temporário, copiado em disco e renomeado no fim: uma fotografia com o
+ * nome final está sempre completa. As sessões lidas voltam hibernadas, sem reproduzir lances, o que deixa a
+ * leitura de milhões delas limitada pela cópia dos bytes.
+ */
+final class SnapshotFile {
+
+    static final int MAGIC = 0x53534843; // "CHSS" em little-endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    private static final int ENTRY_HEADER_SIZE = 17;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Grava as sessões, cada uma com o seu lock, e substitui o arquivo.
+     *
+     * @param segment primeiro segmento do journal com comandos que podem faltar na fotografia
+     */
+    static void write(Path file, long segment, Collection<GameSession> sessions) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer out = new Writer(channel);
+            for (GameSession session : sessions) {
+                session.snapshotTo(out);
+            }
+            out.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(segment).putLong(out.count)
+                    .putInt((int) out.crc.getValue()).putInt(0);
+            header.flip();
+            writeFully(channel, header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // nem todo sistema permite fsync de diretório; a renomeação continua atômica
+        }
+    }
+
+    /**
+     * Lê as sessões da fotografia, hibernadas e ainda sem journal.
+     *
+     * @param segment número do arquivo, que o cabeçalho precisa repetir
+     */
+    static List<GameSession> read(Path file, long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Corrupted snapshot: " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + header.getInt(4));
+            }
+            if (header.getLong(8) != segment) {
+                throw new IOException("Corrupted snapshot: " + file + " starts at segment " + header.getLong(8)
+                        + ", expected " + segment);
+            }
+            long count = header.getLong(16);
+            List<GameSession> sessions = new ArrayList<>((int) Math.min(count, 1 << 20));
+            CRC32C crc = new CRC32C();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+            // posição no arquivo do próximo byte ainda não lido para o buffer
+            long next = HEADER_SIZE;
+            for (long i = 0; i < count; i++) {
+                if (buffer.remaining() < ENTRY_HEADER_SIZE) {
+                    if (size - next < ENTRY_HEADER_SIZE - buffer.remaining()) {
+                        throw new IOException("Corrupted snapshot: truncated at session " + i);
+                    }
+                    next = fill(channel, buffer, next, size);
+                }
+                int start = buffer.position();
+                long id = buffer.getLong();
+                int commands = buffer.getInt();
+                int resigned = buffer.get();
+                int length = buffer.getInt();
+                if (length <= 0 || size - next + buffer.remaining() < length) {
+                    throw new IOException("Corrupted snapshot: bad session " + i);
+                }
+                crc.update(buffer.duplicate().position(start).limit(start + ENTRY_HEADER_SIZE));
+                // os bytes são copiados para a sessão; o que não está no buffer vem direto do arquivo
+                byte[] match = new byte[length];
+                int buffered = Math.min(length, buffer.remaining());
+                buffer.get(match, 0, buffered);
+                if (buffered < length) {
+                    ByteBuffer rest = ByteBuffer.wrap(match, buffered, length - buffered);
+                    readFully(channel, rest, next);
+                    next += length - buffered;
+                }
+                crc.update(match);
+                sessions.add(new GameSession(id, match, resigned == 0 ? null : Color.values()[resigned - 1], commands));
+            }
+            if (buffer.hasRemaining() || next != size || (int) crc.getValue() != header.getInt(24)) {
+                throw new IOException("Corrupted snapshot: checksum mismatch in " + file);
+            }
+            return sessions;
+        }
+    }
+
+    /**
+     * Move para o início do buffer o que ainda não foi lido e completa com o arquivo a partir de {@code next}.
+     *
+     * @return posição no arquivo depois dos bytes lidos
+     */
+    private static long fill(FileChannel channel, ByteBuffer buffer, long next, long size) throws IOException {
+        buffer.compact();
+        buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + size - next));
+        int read = buffer.remaining();
+        readFully(channel, buffer, next);
+        buffer.flip();
+        return next + read;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Snapshot truncated while reading");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Acrescenta sessões ao arquivo pelo buffer, que é escrito no canal sempre que enche.
+     */
+    static final class Writer {
+
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        // posição no arquivo do início do buffer
+        private long position = HEADER_SIZE;
+        private long count;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void add(long id, int commands, Color resigned, byte[] match) throws IOException {
+            if (buffer.remaining() < ENTRY_HEADER_SIZE + match.length) {
+                flush();
+            }
+            int start = buffer.position();
+            buffer.putLong(id).putInt(commands).put((byte) (resigned == null ? 0 : resigned.ordinal() + 1))
+                    .putInt(match.length);
+            crc.update(buffer.duplicate().position(start).limit(start + ENTRY_HEADER_SIZE));
+            if (match.length <= buffer.remaining()) {
+                buffer.put(match);
+            } else {
+                // uma sessão maior que o buffer vai direto para o arquivo
+                flush();
+                writeFully(channel, ByteBuffer.wrap(match), position);
+                position += match.length;
+            }
+            crc.update(match);
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            int length = buffer.remaining();
+            writeFully(channel, buffer, position);
+            position += length;
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package core.tablebase;
+
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto de peças de uma tabela, como "KQvK" ou "KRvKP". Define também a ordem das peças no índice:
+ * rei branco, rei preto, demais peças brancas e demais peças pretas, cada grupo da mais forte para a mais fraca.
+ * Peças iguais ficam adjacentes, o que permite tratá-las como intercambiáveis.
+ */
+final class Material {
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final int WHITE = Color.WHITE.getValue();
+    private static final int BLACK = Color.BLACK.getValue();
+
+    private final int[] kinds;
+    private final String name;
+    private final boolean pawns;
+    private final boolean canonical;
+
+    private Material(int[] kinds) {
+        this.kinds = kinds;
+        StringBuilder white = new StringBuilder("K");
+        StringBuilder black = new StringBuilder("K");
+        boolean hasPawns = false;
+        for (int i = 2; i < kinds.length; i++) {
+            (color(kinds[i]) == WHITE ? white : black).append(TYPES[type(kinds[i])].getLetter());
+            hasPawns |= type(kinds[i]) == PieceType.PAWN.ordinal();
+        }
+        this.name = white + "v" + black;
+        this.pawns = hasPawns;
+        this.canonical = compareSides() >= 0;
+    }
+
+    /**
+     * Material de um conjunto de peças em qualquer ordem (tipos de peça no formato de {@link ChessPiece#kind}).
+     */
+    static Material of(int[] pieceKinds, int count) {
+        int[] sorted = Arrays.copyOf(pieceKinds, count);
+        // reis primeiro, depois brancas e pretas, cada cor da peça mais forte para a mais fraca
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = sorted[i];
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(rank(a), rank(b)));
+        int kings = 0;
+        for (int i = 0; i < count; i++) {
+            sorted[i] = order[i];
+            if (type(sorted[i]) == PieceType.KING.ordinal()) {
+                kings++;
+            }
+        }
+        if (kings != 2 || sorted[0] != king(WHITE) || sorted[1] != king(BLACK)) {
+            throw new IllegalArgumentException("A material set needs exactly one king of each color");
+        }
+        return new Material(sorted);
+    }
+
+    /**
+     * Lê nomes como "KQvK" ou "KBNvK"; a letra v separa as peças brancas das pretas.
+     */
+    static Material parse(String name) {
+        int separator = name.indexOf('v');
+        if (separator < 1 || name.charAt(0) != 'K' || separator + 1 >= name.length() || name.charAt(separator + 1) != 'K') {
+            throw new IllegalArgumentException("Invalid material: " + name);
+        }
+        List<Integer> kinds = new ArrayList<>();
+        kinds.add(king(WHITE));
+        kinds.add(king(BLACK));
+        try {
+            for (int i = 1; i < name.length(); i++) {
+                if (i == separator || i == separator + 1) {
+                    continue;
+                }
+                PieceType type = PieceType.fromLetter(name.charAt(i));
+                if (type == PieceType.KING) {
+                    throw new IllegalArgumentException("Invalid material: " + name);
+                }
+                kinds.add(ChessPiece.kind(type, i < separator ? Color.WHITE : Color.BLACK));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid material: " + name, e);
+        }
+        int[] array = kinds.stream().mapToInt(Integer::intValue).toArray();
+        return of(array, array.length);
+    }
+
+    /**
+     * Mesmo material com as cores trocadas.
+     */
+    Material mirror() {
+        int[] swapped = new int[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            swapped[i] = flip(kinds[i]);
+        }
+        return of(swapped, swapped.length);
+    }
+
+    /**
+     * Materiais alcançáveis com um lance: captura de uma peça, promoção de um peão ou promoção com captura.
+     * Todos na orientação canônica e sem repetições; os que têm só os dois reis ficam de fora.
+     */
+    List<Material> successors() {
+        Map<String, Material> result = new LinkedHashMap<>();
+        int n = kinds.length;
+        int[] work = new int[n];
+        for (int captured = -1; captured < n; captured++) {
+            if (captured >= 0 && captured < 2) {
+                continue;
+            }
+            for (int promoted = -1; promoted < n; promoted++) {
+                if (promoted >= 0 && (promoted == captured || type(kinds[promoted]) != PieceType.PAWN.ordinal()
+                        || captured >= 0 && color(kinds[captured]) == color(kinds[promoted]))) {
+                    continue;
+                }
+                if (captured < 0 && promoted < 0) {
+                    continue;
+                }
+                for (int t = PieceType.KNIGHT.ordinal(); t <= PieceType.QUEEN.ordinal(); t++) {
+                    int count = 0;
+                    for (int i = 0; i < n; i++) {
+                        if (i != captured) {
+                            work[count++] = i == promoted ? color(kinds[i]) * 6 + t : kinds[i];
+                        }
+                    }
+                    if (count > 2) {
+                        Material m = of(work, count);
+                        m = m.isCanonical() ? m : m.mirror();
+                        result.putIfAbsent(m.getName(), m);
+                    }
+                    if (promoted < 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int size() {
+        return kinds.length;
+    }
+
+    int kind(int index) {
+        return kinds[index];
+    }
+
+    boolean hasPawns() {
+        return pawns;
+    }
+
+    /**
+     * As tabelas são geradas só na orientação em que as brancas têm mais peças (ou, empatando, as mais fortes);
+     * o material espelhado é consultado trocando as cores.
+     */
+    boolean isCanonical() {
+        return canonical;
+    }
+
+    private int compareSides() {
+        int white = 0;
+        int black = 0;
+        for (int i = 2; i < kinds.length; i++) {
+            if (color(kinds[i]) == WHITE) white++; else black++;
+        }
+        if (white != black) {
+            return Integer.compare(white, black);
+        }
+        for (int i = 0; i < white; i++) {
+            int c = Integer.compare(type(kinds[2 + i]), type(kinds[2 + white + i]));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static int rank(int kind) {
+        if (kind == king(WHITE)) return -2;
+        if (kind == king(BLACK)) return -1;
+        return (color(kind) == WHITE ? 0 : 6) + (5 - type(kind));
+    }
+
+    static int color(int kind) {
+        return kind / 6;
+    }
+
+    static int type(int kind) {
+        return kind % 6;
+    }
+
+    static int king(int color) {
+        return color * 6 + PieceType.KING.ordinal();
+    }
+
+    static int flip(int kind) {
+        return (1 - color(kind)) * 6 + type(kind);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,250 @@
+package core.tablebase;
+
+import core.chess.enums.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de finais de um material: para cada posição e lado a jogar, um byte com vitória, empate ou derrota
+ * e a distância até o mate em lances. O índice é {@code rei branco reduzido * 64^(n-1) + casas das demais peças},
+ * na ordem de {@link Material}. Sem peões, a simetria do tabuleiro leva o rei branco ao triângulo a1-d1-d4
+ * (10 casas); com peões só vale o espelhamento das colunas, e o rei branco fica nas colunas a-d (32 casas).
+ * Entre as posições equivalentes, vale a de menor índice; as demais entradas ficam sem uso.
+ */
+public final class Tablebase {
+
+    // codificação dos bytes: 0 empate, 1..126 vitória em n lances, 128 + n derrota em n lances
+    static final int DRAW = 0;
+    static final int LOSS = 128;
+    static final int UNKNOWN = 255;
+    static final int MAX_MOVES = 126;
+
+    private static final int[] TRIANGLE_SQUARES = region(false);
+    private static final int[] HALF_SQUARES = region(true);
+    private static final int[] TRIANGLE_INDEX = inverse(TRIANGLE_SQUARES);
+    private static final int[] HALF_INDEX = inverse(HALF_SQUARES);
+    // para cada casa do rei branco, as simetrias que o levam à região
+    private static final int[][] TRIANGLE_TRANSFORMS = transforms(TRIANGLE_INDEX, 8);
+    private static final int[][] HALF_TRANSFORMS = transforms(HALF_INDEX, 2);
+    private static final int PAWN = PieceType.PAWN.ordinal();
+
+    private final Material material;
+    private final int pieces;
+    private final boolean pawns;
+    private final int size;
+    private final int[][] kingTransforms;
+    private final int[] regionSquares;
+    private final int[] regionIndex;
+    private final boolean[] sameAsPrevious;
+    final byte[][] values;
+
+    Tablebase(Material material) {
+        this(material, null);
+    }
+
+    Tablebase(Material material, byte[][] values) {
+        this.material = material;
+        this.pieces = material.size();
+        this.pawns = material.hasPawns();
+        this.regionSquares = pawns ? HALF_SQUARES : TRIANGLE_SQUARES;
+        this.regionIndex = pawns ? HALF_INDEX : TRIANGLE_INDEX;
+        this.kingTransforms = pawns ? HALF_TRANSFORMS : TRIANGLE_TRANSFORMS;
+        this.size = regionSquares.length << 6 * (pieces - 1);
+        this.sameAsPrevious = new boolean[pieces];
+        for (int i = 1; i < pieces; i++) {
+            sameAsPrevious[i] = material.kind(i) == material.kind(i - 1);
+        }
+        if (values == null) {
+            values = new byte[2][size];
+        } else if (values.length != 2 || values[0].length != size || values[1].length != size) {
+            throw new IllegalArgumentException("Table size does not match " + material);
+        }
+        this.values = values;
+    }
+
+    public String getName() {
+        return material.getName();
+    }
+
+    public int getPieceCount() {
+        return pieces;
+    }
+
+    /**
+     * Entradas por lado a jogar, incluindo as que não correspondem a posições válidas.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    Material getMaterial() {
+        return material;
+    }
+
+    int value(int color, int index) {
+        return values[color][index] & 0xFF;
+    }
+
+    /**
+     * Índice canônico das casas dadas na ordem do material, ou -1 se nenhuma simetria levar o rei branco à região.
+     */
+    int index(int[] squares, int[] scratch) {
+        int best = -1;
+        for (int t : kingTransforms[squares[0]]) {
+            int index = regionIndex[transform(t, squares[0])];
+            for (int i = 1; i < pieces; i++) {
+                scratch[i] = transform(t, squares[i]);
+            }
+            sortEqualPieces(scratch);
+            for (int i = 1; i < pieces; i++) {
+                index = index << 6 | scratch[i];
+            }
+            if (best < 0 || index < best) {
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Preenche as casas da entrada; devolve false se a entrada não for a representante canônica da posição
+     * ou tiver peças na mesma casa.
+     */
+    boolean decode(int index, int[] squares, int[] scratch) {
+        long occupied = 0;
+        int rest = index;
+        for (int i = pieces - 1; i > 0; i--) {
+            squares[i] = rest & 63;
+            rest >>>= 6;
+            occupied |= 1L << squares[i];
+        }
+        squares[0] = regionSquares[rest];
+        occupied |= 1L << squares[0];
+        return Long.bitCount(occupied) == pieces && index(squares, scratch) == index;
+    }
+
+    /**
+     * Indica se alguma simetria além da identidade leva a posição nela mesma. Só acontece sem peões, com os reis
+     * sobre uma diagonal; nesses casos a contagem de lances por predecessor deixa de ser exata.
+     */
+    boolean isSymmetric(int[] squares, int[] scratch, int[] other) {
+        // só as transposições fixam casas: os dois reis precisam estar na mesma diagonal principal
+        int white = squares[0];
+        int black = squares[1];
+        boolean main = (white & 7) + (white >>> 3) == 7 && (black & 7) + (black >>> 3) == 7;
+        boolean anti = (white & 7) == (white >>> 3) && (black & 7) == (black >>> 3);
+        if (pawns || !main && !anti) {
+            return false;
+        }
+        for (int i = 0; i < pieces; i++) {
+            scratch[i] = squares[i];
+        }
+        sortEqualPieces(scratch);
+        for (int t = 1; t < 8; t++) {
+            if (transform(t, white) != white || transform(t, black) != black) {
+                continue;
+            }
+            for (int i = 0; i < pieces; i++) {
+                other[i] = transform(t, squares[i]);
+            }
+            sortEqualPieces(other);
+            boolean same = true;
+            for (int i = 2; i < pieces && same; i++) {
+                same = other[i] == scratch[i];
+            }
+            if (same) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Peões só podem estar entre a segunda e a sétima fileiras.
+     */
+    boolean pawnsPlaceable(int[] squares) {
+        for (int i = 2; i < pieces; i++) {
+            if (Material.type(material.kind(i)) == PAWN && (squares[i] < 8 || squares[i] >= 56)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sortEqualPieces(int[] squares) {
+        for (int i = 2; i < pieces; i++) {
+            for (int j = i; j > 1 && sameAsPrevious[j] && squares[j] < squares[j - 1]; j--) {
+                int tmp = squares[j];
+                squares[j] = squares[j - 1];
+                squares[j - 1] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Simetrias do tabuleiro: bit 2 transpõe pela diagonal a1-h8, bit 0 espelha as colunas e bit 1 as fileiras.
+     * As duas primeiras (identidade e espelho das colunas) preservam a direção dos peões.
+     */
+    static int transform(int t, int square) {
+        if ((t & 4) != 0) {
+            square = (7 - (square & 7)) * 8 + 7 - (square >>> 3);
+        }
+        if ((t & 1) != 0) {
+            square ^= 7;
+        }
+        if ((t & 2) != 0) {
+            square ^= 56;
+        }
+        return square;
+    }
+
+    static boolean isWin(int value) {
+        return value > DRAW && value < LOSS;
+    }
+
+    static boolean isLoss(int value) {
+        return value >= LOSS && value < UNKNOWN;
+    }
+
+    private static int[] region(boolean pawns) {
+        int[] squares = new int[pawns ? 32 : 10];
+        int count = 0;
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            int rank = 7 - (square >>> 3);
+            if (pawns ? file <= 3 : file <= 3 && rank <= file) {
+                squares[count++] = square;
+            }
+        }
+        return squares;
+    }
+
+    private static int[][] transforms(int[] regionIndex, int count) {
+        int[][] result = new int[64][];
+        for (int square = 0; square < 64; square++) {
+            int[] list = new int[count];
+            int n = 0;
+            for (int t = 0; t < count; t++) {
+                if (regionIndex[transform(t, square)] >= 0) {
+                    list[n++] = t;
+                }
+            }
+            result[square] = Arrays.copyOf(list, n);
+        }
+        return result;
+    }
+
+    private static int[] inverse(int[] squares) {
+        int[] index = new int[64];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < squares.length; i++) {
+            index[squares[i]] = i;
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return material.getName();
+    }
+}
@@ -0,0 +1,586 @@
+package core.tablebase;
+
+import core.chess.Attacks;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Geração retrógrada de uma tabela. Primeiro cada posição é classificada olhando só para os próprios lances:
+ * mates e afogamentos, lances que saem da tabela (capturas e promoções, consultados nas tabelas menores) e o
+ * número de lances que permanecem nela. Depois as posições resolvidas são processadas por distância ao mate,
+ * em meios-lances: de cada derrota, os predecessores (lances desfeitos do adversário) viram vitória; de cada
+ * vitória, os predecessores perdem um lance de fuga e, quando não sobra nenhum, viram derrota. O que não for
+ * resolvido é empate. Cada etapa divide as posições entre as threads; as atualizações concorrentes usam
+ * operações atômicas sobre os próprios arrays de bytes.
+ * <p>
+ * Roque e en passant não são considerados: as tabelas valem para posições sem direitos de roque e sem
+ * captura en passant disponível.
+ */
+final class TablebaseGenerator {
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private static final int MAX_LEVEL = 2 * Tablebase.MAX_MOVES;
+    private static final int EXIT_ENTRY = 1 << 31;
+    private static final int COLOR_SHIFT = 30;
+    private static final int INDEX_MASK = (1 << COLOR_SHIFT) - 1;
+    // bit de "exits": algum lance que sai da tabela empata ou vence, então a posição não está perdida
+    private static final int NOT_LOST = 0x80;
+    // em "counts": posição simétrica ou com sucessor simétrico, em que a contagem não é exata
+    private static final int VERIFY = 0xFF;
+    private static final int CHUNK = 4096;
+
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int WHITE = Color.WHITE.getValue();
+
+    private final Tablebases registry;
+    private final Tablebase table;
+    private final Material material;
+    private final int pieces;
+    private final int size;
+    private final int threads;
+    private final byte[][] values;
+    private final byte[][] counts;
+    private final byte[][] exits;
+    private final int[][] levels = new int[MAX_LEVEL + 1][];
+    private final int[] levelSizes = new int[MAX_LEVEL + 1];
+    private final Exit[] exitCache;
+
+    TablebaseGenerator(Tablebases registry, Material material, int threads) {
+        this.registry = registry;
+        this.table = new Tablebase(material);
+        this.material = material;
+        this.pieces = material.size();
+        this.size = table.getSize();
+        this.threads = Math.max(1, threads);
+        this.values = table.values;
+        this.counts = new byte[2][size];
+        this.exits = new byte[2][size];
+        this.exitCache = new Exit[pieces * (pieces + 1) * 6];
+    }
+
+    Tablebase generate() {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "tablebase-" + material.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            run(pool, 2L * size, null, (worker, entry) -> worker.classify(entry));
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                int[] entries = levels[level];
+                if (entries == null) {
+                    continue;
+                }
+                int count = levelSizes[level];
+                levels[level] = null;
+                int current = level;
+                run(pool, count, entries, (worker, entry) -> worker.propagate(entry, current));
+            }
+            run(pool, 2L * size, null, (worker, entry) -> {
+                byte[] array = values[(int) (entry / size)];
+                int index = (int) (entry % size);
+                if ((array[index] & 0xFF) == Tablebase.UNKNOWN) {
+                    array[index] = Tablebase.DRAW;
+                }
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+        return table;
+    }
+
+    private interface Step {
+        void apply(Worker worker, long entry);
+    }
+
+    /**
+     * Executa um passo sobre {@code count} entradas (posições de 0 a count-1, ou os elementos de {@code list})
+     * em blocos distribuídos entre as threads, e junta as posições agendadas por cada bloco.
+     */
+    private void run(ExecutorService pool, long count, int[] list, Step step) {
+        List<Callable<Worker>> tasks = new ArrayList<>();
+        long chunk = Math.max(CHUNK, (count + threads * 16L - 1) / (threads * 16L));
+        for (long start = 0; start < count; start += chunk) {
+            long from = start;
+            long to = Math.min(count, start + chunk);
+            tasks.add(() -> {
+                Worker worker = new Worker();
+                for (long i = from; i < to; i++) {
+                    step.apply(worker, list == null ? i : list[(int) i]);
+                }
+                return worker;
+            });
+        }
+        try {
+            for (Future<Worker> future : pool.invokeAll(tasks)) {
+                future.get().flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tablebase generation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Tablebase generation failed", e.getCause());
+        }
+    }
+
+    private void schedule(int level, int[] entries, int count) {
+        int[] list = levels[level];
+        int used = levelSizes[level];
+        if (list == null) {
+            list = new int[Math.max(count, 1024)];
+        } else if (used + count > list.length) {
+            list = Arrays.copyOf(list, Math.max(used + count, list.length * 2));
+        }
+        System.arraycopy(entries, 0, list, used, count);
+        levels[level] = list;
+        levelSizes[level] = used + count;
+    }
+
+    private static int entry(int color, int index) {
+        return color << COLOR_SHIFT | index;
+    }
+
+    private static boolean compareAndSet(byte[] array, int index, int expected, int value) {
+        return BYTES.compareAndSet(array, index, (byte) expected, (byte) value);
+    }
+
+    /**
+     * Decrementa o byte atomicamente e devolve o novo valor.
+     */
+    private static int decrement(byte[] array, int index) {
+        while (true) {
+            byte current = (byte) BYTES.getVolatile(array, index);
+            if (BYTES.compareAndSet(array, index, current, (byte) (current - 1))) {
+                return current - 1;
+            }
+        }
+    }
+
+    private static int read(byte[] array, int index) {
+        return (byte) BYTES.getVolatile(array, index) & 0xFF;
+    }
+
+    /**
+     * Destino de um lance que sai da tabela: a tabela menor, se as cores precisam ser trocadas para consultá-la
+     * e em que posição do índice dela fica cada peça.
+     */
+    private static final class Exit {
+        final Tablebase table;
+        final boolean mirror;
+        final int[] slots;
+
+        Exit(Tablebase table, boolean mirror, int[] slots) {
+            this.table = table;
+            this.mirror = mirror;
+            this.slots = slots;
+        }
+    }
+
+    private Exit exit(int mover, int captured, int promotion) {
+        int key = (mover * (pieces + 1) + captured + 1) * 6 + promotion + 1;
+        Exit exit = exitCache[key];
+        if (exit == null) {
+            // a corrida aqui é inofensiva: o resultado é sempre o mesmo e o objeto é imutável
+            exit = createExit(mover, captured, promotion);
+            exitCache[key] = exit;
+        }
+        return exit;
+    }
+
+    private Exit createExit(int mover, int captured, int promotion) {
+        int[] kinds = new int[pieces];
+        int count = 0;
+        for (int i = 0; i < pieces; i++) {
+            if (i != captured) {
+                kinds[count++] = i == mover && promotion >= 0 ? Material.color(material.kind(i)) * 6 + promotion
+                        : material.kind(i);
+            }
+        }
+        if (count == 2) {
+            return new Exit(null, false, null);
+        }
+        Material next = Material.of(kinds, count);
+        boolean mirror = !next.isCanonical();
+        Tablebase target = registry.table(mirror ? next.mirror() : next);
+        if (target == null) {
+            throw new IllegalStateException("Missing tablebase for " + next + " while generating " + material);
+        }
+        int[] slots = new int[pieces];
+        boolean[] used = new boolean[count];
+        for (int i = 0, j = 0; i < pieces; i++) {
+            if (i == captured) {
+                slots[i] = -1;
+                continue;
+            }
+            int kind = mirror ? Material.flip(kinds[j]) : kinds[j];
+            j++;
+            for (int s = 0; s < count; s++) {
+                if (!used[s] && target.getMaterial().kind(s) == kind) {
+                    used[s] = true;
+                    slots[i] = s;
+                    break;
+                }
+            }
+        }
+        return new Exit(target, mirror, slots);
+    }
+
+    private final class Worker {
+        private final int[] squares = new int[pieces];
+        private final int[] previous = new int[pieces];
+        private final int[] next = new int[pieces];
+        private final int[] scratch = new int[pieces];
+        private final int[] other = new int[pieces];
+        private final int[] exitSquares = new int[pieces];
+        private final int[][] scheduled = new int[MAX_LEVEL + 1][];
+        private final int[] scheduledSizes = new int[MAX_LEVEL + 1];
+
+        // resultado de scan()
+        private int legal;
+        private int inTable;
+        private boolean exitDraw;
+        private int exitWin;
+        private int exitLoss;
+        private boolean allWins;
+        private int maxWin;
+        private boolean symmetricSuccessor;
+
+        void classify(long position) {
+            int color = (int) (position / size);
+            int index = (int) (position % size);
+            if (!table.decode(index, squares, scratch) || !table.pawnsPlaceable(squares)
+                    || attacked(squares, -1, kingSquare(squares, 1 - color), color)) {
+                return;
+            }
+            scan(squares, color, false);
+            boolean verify = symmetricSuccessor || table.isSymmetric(squares, scratch, other);
+            byte[] array = values[color];
+            if (legal == 0) {
+                boolean mated = attacked(squares, -1, kingSquare(squares, color), 1 - color);
+                array[index] = (byte) (mated ? Tablebase.LOSS : Tablebase.DRAW);
+                if (mated) {
+                    add(0, entry(color, index));
+                }
+                return;
+            }
+            counts[color][index] = (byte) (verify ? VERIFY : inTable);
+            exits[color][index] = (byte) ((exitDraw || exitWin > 0 ? NOT_LOST : 0) | exitLoss);
+            array[index] = (byte) Tablebase.UNKNOWN;
+            if (exitWin > 0) {
+                add(2 * exitWin - 1, EXIT_ENTRY | entry(color, index));
+            } else if (inTable == 0) {
+                if (exitDraw) {
+                    array[index] = Tablebase.DRAW;
+                } else {
+                    array[index] = (byte) (Tablebase.LOSS + exitLoss);
+                    add(2 * exitLoss, entry(color, index));
+                }
+            }
+        }
+
+        /**
+         * Processa uma posição resolvida a {@code level} meios-lances do mate: níveis pares são derrotas do
+         * lado a jogar, ímpares são vitórias.
+         */
+        void propagate(long value, int level) {
+            int entry = (int) value;
+            int color = entry >>> COLOR_SHIFT & 1;
+            int index = entry & INDEX_MASK;
+            int moves = (level + 1) / 2;
+            if (entry < 0 && !compareAndSet(values[color], index, Tablebase.UNKNOWN, moves)) {
+                // vitória por um lance para fora da tabela, mas já resolvida por um caminho mais curto
+                return;
+            }
+            table.decode(index, squares, scratch);
+            int mover = 1 - color;
+            long occupied = occupancy(squares);
+            for (int i = 0; i < pieces; i++) {
+                int kind = material.kind(i);
+                if (Material.color(kind) != mover) {
+                    continue;
+                }
+                long origins = origins(kind, squares[i], occupied);
+                while (origins != 0) {
+                    int from = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    System.arraycopy(squares, 0, previous, 0, pieces);
+                    previous[i] = from;
+                    // na posição anterior quem joga é o adversário; o rei do outro lado não pode estar em xeque
+                    if (attacked(previous, -1, kingSquare(previous, color), mover)) {
+                        continue;
+                    }
+                    int before = table.index(previous, scratch);
+                    if (read(values[mover], before) != Tablebase.UNKNOWN) {
+                        continue;
+                    }
+                    if (level % 2 == 0) {
+                        if (compareAndSet(values[mover], before, Tablebase.UNKNOWN, moves + 1)) {
+                            add(level + 1, entry(mover, before));
+                        }
+                    } else if ((counts[mover][before] & 0xFF) == VERIFY) {
+                        verify(previous, mover, before);
+                    } else if (decrement(counts[mover], before) == 0) {
+                        lose(mover, before, moves);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Casas de onde a peça pode ter vindo sem capturar nem promover.
+         */
+        private long origins(int kind, int square, long occupied) {
+            int type = Material.type(kind);
+            if (type == PAWN) {
+                boolean white = Material.color(kind) == WHITE;
+                int back = white ? square + 8 : square - 8;
+                int row = back >>> 3;
+                if (row < 1 || row > 6 || (occupied & 1L << back) != 0) {
+                    return 0;
+                }
+                long result = 1L << back;
+                int start = white ? square + 16 : square - 16;
+                if ((square >>> 3) == (white ? 4 : 3) && (occupied & 1L << start) == 0) {
+                    result |= 1L << start;
+                }
+                return result;
+            }
+            return attacks(type, Material.color(kind), square, occupied) & ~occupied;
+        }
+
+        private void lose(int color, int index, int moves) {
+            int flags = exits[color][index];
+            if ((flags & NOT_LOST) != 0) {
+                return;
+            }
+            int loss = Math.max(moves, flags & 0x7F);
+            if (compareAndSet(values[color], index, Tablebase.UNKNOWN, Tablebase.LOSS + loss)) {
+                add(2 * loss, entry(color, index));
+            }
+        }
+
+        /**
+         * Com simetrias, um lance e um lance desfeito não se correspondem um a um e a contagem não serve:
+         * confere todos os lances da posição a cada vitória de um sucessor.
+         */
+        private void verify(int[] position, int color, int index) {
+            if ((exits[color][index] & NOT_LOST) != 0) {
+                return;
+            }
+            System.arraycopy(position, 0, exitSquares, 0, pieces);
+            scan(exitSquares, color, true);
+            if (allWins) {
+                lose(color, index, maxWin);
+            }
+        }
+
+        /**
+         * Percorre os lances legais do lado {@code color}, acumulando os campos de resultado. Com
+         * {@code readValues}, lê também o valor atual dos sucessores dentro da tabela.
+         */
+        private void scan(int[] position, int color, boolean readValues) {
+            legal = 0;
+            inTable = 0;
+            exitDraw = false;
+            exitWin = 0;
+            exitLoss = 0;
+            allWins = true;
+            maxWin = 0;
+            symmetricSuccessor = false;
+            long occupied = 0;
+            long own = 0;
+            for (int i = 0; i < pieces; i++) {
+                long bit = 1L << position[i];
+                occupied |= bit;
+                if (Material.color(material.kind(i)) == color) {
+                    own |= bit;
+                }
+            }
+            long enemy = occupied & ~own;
+            int lastRow = color == WHITE ? 0 : 7;
+            for (int i = 0; i < pieces; i++) {
+                int kind = material.kind(i);
+                if (Material.color(kind) != color) {
+                    continue;
+                }
+                int type = Material.type(kind);
+                int from = position[i];
+                long targets = type == PAWN ? pawnTargets(color, from, occupied, enemy)
+                        : attacks(type, color, from, occupied) & ~own;
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    int captured = (enemy & 1L << to) != 0 ? pieceAt(position, to) : -1;
+                    if (type == PAWN && to >>> 3 == lastRow) {
+                        for (int promotion = QUEEN; promotion >= KNIGHT; promotion--) {
+                            move(position, color, i, to, captured, promotion, readValues);
+                        }
+                    } else {
+                        move(position, color, i, to, captured, -1, readValues);
+                    }
+                }
+            }
+        }
+
+        private void move(int[] position, int color, int mover, int to, int captured, int promotion,
+                          boolean readValues) {
+            System.arraycopy(position, 0, next, 0, pieces);
+            next[mover] = to;
+            if (attacked(next, captured, kingSquare(next, color), 1 - color)) {
+                return;
+            }
+            legal++;
+            int value;
+            if (captured < 0 && promotion < 0) {
+                inTable++;
+                if (!readValues) {
+                    symmetricSuccessor |= table.isSymmetric(next, scratch, other);
+                    return;
+                }
+                value = read(values[1 - color], table.index(next, scratch));
+                if (Tablebase.isWin(value)) {
+                    maxWin = Math.max(maxWin, value);
+                } else {
+                    allWins = false;
+                }
+                return;
+            }
+            value = exitValue(color, mover, captured, promotion);
+            if (value == Tablebase.DRAW) {
+                exitDraw = true;
+            } else if (Tablebase.isWin(value)) {
+                exitLoss = Math.max(exitLoss, value);
+            } else {
+                int win = value - Tablebase.LOSS + 1;
+                exitWin = exitWin == 0 ? win : Math.min(exitWin, win);
+            }
+        }
+
+        private int exitValue(int color, int mover, int captured, int promotion) {
+            Exit exit = exit(mover, captured, promotion);
+            if (exit.table == null) {
+                return Tablebase.DRAW;
+            }
+            for (int i = 0; i < pieces; i++) {
+                if (i != captured) {
+                    exitSquares[exit.slots[i]] = exit.mirror ? next[i] ^ 56 : next[i];
+                }
+            }
+            int side = exit.mirror ? color : 1 - color;
+            return exit.table.value(side, exit.table.index(exitSquares, other));
+        }
+
+        private int pieceAt(int[] position, int square) {
+            for (int i = 0; i < pieces; i++) {
+                if (position[i] == square) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long occupancy(int[] position) {
+            long occupied = 0;
+            for (int i = 0; i < pieces; i++) {
+                occupied |= 1L << position[i];
+            }
+            return occupied;
+        }
+
+        private int kingSquare(int[] position, int color) {
+            // rei branco no índice 0, preto no 1
+            return position[color == WHITE ? 0 : 1];
+        }
+
+        /**
+         * Indica se a casa é atacada pelas peças de {@code by}, ignorando a peça de índice {@code skip} (capturada).
+         */
+        private boolean attacked(int[] position, int skip, int square, int by) {
+            long occupied = 0;
+            for (int i = 0; i < pieces; i++) {
+                if (i != skip) {
+                    occupied |= 1L << position[i];
+                }
+            }
+            long target = 1L << square;
+            for (int i = 0; i < pieces; i++) {
+                int kind = material.kind(i);
+                if (i == skip || Material.color(kind) != by) {
+                    continue;
+                }
+                int type = Material.type(kind);
+                long attacks = type == PAWN ? Attacks.pawn(by, position[i]) : attacks(type, by, position[i], occupied);
+                if ((attacks & target) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(int level, int entry) {
+            if (level > MAX_LEVEL) {
+                throw new IllegalStateException("Mate distance beyond " + Tablebase.MAX_MOVES + " moves in " + material);
+            }
+            int[] list = scheduled[level];
+            int count = scheduledSizes[level];
+            if (list == null) {
+                list = scheduled[level] = new int[64];
+            } else if (count == list.length) {
+                list = scheduled[level] = Arrays.copyOf(list, count * 2);
+            }
+            list[count] = entry;
+            scheduledSizes[level] = count + 1;
+        }
+
+        void flush() {
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                if (scheduledSizes[level] > 0) {
+                    schedule(level, scheduled[level], scheduledSizes[level]);
+                }
+            }
+        }
+    }
+
+    private static long pawnTargets(int color, int from, long occupied, long enemy) {
+        long targets = Attacks.pawn(color, from) & enemy;
+        int step = color == WHITE ? -8 : 8;
+        int one = from + step;
+        if ((occupied & 1L << one) == 0) {
+            targets |= 1L << one;
+            int two = one + step;
+            if ((from >>> 3) == (color == WHITE ? 6 : 1) && (occupied & 1L << two) == 0) {
+                targets |= 1L << two;
+            }
+        }
+        return targets;
+    }
+
+    private static long attacks(int type, int color, int square, long occupied) {
+        // na ordem de PieceType
+        switch (type) {
+            case 1: return Attacks.knight(square);
+            case 2: return Attacks.bishop(square, occupied);
+            case 3: return Attacks.rook(square, occupied);
+            case 4: return Attacks.queen(square, occupied);
+            case 5: return Attacks.king(square);
+            default: return Attacks.pawn(color, square);
+        }
+    }
+}
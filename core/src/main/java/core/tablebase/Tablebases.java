@@ -0,0 +1,272 @@
+package core.tablebase;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPiece;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conjunto de tabelas de finais, geradas por análise retrógrada ({@link #generate}) ou lidas de arquivos
+ * ({@link #load}), com consulta a partir de uma {@link ChessMatch}. Consultas são thread-safe.
+ */
+public final class Tablebases {
+
+    /**
+     * Resultado de {@link #probe} quando a posição não está coberta.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * Pontuação do mate imediato, na escala de {@code core.engine.Search}: mate em n meios-lances vale MATE - n.
+     */
+    public static final int MATE = 30000;
+
+    public static final int MAX_PIECES = 4;
+
+    private static final int MAGIC = 0x42544843; // "CHTB"
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".tb";
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private final Map<String, Tablebase> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Gera a tabela do material informado (como "KQvK" ou "KRvKP") e as que ela consulta, se ainda não existirem.
+     */
+    public synchronized Tablebase generate(String material, int threads) {
+        Material m = Material.parse(material);
+        if (m.size() > MAX_PIECES) {
+            throw new IllegalArgumentException("Tablebases are limited to " + MAX_PIECES + " pieces: " + material);
+        }
+        return generate(m.isCanonical() ? m : m.mirror(), threads);
+    }
+
+    private Tablebase generate(Material material, int threads) {
+        Tablebase table = tables.get(material.getName());
+        if (table != null) {
+            return table;
+        }
+        for (Material next : material.successors()) {
+            generate(next, threads);
+        }
+        table = new TablebaseGenerator(this, material, threads).generate();
+        tables.put(material.getName(), table);
+        return table;
+    }
+
+    /**
+     * Gera todas as tabelas com até {@code pieces} peças, reis incluídos.
+     */
+    public synchronized void generateAll(int pieces, int threads) {
+        if (pieces > MAX_PIECES) {
+            throw new IllegalArgumentException("Tablebases are limited to " + MAX_PIECES + " pieces");
+        }
+        for (String material : materials(pieces)) {
+            generate(material, threads);
+        }
+    }
+
+    /**
+     * Nomes canônicos de todos os materiais com 3 até {@code pieces} peças.
+     */
+    static List<String> materials(int pieces) {
+        List<String> result = new ArrayList<>();
+        String letters = "QRBNP";
+        for (int extra = 1; extra <= pieces - 2; extra++) {
+            for (int white = extra; white >= (extra + 1) / 2; white--) {
+                for (String w : combinations(letters, white)) {
+                    for (String b : combinations(letters, extra - white)) {
+                        Material m = Material.parse("K" + w + "vK" + b);
+                        if (m.isCanonical()) {
+                            result.add(m.getName());
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> combinations(String letters, int count) {
+        List<String> result = new ArrayList<>();
+        if (count == 0) {
+            result.add("");
+            return result;
+        }
+        for (int i = 0; i < letters.length(); i++) {
+            for (String rest : combinations(letters.substring(i), count - 1)) {
+                result.add(letters.charAt(i) + rest);
+            }
+        }
+        return result;
+    }
+
+    public Tablebase getTable(String material) {
+        return tables.get(material);
+    }
+
+    Tablebase table(Material material) {
+        return tables.get(material.getName());
+    }
+
+    public List<String> getMaterials() {
+        return new ArrayList<>(new TreeMap<>(tables).keySet());
+    }
+
+    /**
+     * Avalia a posição pelo lado a jogar: {@code MATE - n} quando dá mate em n meios-lances, {@code -(MATE - n)}
+     * quando leva mate em n meios-lances, 0 no empate e {@link #UNKNOWN} quando não há tabela para o material,
+     * há direitos de roque ou há captura en passant disponível. A regra dos 50 lances não é considerada.
+     */
+    public int probe(ChessMatch match) {
+        if (match.isCheckMate()) {
+            return -MATE;
+        }
+        if (match.castlingRights() != 0) {
+            return UNKNOWN;
+        }
+        int[] kinds = new int[MAX_PIECES];
+        int[] squares = new int[MAX_PIECES];
+        int count = 0;
+        for (Color color : Color.values()) {
+            for (PieceType type : TYPES) {
+                long pieces = match.getBitboard(type, color);
+                while (pieces != 0) {
+                    if (count == MAX_PIECES) {
+                        return UNKNOWN;
+                    }
+                    kinds[count] = ChessPiece.kind(type, color);
+                    squares[count++] = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        if (match.enPassantCaptureFile() >= 0) {
+            return UNKNOWN;
+        }
+        Color player = match.sideToMove();
+        int value = probe(kinds, squares, count, player.getValue());
+        if (value < 0) {
+            return UNKNOWN;
+        }
+        if (Tablebase.isWin(value)) {
+            return MATE - (2 * value - 1);
+        }
+        if (Tablebase.isLoss(value)) {
+            return -(MATE - 2 * (value - Tablebase.LOSS));
+        }
+        return 0;
+    }
+
+    /**
+     * Valor codificado (ver {@link Tablebase}) de um conjunto de peças em qualquer ordem, ou -1 sem tabela.
+     */
+    int probe(int[] kinds, int[] squares, int count, int color) {
+        if (count == 2) {
+            return Tablebase.DRAW;
+        }
+        Material material = Material.of(kinds, count);
+        boolean mirror = !material.isCanonical();
+        Tablebase table = table(mirror ? material.mirror() : material);
+        if (table == null) {
+            return -1;
+        }
+        Material layout = table.getMaterial();
+        int[] ordered = new int[count];
+        boolean[] used = new boolean[count];
+        for (int slot = 0; slot < count; slot++) {
+            for (int i = 0; i < count; i++) {
+                int kind = mirror ? Material.flip(kinds[i]) : kinds[i];
+                if (!used[i] && kind == layout.kind(slot)) {
+                    used[i] = true;
+                    ordered[slot] = mirror ? squares[i] ^ 56 : squares[i];
+                    break;
+                }
+            }
+        }
+        return table.value(mirror ? 1 - color : color, table.index(ordered, new int[count]));
+    }
+
+    /**
+     * Grava cada tabela em {@code <material>.tb}: cabeçalho (magic, versão, nome) seguido dos bytes das
+     * posições com as brancas e depois com as pretas a jogar.
+     */
+    public void save(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Tablebase table : tables.values()) {
+            byte[] name = table.getName().getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer header = ByteBuffer.allocate(12 + name.length);
+            header.putInt(MAGIC).putInt(VERSION).putInt(name.length).put(name).flip();
+            try (FileChannel channel = FileChannel.open(directory.resolve(table.getName() + EXTENSION),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (ByteBuffer data : new ByteBuffer[]{header,
+                        ByteBuffer.wrap(table.values[Color.WHITE.getValue()]),
+                        ByteBuffer.wrap(table.values[Color.BLACK.getValue()])}) {
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+            }
+        }
+    }
+
+    public static Tablebases load(Path directory) throws IOException {
+        Tablebases result = new Tablebases();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+                if (data.remaining() < 12 || data.getInt() != MAGIC || data.getInt() != VERSION) {
+                    throw new IOException("Not a tablebase file: " + file);
+                }
+                byte[] name = new byte[data.getInt()];
+                data.get(name);
+                Material material = Material.parse(new String(name, StandardCharsets.US_ASCII));
+                Tablebase empty = new Tablebase(material);
+                int size = empty.getSize();
+                if (data.remaining() != 2 * size) {
+                    throw new IOException("Truncated tablebase file: " + file);
+                }
+                byte[][] values = new byte[2][size];
+                data.get(values[Color.WHITE.getValue()]).get(values[Color.BLACK.getValue()]);
+                result.tables.put(material.getName(), new Tablebase(material, values));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gera e grava as tabelas: {@code Tablebases <diretório> [peças] [threads]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: Tablebases <directory> [pieces] [threads]");
+            return;
+        }
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : MAX_PIECES;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Tablebases tablebases = new Tablebases();
+        long start = System.nanoTime();
+        for (String material : materials(pieces)) {
+            long t = System.nanoTime();
+            tablebases.generate(material, threads);
+            System.out.printf("%-8s %6d ms%n", material, (System.nanoTime() - t) / 1_000_000);
+        }
+        tablebases.save(Paths.get(args[0]));
+        System.out.printf("%d tables in %d ms%n", tablebases.tables.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,113 @@
+package core.archive;
+
+import core.chess.Fen;
+import core.chess.Move;
+import core.chess.exceptions.ChessException;
+import core.pgn.PgnGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    private static final String OPERA_GAME = "[Event \"Paris\"]\n"
+            + "[White \"Paul Morphy\"]\n"
+            + "[Black \"Duke Karl / Count Isouard\"]\n"
+            + "[Result \"1-0\"]\n"
+            + "\n"
+            + "1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7\n"
+            + "8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7\n"
+            + "14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0\n"
+            + "\n";
+
+    private static final String SETUP_GAME = "[Event \"Setup\"]\n"
+            + "[FEN \"4k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 1\"]\n"
+            + "\n"
+            + "1. exd6 Kd7 2. b8=N+ Kxd6 *\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void archive_roundTripsGamesWithRandomAccessAcrossBlocks() throws IOException {
+        PgnGame opera = PgnGame.parse(0, OPERA_GAME);
+        PgnGame setup = PgnGame.parse(1, SETUP_GAME);
+        int games = 3 * GameArchive.BLOCK_SIZE + 17;
+        Path file = dir.resolve("games.bin");
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            for (int i = 0; i < games; i++) {
+                writer.write(i % 3 == 2 ? setup : opera);
+            }
+        }
+
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertEquals(games, reader.getGameCount());
+            for (long n : new long[]{games - 1, 0, GameArchive.BLOCK_SIZE, 2 * GameArchive.BLOCK_SIZE + 5, 2, 700}) {
+                ArchivedGame game = reader.read(n);
+                PgnGame expected = n % 3 == 2 ? setup : opera;
+                assertEquals(n, game.getIndex());
+                assertArrayEquals(expected.getMoves(), game.getMoves());
+                assertEquals(expected.getResult(), game.getResult());
+                assertEquals(expected.getTag("FEN"), game.getStartFen());
+                assertEquals(Fen.toFen(expected.getMatch()), Fen.toFen(game.getMatch()));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(games));
+        }
+    }
+
+    @Test
+    void read_replaysAsGameMoves_soTheFinalMatchKnowsTheResultAndKeepsPlaying() throws IOException {
+        Path file = dir.resolve("mates.bin");
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            writer.write(PgnGame.parse(0, "1. f3 e5 2. g4 Qh4# 0-1\n"));
+            writer.write(PgnGame.parse(1, "1. e4 e5 *\n"));
+        }
+
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertTrue(reader.read(0).getMatch().isCheckMate());
+            assertEquals(core.chess.enums.GameState.CHECKMATE, reader.read(0).getMatch().getState());
+
+            core.chess.ChessMatch opening = reader.read(1).getMatch();
+            opening.performChessMove(new core.chess.ChessPosition('g', 1), new core.chess.ChessPosition('f', 3));
+            opening.takeback();
+            opening.takeback();
+            assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(opening));
+        }
+    }
+
+    @Test
+    void archive_isMuchSmallerThanPgn() throws IOException {
+        Path file = dir.resolve("opera.bin");
+        PgnGame opera = PgnGame.parse(0, OPERA_GAME);
+        int games = 1000;
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            for (int i = 0; i < games; i++) {
+                writer.write(opera);
+            }
+        }
+        long pgnSize = (long) games * OPERA_GAME.getBytes(StandardCharsets.US_ASCII).length;
+        assertTrue(Files.size(file) * 8 < pgnSize, Files.size(file) + " bytes vs " + pgnSize);
+    }
+
+    @Test
+    void write_rejectsIllegalMoveWithoutCorruptingTheArchive() throws IOException {
+        Path file = dir.resolve("illegal.bin");
+        PgnGame opera = PgnGame.parse(0, OPERA_GAME);
+        int[] illegal = {Move.of(52, 20, Move.QUIET)};
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            writer.write(opera);
+            assertThrows(ChessException.class, () -> writer.write(null, illegal, 1, "*"));
+            writer.write(opera);
+        }
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertEquals(2, reader.getGameCount());
+            assertArrayEquals(opera.getMoves(), reader.read(1).getMoves());
+        }
+    }
+}
@@ -117,4 +117,23 @@ public class BoardTest {
         board.placePiece(p, pos);
         assertTrue(board.thereIsAPiece(pos));
     }
+
+    @Test
+    public void constructor_MoreThan64Squares_ThrowsBoardException() {
+        assertThrows(BoardException.class, () -> new Board(9, 8));
+    }
+
+    @Test
+    public void placeAndRemovePiece_UpdatesOccupiedBitboard() {
+        Board board = new Board(3, 3);
+        Position pos = new Position(1, 2);
+        TestPiece p = new TestPiece(board);
+
+        board.placePiece(p, pos);
+        assertEquals(1L << 5, board.getOccupied());
+        assertSame(p, board.pieceAt(board.square(pos)));
+
+        board.removePiece(pos);
+        assertEquals(0L, board.getOccupied());
+    }
 }
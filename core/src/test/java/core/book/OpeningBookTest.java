@@ -0,0 +1,132 @@
+package core.book;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.Fen;
+import core.chess.Move;
+import core.pgn.PgnGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    private static final String OPERA_GAME = "[Result \"1-0\"]\n\n"
+            + "1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 1-0\n";
+    private static final String DRAWN_GAME = "[Result \"1/2-1/2\"]\n\n1. d4 d5 2. c4 e6 1/2-1/2\n";
+
+    // tabela própria, para que os livros dos testes não dependam da tabela padrão
+    private static final PolyglotKey KEY = seededKey();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lookup_returnsWeightedMovesPlayableThroughPerformChessMove() throws IOException {
+        OpeningBookWriter writer = new OpeningBookWriter(KEY);
+        writer.addGame(PgnGame.parse(0, OPERA_GAME), 10);
+        writer.addGame(PgnGame.parse(1, OPERA_GAME), 10);
+        writer.addGame(PgnGame.parse(2, DRAWN_GAME), 10);
+        Path file = dir.resolve("book.bin");
+        writer.write(file);
+
+        OpeningBook book = OpeningBook.open(file, KEY);
+        ChessMatch match = new ChessMatch();
+        List<BookMove> moves = book.lookup(match);
+        assertEquals(2, moves.size());
+        assertEquals("e2e4", Move.toString(moves.stream().filter(m -> m.getWeight() == 4).findFirst().orElseThrow().getMove()));
+        assertEquals("d2d4", Move.toString(moves.stream().filter(m -> m.getWeight() == 1).findFirst().orElseThrow().getMove()));
+
+        for (int ply = 0; ply < 10; ply++) {
+            BookMove move = book.choose(match, new SplittableRandom(ply));
+            assertNotNull(move, "ply " + ply);
+            match.performChessMove(move.getSource(), move.getTarget());
+        }
+        assertNull(book.choose(match, new SplittableRandom(0)));
+        assertTrue(book.lookup(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1")).isEmpty());
+    }
+
+    @Test
+    void castling_isStoredAsKingTakesRookAndResolvedBack() throws IOException {
+        ChessMatch match = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        OpeningBookWriter writer = new OpeningBookWriter(KEY);
+        writer.add(match, Move.of(60, 62, Move.KING_CASTLE), 7);
+        Path file = dir.resolve("castle.bin");
+        writer.write(file);
+
+        ByteBuffer raw = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(OpeningBook.ENTRY_SIZE, raw.capacity());
+        // e1h1: origem 4 (e1) e destino 7 (h1) na numeração do Polyglot
+        assertEquals(7 | 4 << 6, raw.getShort(8));
+
+        BookMove move = OpeningBook.open(file, KEY).lookup(match).get(0);
+        assertEquals(Move.KING_CASTLE, Move.flags(move.getMove()));
+        assertEquals(new ChessPosition('g', 1).toString(), move.getTarget().toString());
+        assertEquals(7, move.getWeight());
+    }
+
+    @Test
+    void key_dependsOnPositionNotOnMoveOrder() {
+        PolyglotKey hasher = KEY;
+        ChessMatch a = new ChessMatch();
+        ChessMatch b = new ChessMatch();
+        for (String m : new String[]{"g1f3", "g8f6", "b1c3"}) a.makeMove(find(a, m));
+        for (String m : new String[]{"b1c3", "g8f6", "g1f3"}) b.makeMove(find(b, m));
+        assertEquals(hasher.key(a), hasher.key(b));
+        assertNotEquals(hasher.key(a), hasher.key(new ChessMatch()));
+
+        // en passant só conta com peão do jogador da vez ao lado
+        long withCapture = hasher.key(Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1"));
+        assertNotEquals(withCapture, hasher.key(Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - - 0 1")));
+        assertEquals(hasher.key(Fen.parse("4k3/8/8/3p4/8/8/4P3/4K3 w - d6 0 1")),
+                hasher.key(Fen.parse("4k3/8/8/3p4/8/8/4P3/4K3 w - - 0 1")));
+    }
+
+    @Test
+    void standardKey_reproducesThePublishedTestVectors() {
+        assertFalse(KEY.isStandard());
+        PolyglotKey standard = PolyglotKey.standard();
+        assertTrue(standard.isStandard());
+        assertEquals(0x463B96181691FC9CL, standard.key(new ChessMatch()));
+    }
+
+    @Test
+    void open_readsBooksWrittenWithTheStandardKey() throws IOException {
+        Path file = dir.resolve("standard.bin");
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.addGame(PgnGame.parse(0, OPERA_GAME), 2);
+        writer.write(file);
+
+        ByteBuffer raw = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(0x463B96181691FC9CL, raw.getLong(0));
+        assertEquals("e2e4", Move.toString(OpeningBook.open(file).lookup(new ChessMatch()).get(0).getMove()));
+    }
+
+    private static PolyglotKey seededKey() {
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+        long[] table = new long[PolyglotKey.SIZE];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return new PolyglotKey(table);
+    }
+
+    private static int find(ChessMatch match, String uci) {
+        int[] moves = new int[256];
+        int count = match.legalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toString(moves[i]).equals(uci)) {
+                return moves[i];
+            }
+        }
+        throw new AssertionError(uci);
+    }
+}
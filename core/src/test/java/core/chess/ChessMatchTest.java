@@ -0,0 +1,853 @@
+package core.chess;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.ThreadMXBean;
+import core.chess.enums.Color;
+import core.chess.enums.GameState;
+import core.chess.enums.PieceType;
+import core.chess.exceptions.ChessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ChessMatchTest {
+
+    private ChessMatch match;
+
+    @BeforeEach
+    public void setUp() {
+        match = new ChessMatch();
+    }
+
+
+    @Test
+    void getPieces_initialSetup_returnsCorrectBoard() {
+        ChessMatch chessMatch = new ChessMatch();
+        ChessPiece[][] pieces = chessMatch.getPieces();
+
+        assertNotNull(pieces, "getPieces() não deve retornar nulo");
+        assertEquals(8, pieces.length, "Deve ter 8 linhas");
+        for (ChessPiece[] row : pieces) {
+            assertEquals(8, row.length, "Cada linha deve ter 8 colunas");
+        }
+
+        int totalNonNull = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                if (pieces[r][c] != null) totalNonNull++;
+            }
+        }
+        assertEquals(32, totalNonNull, "Deve haver 32 peças no setup inicial");
+
+        // Verifica configuração típica: linhas 0 e 7 com 8 peças, 1 e 6 com 8 (peões), linhas 2-5 vazias
+        assertEquals(8, countNonNullRow(pieces, 0), "Linha 0 deve ter 8 peças");
+        assertEquals(8, countNonNullRow(pieces, 1), "Linha 1 deve ter 8 peças (peões)");
+        assertEquals(0, countNonNullRow(pieces, 2), "Linha 2 deve estar vazia");
+        assertEquals(0, countNonNullRow(pieces, 3), "Linha 3 deve estar vazia");
+        assertEquals(0, countNonNullRow(pieces, 4), "Linha 4 deve estar vazia");
+        assertEquals(0, countNonNullRow(pieces, 5), "Linha 5 deve estar vazia");
+        assertEquals(8, countNonNullRow(pieces, 6), "Linha 6 deve ter 8 peças (peões)");
+        assertEquals(8, countNonNullRow(pieces, 7), "Linha 7 deve ter 8 peças");
+    }
+
+    @Test
+    public void performChessMove_shouldMovePawn_e2_to_e4_andReturnNullWhenNoCapture() {
+        ChessPosition source = new ChessPosition('e', 2);
+        ChessPosition target = new ChessPosition('e', 4);
+
+        ChessPiece captured = match.performChessMove(source, target);
+
+        assertNull(captured, "movimento sem captura deve retornar null");
+    }
+
+    @Test
+    public void performChessMove_shouldThrowException_whenSourceIsEmpty() {
+        ChessPosition source = new ChessPosition('e', 3); // casa vazia no posicionamento inicial
+        ChessPosition target = new ChessPosition('e', 4);
+
+        ChessException ex = assertThrows(ChessException.class, () -> match.performChessMove(source, target));
+
+        assertEquals("There is no piece on source position", ex.getMessage());
+    }
+
+    @Test
+    public void performChessMove_shouldThrowException_whenSourceIsOpponentPiece() {
+        ChessPosition source = new ChessPosition('e', 7); // peça preta
+        ChessPosition target = new ChessPosition('e', 5);
+
+        assertThrows(ChessException.class, () -> match.performChessMove(source, target));
+    }
+
+    @Test
+    public void performChessMove_shouldThrowException_whenTargetIsInvalid() {
+        ChessPosition source = new ChessPosition('e', 2);
+        ChessPosition target = new ChessPosition('e', 5); // movimento inválido para peão
+
+        assertThrows(ChessException.class, () -> match.performChessMove(source, target));
+    }
+
+    @Test
+    public void performChessMove_shouldCapturePawn_whenWhiteCapturesBlackPawn() {
+        // e2 to e4
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+        // d7 to d5
+        match.performChessMove(new ChessPosition('d', 7), new ChessPosition('d', 5));
+        // e4 captures d5
+        ChessPiece captured = match.performChessMove(new ChessPosition('e', 4), new ChessPosition('d', 5));
+
+        assertNotNull(captured, "captura de peão negro por peão branco deve retornar peça capturada");
+    }
+
+    @Test
+    public void possibleMoves_knight_b1_returnsExpectedMoves() {
+        boolean[][] moves = match.possibleMoves(new ChessPosition('b', 1));
+        // coordenadas em notação xadrez -> índices da matriz: rowIndex = 8 - rank, colIndex = file - 'a'
+        int a3Row = 8 - 3; // 5
+        int a3Col = 'a' - 'a'; // 0
+        int c3Row = 8 - 3; // 5
+        int c3Col = 'c' - 'a'; // 2
+        assertTrue(moves[a3Row][a3Col], "cavalo em b1 deve poder ir para a3");
+        assertTrue(moves[c3Row][c3Col], "cavalo em b1 deve poder ir para c3");
+        // a1 -> rank 1 -> row 7, coluna 'a' -> 0
+        assertFalse(moves[8 - 1][0], "posição a1 não deve ser marcada como movimento possível");
+    }
+
+    @Test
+    public void performChessMove_shouldAdvanceTurn_andUpdateBoard() {
+        // e2 -> e4
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+
+        // turno e jogador
+        assertEquals(2, match.getTurn(), "turn deve incrementar depois do movimento");
+        assertEquals(core.chess.enums.Color.BLACK, match.getCurrentPlayer(), "deve ser a vez do preto");
+
+        // verificar getPieces() atualizada (índices: row = 8 - rank, col = file - 'a')
+        ChessPiece[][] pieces = match.getPieces();
+        int srcRow = 8 - 2; // 6
+        int srcCol = 'e' - 'a'; // 4
+        int tgtRow = 8 - 4; // 4
+        int tgtCol = 'e' - 'a'; // 4
+
+        assertNull(pieces[srcRow][srcCol], "casa origem deve ficar vazia após mover");
+        assertNotNull(pieces[tgtRow][tgtCol], "casa destino deve conter a peça movida");
+    }
+
+    @Test
+    public void possibleMoves_shouldThrow_whenSourceHasNoPiece() {
+        // casa vazia no setup inicial: e3
+        assertThrows(ChessException.class, () -> match.possibleMoves(new ChessPosition('e', 3)));
+    }
+
+    @Test
+    public void performChessMove_shouldThrow_whenMoveLeavesKingInCheck() {
+        // montar sequência que faz com que um movimento deixe o próprio rei em cheque
+        // ex: transformar configuração com movimentos prévios ou posicionar peças via movimentos válidos
+        // TODO: preencher a sequência concreta de movimentos que produz o cenário
+
+        ChessPosition source = new ChessPosition('e', 1); // exemplo: rei branco
+        ChessPosition target = new ChessPosition('e', 2); // exemplo: movimento que resultaria em cheque
+
+        assertThrows(ChessException.class, () -> match.performChessMove(source, target));
+    }
+
+    @Test
+    public void performChessMove_shouldCastleKingside_andUpdatePositionsAndMoveCounts() {
+        // prepare space for kingside castling (white)
+        match.performChessMove(new ChessPosition('g', 2), new ChessPosition('g', 3)); // white: free g2 to allow bishop to move
+        match.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 6)); // black dummy
+
+        match.performChessMove(new ChessPosition('g', 1), new ChessPosition('f', 3)); // white: free g1 (knight)
+        match.performChessMove(new ChessPosition('a', 6), new ChessPosition('a', 5)); // black dummy
+
+        match.performChessMove(new ChessPosition('f', 1), new ChessPosition('g', 2)); // white: move bishop from f1 to g2, freeing f1
+        match.performChessMove(new ChessPosition('a', 5), new ChessPosition('a', 4)); // black dummy
+
+        // perform kingside castling: king from e1 to g1
+        match.performChessMove(new ChessPosition('e', 1), new ChessPosition('g', 1)); // white
+
+        ChessPiece[][] pieces = match.getPieces();
+        int kingRow = 8 - 1; // 7
+        int kingCol = 'g' - 'a'; // 6
+        int rookRow = 8 - 1; // 7
+        int rookCol = 'f' - 'a'; // 5
+        int srcKingRow = 8 - 1; // 7
+        int srcKingCol = 'e' - 'a'; // 4
+
+        // king and rook repositioned
+        assertNotNull(pieces[kingRow][kingCol], "king should be on g1 after castling");
+        assertTrue(pieces[rookRow][rookCol] instanceof core.chess.pieces.Rook, "rook should be on f1 after castling");
+        assertNull(pieces[srcKingRow][srcKingCol], "e1 should be empty after castling");
+
+        // move counts updated (should be 1 for king and rook that moved)
+        ChessPiece king = (ChessPiece) pieces[kingRow][kingCol];
+        ChessPiece rook = (ChessPiece) pieces[rookRow][rookCol];
+        assertEquals(1, king.getMoveCount(), "king moveCount should be 1 after castling");
+        assertEquals(1, rook.getMoveCount(), "rook moveCount should be 1 after castling");
+    }
+
+    @Test
+    public void performChessMove_shouldCastleQueenside_andUpdatePositionsAndMoveCounts() {
+        // prepare space for queenside castling (white)
+        match.performChessMove(new ChessPosition('b', 2), new ChessPosition('b', 4)); // white
+        match.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 6)); // black dummy
+
+        match.performChessMove(new ChessPosition('c', 2), new ChessPosition('c', 4)); // white
+        match.performChessMove(new ChessPosition('h', 7), new ChessPosition('h', 6)); // black dummy
+
+        match.performChessMove(new ChessPosition('d', 2), new ChessPosition('d', 4)); // white
+        match.performChessMove(new ChessPosition('a', 6), new ChessPosition('a', 5)); // black dummy
+
+        match.performChessMove(new ChessPosition('b', 1), new ChessPosition('a', 3)); // white
+        match.performChessMove(new ChessPosition('h', 6), new ChessPosition('h', 5)); // black dummy
+
+        match.performChessMove(new ChessPosition('c', 1), new ChessPosition('b', 2)); // white
+        match.performChessMove(new ChessPosition('g', 7), new ChessPosition('g', 6)); // black dummy
+
+        match.performChessMove(new ChessPosition('d', 1), new ChessPosition('d', 2)); // white
+        match.performChessMove(new ChessPosition('g', 6), new ChessPosition('g', 5)); // black dummy
+
+        // perform queenside castling: king from e1 to c1
+        match.performChessMove(new ChessPosition('e', 1), new ChessPosition('c', 1)); // white
+
+        ChessPiece[][] pieces = match.getPieces();
+        int kingRow = 8 - 1; // 7
+        int kingCol = 'c' - 'a'; // 2
+        int rookRow = 8 - 1; // 7
+        int rookCol = 'd' - 'a'; // 3
+        int srcKingCol = 'e' - 'a'; // 4
+
+        // king and rook repositioned
+        assertNotNull(pieces[kingRow][kingCol], "king should be on c1 after queenside castling");
+        assertTrue(pieces[rookRow][rookCol] instanceof core.chess.pieces.Rook, "rook should be on d1 after queenside castling");
+        assertNull(pieces[kingRow][srcKingCol], "e1 should be empty after queenside castling");
+
+        // move counts updated (should be 1 for king and rook that moved)
+        ChessPiece king = (ChessPiece) pieces[kingRow][kingCol];
+        ChessPiece rook = (ChessPiece) pieces[rookRow][rookCol];
+        assertEquals(1, king.getMoveCount(), "king moveCount should be 1 after queenside castling");
+        assertEquals(1, rook.getMoveCount(), "rook moveCount should be 1 after queenside castling");
+    }
+
+    @Test
+    public void enPassant_shouldSetVulnerability_whenPawnAdvancesTwoSquares() {
+        // prepare: white pawn e2 -> e4 (two-square advance)
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+
+        // the pawn on e4 must be the enPassantVulnerable piece
+        ChessPiece[][] pieces = match.getPieces();
+        int row = 8 - 4; // 4
+        int col = 'e' - 'a'; // 4
+        ChessPiece pawnOnE4 = pieces[row][col];
+
+        assertNotNull(match.getEnPassantVulnerable(), "enPassantVulnerable should not be null after two-square pawn move");
+        assertSame(pawnOnE4, match.getEnPassantVulnerable(), "enPassantVulnerable must reference the pawn that moved two squares");
+    }
+
+    @Test
+    public void enPassant_capture_shouldRemoveCapturedPawn_andUpdateBoard() {
+        // set up: white pawn to e5 (two moves) so it can capture en passant
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4)); // white
+        match.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 6)); // black dummy
+        match.performChessMove(new ChessPosition('e', 4), new ChessPosition('e', 5)); // white pawn now on e5
+
+        // black moves pawn two squares from d7 to d5 -> this pawn becomes enPassantVulnerable
+        match.performChessMove(new ChessPosition('d', 7), new ChessPosition('d', 5)); // black
+
+        // white performs en passant capture: pawn e5 -> d6 (should capture the pawn that was on d5)
+        ChessPiece captured = match.performChessMove(new ChessPosition('e', 5), new ChessPosition('d', 6));
+
+        // captured piece must be a black pawn
+        assertNotNull(captured, "en passant capture must return the captured piece");
+        assertTrue(captured instanceof core.chess.pieces.Pawn, "captured piece must be a Pawn");
+        assertEquals(core.chess.enums.Color.BLACK, captured.getColor(), "captured pawn must be black");
+
+        // board: square d5 (where the captured pawn was) must be empty
+        ChessPiece[][] pieces = match.getPieces();
+        int d5Row = 8 - 5; // 3
+        int d5Col = 'd' - 'a'; // 3
+        assertNull(pieces[d5Row][d5Col], "square d5 should be empty after en passant capture");
+
+        // the capturing white pawn must be on d6
+        int d6Row = 8 - 6; // 2
+        int d6Col = 'd' - 'a'; // 3
+        assertNotNull(pieces[d6Row][d6Col], "capturing pawn must be on d6 after en passant");
+        assertTrue(pieces[d6Row][d6Col] instanceof core.chess.pieces.Pawn, "piece on d6 must be a Pawn");
+        assertEquals(core.chess.enums.Color.WHITE, pieces[d6Row][d6Col].getColor(), "piece on d6 must be white");
+
+        // enPassant vulnerability must be cleared after the capture
+        assertNull(match.getEnPassantVulnerable(), "enPassantVulnerable must be null after en passant capture");
+    }
+
+    @Test
+    public void promotion_shouldSetPromoted_andReplacePromotedPieceForAllTypes() throws Exception {
+        // obter board e piecesOnTheBoard via reflexão
+        java.lang.reflect.Field boardField = ChessMatch.class.getDeclaredField("board");
+        boardField.setAccessible(true);
+        ChessBoard board = (ChessBoard) boardField.get(match);
+
+        java.lang.reflect.Field piecesField = ChessMatch.class.getDeclaredField("piecesOnTheBoard");
+        piecesField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        java.util.List<core.board.Piece> piecesOnTheBoard = (java.util.List<core.board.Piece>) piecesField.get(match);
+
+        // limpar a8 (destino da promoção) e a7 (origem que vamos usar)
+        core.board.Position a8 = new ChessPosition('a', 8).toPosition();
+        core.board.Piece removedA8 = board.removePiece(a8);
+        if (removedA8 != null) piecesOnTheBoard.remove(removedA8);
+
+        core.board.Position a7 = new ChessPosition('a', 7).toPosition();
+        core.board.Piece removedA7 = board.removePiece(a7);
+        if (removedA7 != null) piecesOnTheBoard.remove(removedA7);
+
+        // colocar um peão branco em a7
+        core.chess.pieces.Pawn pawn = new core.chess.pieces.Pawn(board, core.chess.enums.Color.WHITE);
+        board.placePiece(pawn, a7);
+        piecesOnTheBoard.add(pawn);
+
+        // executar movimento de promoção: a7 -> a8
+        core.chess.ChessPiece captured = match.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 8));
+        assertNull(captured, "movimento de promoção não deve capturar (no cenário preparado)");
+
+        // após o performChessMove a implementação já substitui por Queen por padrão
+        core.chess.ChessPiece promoted = match.getPromoted();
+        assertNotNull(promoted, "promoted deve ser setado após o peão chegar na última linha");
+        assertTrue(promoted instanceof core.chess.pieces.Queen, "por padrão a promoção é substituída por Queen");
+
+        // verificar que no tabuleiro há uma Queen em a8
+        core.board.Piece pieceOnA8 = board.piece(a8);
+        assertTrue(pieceOnA8 instanceof core.chess.pieces.Queen, "deve haver uma Queen em a8 após promoção padrão");
+
+        // agora testar replacePromotedPiece para todos os tipos válidos
+        core.chess.ChessPiece replaced;
+
+        replaced = match.replacePromotedPiece("B");
+        assertTrue(replaced instanceof core.chess.pieces.Bishop, "replacePromotedPiece('B') deve criar um Bishop");
+        assertTrue(board.piece(a8) instanceof core.chess.pieces.Bishop, "board deve conter Bishop em a8 após substituição");
+
+        replaced = match.replacePromotedPiece("N");
+        assertTrue(replaced instanceof core.chess.pieces.Knight, "replacePromotedPiece('N') deve criar um Knight");
+        assertTrue(board.piece(a8) instanceof core.chess.pieces.Knight, "board deve conter Knight em a8 após substituição");
+
+        replaced = match.replacePromotedPiece("R");
+        assertTrue(replaced instanceof core.chess.pieces.Rook, "replacePromotedPiece('R') deve criar um Rook");
+        assertTrue(board.piece(a8) instanceof core.chess.pieces.Rook, "board deve conter Rook em a8 após substituição");
+
+        replaced = match.replacePromotedPiece("Q");
+        assertTrue(replaced instanceof core.chess.pieces.Queen, "replacePromotedPiece('Q') deve criar uma Queen");
+        assertTrue(board.piece(a8) instanceof core.chess.pieces.Queen, "board deve conter Queen em a8 após substituição");
+    }
+
+    @Test
+    void performChessMove_withPromotionPiece_publishesOnlyTheChosenPiece() {
+        ChessMatch game = Fen.parse("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        long version = game.getView().getVersion();
+
+        assertThrows(ChessException.class,
+                () -> game.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 8), "K"));
+        game.performChessMove(new ChessPosition('a', 7), new ChessPosition('a', 8), "n");
+
+        assertEquals(version + 1, game.getView().getVersion(), "uma única publicação, sem a dama provisória");
+        assertEquals(PieceType.KNIGHT, game.getView().pieceAt(0).getType());
+        assertEquals(PieceType.KNIGHT, game.getPromoted().getType());
+        assertEquals("N3k3/8/8/8/8/8/8/4K3 b - - 0 1", game.getView().getFen());
+    }
+
+    @Test
+    void retractMove_undoesTheMoveWithoutOfferingItForRedo() {
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+        match.performChessMove(new ChessPosition('e', 7), new ChessPosition('e', 5));
+        match.takeback();
+
+        match.retractMove();
+        assertEquals(Fen.INITIAL, match.getView().getFen());
+        assertFalse(match.canRedo(), "nem o lance retirado nem o voltado antes dele ficam para redo");
+        assertThrows(ChessException.class, match::redo);
+    }
+
+
+    @Test
+    public void attackedSquares_initialSetup_coversThirdRankOnly() {
+        long whiteAttacks = match.attackedSquares(core.chess.enums.Color.WHITE);
+        long thirdRank = 0xFFL << (8 * (8 - 3)); // row 5
+        long ownRanks = 0xFFFFL << 48; // rows 6 e 7
+        assertEquals(thirdRank, whiteAttacks & ~ownRanks,
+                "brancas devem atacar toda a terceira fileira e nada além do próprio campo");
+        assertFalse(match.isInCheck(core.chess.enums.Color.WHITE));
+    }
+
+    @Test
+    public void performChessMove_foolsMate_setsCheckMate() {
+        match.performChessMove(new ChessPosition('f', 2), new ChessPosition('f', 3));
+        match.performChessMove(new ChessPosition('e', 7), new ChessPosition('e', 5));
+        match.performChessMove(new ChessPosition('g', 2), new ChessPosition('g', 4));
+        match.performChessMove(new ChessPosition('d', 8), new ChessPosition('h', 4));
+
+        assertTrue(match.isCheck(), "o rei branco deve estar em xeque");
+        assertTrue(match.isCheckMate(), "Dh4 deve ser xeque-mate");
+        assertTrue(match.isInCheck(core.chess.enums.Color.WHITE));
+    }
+
+    @Test
+    public void getState_detectsStalemateAndMaterialAndFiftyMoveDraws() {
+        ChessMatch stalemate = Fen.parse("k7/8/8/8/8/8/8/6QK w - - 0 1");
+        assertEquals(GameState.ONGOING, stalemate.getState());
+        stalemate.performChessMove(new ChessPosition('g', 1), new ChessPosition('b', 6));
+        assertEquals(GameState.STALEMATE, stalemate.getState());
+        assertTrue(stalemate.isGameOver());
+        assertFalse(stalemate.isCheckMate());
+        assertThrows(ChessException.class,
+                () -> stalemate.performChessMove(new ChessPosition('a', 8), new ChessPosition('a', 7)));
+
+        ChessMatch material = Fen.parse("k7/8/8/8/8/8/1r6/2B4K w - - 0 1");
+        material.performChessMove(new ChessPosition('c', 1), new ChessPosition('b', 2));
+        assertEquals(GameState.INSUFFICIENT_MATERIAL, material.getState());
+        assertEquals(GameState.INSUFFICIENT_MATERIAL, Fen.parse("k7/8/8/8/8/8/1b6/2B4K w - - 0 1").getState());
+        assertEquals(GameState.ONGOING, Fen.parse("k7/8/8/8/8/8/2b5/2B4K w - - 0 1").getState());
+
+        ChessMatch fifty = Fen.parse("k7/8/8/8/8/8/1R6/7K w - - 99 80");
+        assertEquals(GameState.ONGOING, fifty.getState());
+        fifty.performChessMove(new ChessPosition('h', 1), new ChessPosition('g', 1));
+        assertEquals(GameState.FIFTY_MOVE_RULE, fifty.getState());
+        assertTrue(fifty.getState().isDraw());
+    }
+
+    @Test
+    public void getState_detectsThreefoldRepetition_andFollowsMakeUnmake() {
+        String[] shuffle = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < shuffle.length; i += 2) {
+                assertEquals(GameState.ONGOING, match.getState());
+                match.performChessMove(position(shuffle[i]), position(shuffle[i + 1]));
+            }
+        }
+        assertEquals(GameState.THREEFOLD_REPETITION, match.getState());
+
+        ChessMatch position = Fen.parse("k7/8/8/8/8/8/8/6QK w - - 0 1");
+        int[] moves = new int[256];
+        int n = position.legalMoves(moves);
+        for (int i = 0; i < n; i++) {
+            position.makeMove(moves[i]);
+            boolean stalemate = Move.to(moves[i]) == 17 && Move.from(moves[i]) == 62;
+            assertEquals(stalemate, position.getState() == GameState.STALEMATE, Fen.toFen(position));
+            position.unmakeMove();
+            assertEquals(GameState.ONGOING, position.getState());
+        }
+    }
+
+    @Test
+    public void getView_readersSeeOnlyCompletePositionsWhileMovesArePlayed() throws Exception {
+        java.util.concurrent.atomic.AtomicBoolean done = new java.util.concurrent.atomic.AtomicBoolean();
+        java.util.concurrent.atomic.AtomicReference<String> failure = new java.util.concurrent.atomic.AtomicReference<>();
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                long last = 0;
+                while (!done.get() && failure.get() == null) {
+                    MatchView view = match.getView();
+                    if (view.getVersion() < last) {
+                        failure.set("versão voltou de " + last + " para " + view.getVersion());
+                    }
+                    last = view.getVersion();
+                    PositionSnapshot snapshot = view.getSnapshot();
+                    for (int sq = 0; sq < 64; sq++) {
+                        ChessPiece piece = view.pieceAt(sq);
+                        long expected = piece == null ? 0 : snapshot.getBitboard(piece.getType(), piece.getColor());
+                        if (piece != null && (expected & 1L << sq) == 0) {
+                            failure.set("peça fora do bitboard na versão " + last);
+                        }
+                    }
+                    int kings = Long.bitCount(snapshot.getBitboard(core.chess.enums.PieceType.KING, core.chess.enums.Color.WHITE))
+                            + Long.bitCount(snapshot.getBitboard(core.chess.enums.PieceType.KING, core.chess.enums.Color.BLACK));
+                    if (kings != 2) {
+                        failure.set("posição incompleta na versão " + last);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+
+        java.util.SplittableRandom random = new java.util.SplittableRandom(19);
+        int[] moves = new int[256];
+        long version = match.getView().getVersion();
+        for (int ply = 0; ply < 150 && !match.isGameOver(); ply++) {
+            int n = match.legalMoves(moves);
+            int move = moves[random.nextInt(n)];
+            int from = Move.from(move);
+            int to = Move.to(move);
+            match.performChessMove(new ChessPosition((char) ('a' + (from & 7)), 8 - (from >>> 3)),
+                    new ChessPosition((char) ('a' + (to & 7)), 8 - (to >>> 3)));
+            assertEquals(++version, match.getView().getVersion());
+            assertEquals(Fen.toFen(match), match.getView().getFen());
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get(), failure.get());
+    }
+
+    @Test
+    public void takebackAndRedo_restoreEveryPositionAndMatchState() throws Exception {
+        java.lang.reflect.Field piecesField = ChessMatch.class.getDeclaredField("piecesOnTheBoard");
+        piecesField.setAccessible(true);
+        String[] starts = {Fen.INITIAL, "r3k3/1P6/8/8/8/8/6p1/4K2R w Kq - 0 1"};
+        String[] promotions = {"Q", "R", "B", "N"};
+        java.util.SplittableRandom random = new java.util.SplittableRandom(20);
+        int[] moves = new int[256];
+        for (String start : starts) {
+            ChessMatch game = Fen.parse(start);
+            java.util.List<String> states = new java.util.ArrayList<>();
+            states.add(describe(game));
+            for (int ply = 0; ply < 80 && !game.isGameOver(); ply++) {
+                int move = moves[random.nextInt(game.legalMoves(moves))];
+                int from = Move.from(move);
+                int to = Move.to(move);
+                game.performChessMove(new ChessPosition((char) ('a' + (from & 7)), 8 - (from >>> 3)),
+                        new ChessPosition((char) ('a' + (to & 7)), 8 - (to >>> 3)));
+                if (game.getPromoted() != null) {
+                    game.replacePromotedPiece(promotions[random.nextInt(4)]);
+                }
+                states.add(describe(game));
+                assertEquals(Long.bitCount(occupied(game)), ((java.util.List<?>) piecesField.get(game)).size());
+            }
+            for (int i = states.size() - 2; i >= 0; i--) {
+                game.takeback();
+                assertEquals(states.get(i), describe(game));
+                assertEquals(Long.bitCount(occupied(game)), ((java.util.List<?>) piecesField.get(game)).size());
+            }
+            assertThrows(ChessException.class, game::takeback);
+            for (int i = 1; i < states.size(); i++) {
+                game.redo();
+                assertEquals(states.get(i), describe(game));
+            }
+            assertFalse(game.canRedo());
+            assertEquals(states.size() - 1, game.getMoveHistory().length);
+        }
+
+        match.performChessMove(new ChessPosition('f', 2), new ChessPosition('f', 3));
+        match.performChessMove(new ChessPosition('e', 7), new ChessPosition('e', 5));
+        match.performChessMove(new ChessPosition('g', 2), new ChessPosition('g', 4));
+        match.performChessMove(new ChessPosition('d', 8), new ChessPosition('h', 4));
+        match.takeback();
+        assertFalse(match.isCheckMate());
+        assertEquals(core.chess.enums.Color.BLACK, match.getCurrentPlayer());
+        match.redo();
+        assertTrue(match.isCheckMate());
+        assertEquals(GameState.CHECKMATE, match.getState());
+        assertThrows(ChessException.class, match::redo);
+    }
+
+    @Test
+    void playMoves_matchesPlayingOneMoveAtATime() {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(21);
+        int[] buffer = new int[256];
+        for (String start : new String[]{Fen.INITIAL, "r3k3/1P6/8/8/8/8/6p1/4K2R w Kq - 0 1"}) {
+            ChessMatch single = Fen.parse(start);
+            java.util.List<String> states = new java.util.ArrayList<>();
+            int[] moves = new int[120];
+            int count = 0;
+            while (count < moves.length && !single.isGameOver()) {
+                int move = buffer[random.nextInt(single.legalMoves(buffer))];
+                single.playMove(move);
+                moves[count++] = move;
+                states.add(describe(single));
+            }
+
+            ChessMatch batch = Fen.parse(start);
+            long version = batch.getView().getVersion();
+            batch.playMoves(moves, count);
+            assertEquals(version + 1, batch.getView().getVersion(), "uma única publicação");
+            assertEquals(states.get(count - 1), describe(batch));
+            for (int i = count - 2; i >= 0; i--) {
+                batch.takeback();
+                assertEquals(states.get(i), describe(batch));
+            }
+        }
+
+        // as posições intermediárias entram no histórico: a repetição é reconhecida no fim do lote
+        ChessMatch shuffle = new ChessMatch();
+        int[] knights = new int[8];
+        String[] squares = {"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int i = 0; i < squares.length; i++) {
+            int from = (8 - (squares[i].charAt(1) - '0')) * 8 + squares[i].charAt(0) - 'a';
+            int to = (8 - (squares[i].charAt(3) - '0')) * 8 + squares[i].charAt(2) - 'a';
+            knights[i] = Move.of(from, to, Move.QUIET);
+        }
+        shuffle.playMoves(knights, knights.length);
+        assertEquals(GameState.THREEFOLD_REPETITION, shuffle.getState());
+    }
+
+    private static String describe(ChessMatch game) {
+        ChessPiece vulnerable = game.getEnPassantVulnerable();
+        ChessPiece promoted = game.getPromoted();
+        return Fen.toFen(game) + " " + game.getTurn() + " " + game.getCurrentPlayer() + " " + game.isCheck()
+                + " " + game.isCheckMate() + " " + game.getState() + " " + game.getZobristKey()
+                + " " + (vulnerable == null ? "-" : vulnerable.square())
+                + " " + (promoted == null ? "-" : promoted.getType() + "@" + promoted.square())
+                + " " + game.getView().getFen();
+    }
+
+    private static long occupied(ChessMatch game) {
+        long occupied = 0;
+        for (core.chess.enums.Color color : core.chess.enums.Color.values()) {
+            for (core.chess.enums.PieceType type : core.chess.enums.PieceType.values()) {
+                occupied |= game.getBitboard(type, color);
+            }
+        }
+        return occupied;
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(0), square.charAt(1) - '0');
+    }
+
+    @Test
+    public void legalMoves_initialSetup_returnsTwentyPackedMoves() {
+        int[] moves = new int[256 + 10];
+        int n = match.legalMoves(moves, 10);
+
+        assertEquals(20, n, "há 20 lances legais na posição inicial");
+        for (int i = 10; i < 10 + n; i++) {
+            assertFalse(Move.isCapture(moves[i]), "nenhum lance inicial é captura");
+        }
+    }
+
+    @Test
+    public void legalMovesAndMakeUnmake_doNotAllocateOnceWarm() {
+        ThreadMXBean threads = allocationCounter();
+        ChessMatch position = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int[] moves = new int[256];
+
+        for (int i = 0; i < 2_000; i++) {
+            walk(position, moves);
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1_000; i++) {
+            walk(position, moves);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, "geração e make/unmake não devem alocar, mas alocaram " + allocated + " bytes");
+    }
+
+    @Test
+    // sozinho mesmo com execução paralela: outros testes alocando mudariam o heap medido
+    @ResourceLock(value = Resources.GLOBAL, mode = ResourceAccessMode.READ_WRITE)
+    public void residentMatch_retainsLessThanFourKilobytes() {
+        assumeTrue(explicitGcCollectsEverything(), "System.gc() não faz uma coleta completa nesta JVM");
+        ChessMatch[] matches = new ChessMatch[20_000];
+        playOpening(new ChessMatch());
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = playOpening(new ChessMatch());
+        }
+        long perMatch = (usedHeapAfterGc() - before) / matches.length;
+
+        // peças de 24 bytes, casas compartilhadas entre tabuleiros e estado de cada lance empacotado em um long
+        assertTrue(perMatch < 4 * 1024, "cada partida com dois lances retém " + perMatch + " bytes");
+        assertEquals(Color.WHITE, matches[matches.length - 1].getCurrentPlayer());
+    }
+
+    @Test
+    public void takebackAndRedo_allocationDoesNotGrowWithGameLength() {
+        ThreadMXBean threads = allocationCounter();
+
+        long shortGame = takebackRedoAllocation(threads, 40);
+        long longGame = takebackRedoAllocation(threads, 4_000);
+
+        // copiar o histórico de chaves a cada lance custaria 32 KB por ciclo na partida longa
+        assertTrue(longGame < shortGame + 64 * 1024,
+                "voltar e refazer alocou " + shortGame + " bytes com 40 lances e " + longGame + " com 4000");
+    }
+
+    private static ChessMatch playOpening(ChessMatch game) {
+        game.performChessMove(position("e2"), position("e4"));
+        game.performChessMove(position("e7"), position("e5"));
+        return game;
+    }
+
+    /**
+     * Se {@link System#gc()} faz uma coleta completa e parada: não vale com a chamada desativada, convertida em
+     * ciclo concorrente ou com coletores concorrentes (ZGC, Shenandoah), em que o heap medido ainda muda.
+     */
+    private static boolean explicitGcCollectsEverything() {
+        HotSpotDiagnosticMXBean hotspot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        if (hotspot == null) {
+            return false;
+        }
+        for (String option : new String[]{"DisableExplicitGC", "ExplicitGCInvokesConcurrent", "UseZGC",
+                "UseShenandoahGC"}) {
+            try {
+                if (Boolean.parseBoolean(hotspot.getVMOption(option).getValue())) {
+                    return false;
+                }
+            } catch (IllegalArgumentException e) {
+                // opção que esta JVM não tem, como UseShenandoahGC fora das distribuições que o incluem
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Heap ocupado depois de coletas completas seguidas, até duas medições consecutivas coincidirem.
+     */
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now == used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static ThreadMXBean allocationCounter() {
+        var bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof ThreadMXBean, "medição de alocação por thread indisponível nesta JVM");
+        return (ThreadMXBean) bean;
+    }
+
+    private static long takebackRedoAllocation(ThreadMXBean threads, int plies) {
+        ChessMatch game = new ChessMatch();
+        String[] shuffle = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+        for (int i = 0; i < plies; i++) {
+            int step = i % 4 * 2;
+            game.performChessMove(position(shuffle[step]), position(shuffle[step + 1]));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            game.takeback();
+            game.redo();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1_000; i++) {
+            game.takeback();
+            game.redo();
+        }
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    @Test
+    public void zobristKey_matchesFullRecomputation_alongRandomWalks() {
+        ChessMatch position = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long initial = position.getZobristKey();
+        assertEquals(Zobrist.compute(position), initial);
+
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        int[] moves = new int[256];
+        for (int game = 0; game < 50; game++) {
+            int played = 0;
+            for (; played < 40; played++) {
+                int n = position.legalMoves(moves);
+                if (n == 0) break;
+                position.makeMove(moves[random.nextInt(n)]);
+                assertEquals(Zobrist.compute(position), position.getZobristKey());
+            }
+            for (; played > 0; played--) {
+                position.unmakeMove();
+            }
+            assertEquals(initial, position.getZobristKey());
+        }
+    }
+
+    @Test
+    public void zobristKey_transpositionsShareKey_andSideToMoveChangesIt() {
+        long initial = match.getZobristKey();
+        match.performChessMove(new ChessPosition('g', 1), new ChessPosition('f', 3));
+        assertNotEquals(initial, match.getZobristKey());
+        assertEquals(Zobrist.compute(match), match.getZobristKey());
+        match.performChessMove(new ChessPosition('g', 8), new ChessPosition('f', 6));
+        match.performChessMove(new ChessPosition('f', 3), new ChessPosition('g', 1));
+        match.performChessMove(new ChessPosition('f', 6), new ChessPosition('g', 8));
+
+        assertEquals(initial, match.getZobristKey());
+        assertEquals(initial, Fen.parse(Fen.INITIAL).getZobristKey());
+    }
+
+    @Test
+    public void legalMoves_matchPseudoLegalMovesThatKeepTheKingSafe() {
+        // cravadas, xeque duplo e en passant que descobre xeque na fileira
+        String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "4k3/8/8/K2pP2q/8/8/8/8 w - d6 0 1",
+                "4k3/8/8/8/1b6/8/3N4/r3K3 w - - 0 1"
+        };
+        java.util.SplittableRandom random = new java.util.SplittableRandom(16);
+        int[] moves = new int[256];
+        int[] pseudo = new int[256];
+        for (String fen : fens) {
+            ChessMatch position = Fen.parse(fen);
+            for (int game = 0; game < 20; game++) {
+                int played = 0;
+                for (; played < 30; played++) {
+                    int n = position.legalMoves(moves);
+                    java.util.Set<Integer> expected = new java.util.HashSet<>();
+                    int p = position.pseudoLegalMoves(pseudo, 0);
+                    for (int i = 0; i < p; i++) {
+                        core.chess.enums.Color mover = position.getCurrentPlayer();
+                        position.makeMove(pseudo[i]);
+                        if (!position.isInCheck(mover)) {
+                            expected.add(pseudo[i]);
+                        }
+                        position.unmakeMove();
+                        assertEquals(expected.contains(pseudo[i]), position.isLegal(pseudo[i]), Fen.toFen(position));
+                    }
+                    java.util.Set<Integer> actual = new java.util.HashSet<>();
+                    for (int i = 0; i < n; i++) {
+                        actual.add(moves[i]);
+                    }
+                    assertEquals(expected, actual, Fen.toFen(position));
+                    if (n == 0) break;
+                    position.makeMove(moves[random.nextInt(n)]);
+                }
+                for (; played > 0; played--) {
+                    position.unmakeMove();
+                }
+            }
+        }
+    }
+
+    private void walk(ChessMatch position, int[] moves) {
+        int n = position.legalMoves(moves);
+        for (int i = 0; i < n; i++) {
+            position.makeMove(moves[i]);
+            position.unmakeMove();
+        }
+    }
+
+    private int countNonNullRow(ChessPiece[][] pieces, int row) {
+        int count = 0;
+        for (int c = 0; c < 8; c++) {
+            if (pieces[row][c] != null) count++;
+        }
+        return count;
+    }
+
+    @Test
+    void sideToMove_isTheMatedSide_andEnPassantFileNeedsAnAdjacentPawn() {
+        for (String move : new String[]{"f2f3", "e7e5", "g2g4", "d8h4"}) {
+            match.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+        assertTrue(match.isCheckMate());
+        assertEquals(Color.BLACK, match.getCurrentPlayer());
+        assertEquals(Color.WHITE, match.sideToMove());
+
+        assertEquals(3, Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2").enPassantCaptureFile());
+        assertEquals(-1, Fen.parse("4k3/8/8/3p3P/8/8/8/4K3 w - d6 0 2").enPassantCaptureFile());
+        assertEquals(-1, Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - - 0 2").enPassantCaptureFile());
+    }
+}
@@ -0,0 +1,67 @@
+package core.chess;
+
+import core.chess.enums.Color;
+import core.chess.exceptions.ChessException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenTest {
+
+    @Test
+    void parseAndWrite_roundTripReferencePositions() {
+        String[] positions = {
+                Fen.INITIAL,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+                "4k3/8/8/8/8/8/8/4K2R b K - 37 61"
+        };
+        for (String fen : positions) {
+            assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+        }
+    }
+
+    @Test
+    void parse_mapsCountersOntoTurnAndHalfmoveClock() {
+        ChessMatch match = Fen.parse("4k3/8/8/8/8/8/8/4K2R b K - 37 61");
+
+        assertEquals(Color.BLACK, match.getCurrentPlayer());
+        assertEquals(2 * 60 + 2, match.getTurn());
+        assertEquals(37, match.getHalfmoveClock());
+    }
+
+    @Test
+    void write_tracksPerformedMoves() {
+        ChessMatch match = new ChessMatch();
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(match));
+
+        match.performChessMove(new ChessPosition('g', 8), new ChessPosition('f', 6));
+        match.performChessMove(new ChessPosition('e', 1), new ChessPosition('e', 2));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", Fen.toFen(match));
+    }
+
+    @Test
+    void parse_acceptsMissingCountersAndExtraSpaces() {
+        assertEquals(Fen.INITIAL, Fen.toFen(Fen.parse("  rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR   w KQkq -  ")));
+    }
+
+    @Test
+    void parse_rejectsMalformedInput() {
+        assertThrows(ChessException.class, () -> Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"));
+        assertThrows(ChessException.class, () -> Fen.parse("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"));
+        assertThrows(ChessException.class, () -> Fen.parse("rnbqxbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"));
+        assertThrows(ChessException.class, () -> Fen.parse(Fen.INITIAL + " extra"));
+        assertThrows(ChessException.class, () -> Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1"));
+    }
+
+    @Test
+    void parse_rejectsPawnsOnTheBackRanks() {
+        assertThrows(ChessException.class, () -> Fen.parse("P3k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertThrows(ChessException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/p3K3 b - - 0 1"));
+        assertThrows(ChessException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/P3K3 w - - 0 1"));
+        assertThrows(ChessException.class, () -> Fen.parse("p3k3/8/8/8/8/8/8/4K3 b - - 0 1"));
+    }
+}
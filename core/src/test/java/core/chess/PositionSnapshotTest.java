@@ -0,0 +1,106 @@
+package core.chess;
+
+import core.chess.enums.GameState;
+import core.perft.Perft;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSnapshotTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    void toMatch_restoresTheSamePositionIndependentlyOfTheOrigin() {
+        ChessMatch match = Fen.parse(KIWIPETE);
+        PositionSnapshot snapshot = match.snapshot();
+
+        int[] moves = new int[256];
+        match.makeMove(moves[match.legalMoves(moves) - 1]);
+
+        ChessMatch fork = snapshot.toMatch();
+        assertEquals(KIWIPETE, Fen.toFen(fork));
+        assertEquals(snapshot.getZobristKey(), fork.getZobristKey());
+        assertEquals(Zobrist.compute(fork), fork.getZobristKey());
+        assertEquals(97862, new Perft().perft(fork, 3));
+
+        match.unmakeMove();
+        assertEquals(snapshot.getZobristKey(), match.getZobristKey());
+        assertEquals(KIWIPETE, Fen.toFen(snapshot.toMatch()));
+    }
+
+    @Test
+    void toMatch_keepsEnPassantAndCheckMate() {
+        ChessMatch match = Fen.parse("4k3/8/8/8/5p2/8/4P3/4K3 w - - 0 1");
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+        ChessMatch fork = match.snapshot().toMatch();
+        assertEquals(Fen.toFen(match), Fen.toFen(fork));
+        assertEquals(match.getZobristKey(), fork.getZobristKey());
+        fork.performChessMove(new ChessPosition('f', 4), new ChessPosition('e', 3));
+        assertEquals("4k3/8/8/8/8/4p3/8/4K3 w - - 0 2", Fen.toFen(fork));
+
+        ChessMatch mated = new ChessMatch();
+        mated.performChessMove(new ChessPosition('f', 2), new ChessPosition('f', 3));
+        mated.performChessMove(new ChessPosition('e', 7), new ChessPosition('e', 5));
+        mated.performChessMove(new ChessPosition('g', 2), new ChessPosition('g', 4));
+        mated.performChessMove(new ChessPosition('d', 8), new ChessPosition('h', 4));
+        ChessMatch restored = mated.snapshot().toMatch();
+        assertTrue(restored.isCheckMate());
+        assertEquals(GameState.CHECKMATE, restored.getState());
+        assertEquals(Fen.toFen(mated), Fen.toFen(restored));
+    }
+
+    @Test
+    void forks_shareTheRepetitionHistoryWithoutSeeingEachOthersMoves() {
+        ChessMatch match = new ChessMatch();
+        String[] shuffle = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+        play(match, shuffle, 4);
+        PositionSnapshot snapshot = match.snapshot();
+
+        // cada ramo repete a posição inicial pela terceira vez; o original segue por outro caminho
+        ChessMatch first = snapshot.toMatch();
+        ChessMatch second = snapshot.toMatch();
+        play(match, new String[]{"e2", "e4"}, 1);
+        play(first, shuffle, 4);
+        assertEquals(GameState.THREEFOLD_REPETITION, first.getState());
+        assertEquals(GameState.ONGOING, second.getState());
+        play(second, shuffle, 2);
+        assertEquals(GameState.ONGOING, second.getState());
+        play(second, new String[]{"f3", "g1", "f6", "g8"}, 2);
+        assertEquals(GameState.THREEFOLD_REPETITION, second.getState());
+        assertEquals(GameState.ONGOING, match.getState());
+    }
+
+    @Test
+    void snapshot_canBeForkedFromManyThreads() throws Exception {
+        PositionSnapshot snapshot = Fen.parse(KIWIPETE).snapshot();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> new Perft().perft(snapshot.toMatch(), 2)));
+            }
+            for (Future<Long> result : results) {
+                assertEquals(2039L, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void play(ChessMatch match, String[] squares, int moves) {
+        for (int i = 0; i < 2 * moves; i += 2) {
+            match.performChessMove(position(squares[i]), position(squares[i + 1]));
+        }
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(0), square.charAt(1) - '0');
+    }
+}
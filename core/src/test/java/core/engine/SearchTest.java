@@ -0,0 +1,131 @@
+package core.engine;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.Fen;
+import core.chess.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    @Test
+    void search_findsMateInOne() {
+        // Dd1-h5 mata após 1.f3 e5 2.g4
+        ChessMatch match = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq - 0 2");
+        SearchResult result = new Search(4).search(match, SearchLimits.depth(3));
+
+        assertEquals("d8h4", Move.toString(result.getBestMove()));
+        assertEquals(Search.MATE - 1, result.getScore());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    void search_findsMateInTwo_withRookLadder() {
+        ChessMatch match = Fen.parse("6k1/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+        SearchResult result = new Search(4).search(match, SearchLimits.depth(5));
+
+        assertEquals(Search.MATE - 3, result.getScore());
+    }
+
+    @Test
+    void search_winsHangingQueen() {
+        ChessMatch match = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search(4).search(match, SearchLimits.depth(4));
+
+        assertEquals("d2d5", Move.toString(result.getBestMove()));
+    }
+
+    @Test
+    void search_respectsNodeBudget_andRestoresPosition() {
+        ChessMatch match = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        long key = match.getZobristKey();
+        SearchResult result = new Search(4).search(match, SearchLimits.nodes(20_000));
+
+        assertTrue(result.getNodes() <= 20_000, "nós visitados: " + result.getNodes());
+        assertNotEquals(Move.NULL, result.getBestMove());
+        assertEquals(key, match.getZobristKey());
+        assertEquals(48, match.legalMoves(new int[256]));
+    }
+
+    @Test
+    void search_withoutLegalMoves_reportsMateOrStalemate() {
+        ChessMatch mated = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        ChessMatch stalemate = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        assertEquals(-Search.MATE, new Search(1).search(mated, SearchLimits.depth(3)).getScore());
+        assertEquals(0, new Search(1).search(stalemate, SearchLimits.depth(3)).getScore());
+        assertEquals(Move.NULL, new Search(1).search(stalemate, SearchLimits.depth(3)).getBestMove());
+    }
+
+    @Test
+    void search_drawsByRepeatingAPositionFromTheGame() {
+        ChessMatch match = Fen.parse("4k3/8/8/8/8/8/8/Q3K3 w - - 0 1");
+        for (String move : new String[]{"e1e2", "e8d8", "e2e1", "d8e8", "e1e2", "e8d8", "e2e1"}) {
+            match.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+
+        // perdida para as pretas, salvo pela volta a e8, que repete a posição inicial da partida
+        SearchResult result = new Search(4).search(match, SearchLimits.depth(4));
+        assertEquals("d8e8", Move.toString(result.getBestMove()));
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    void search_scoresTheFiftyMoveRuleAsADraw() {
+        // qualquer lance das brancas, sem mate em um, completa os cem meios-lances
+        ChessMatch match = Fen.parse("4k3/8/8/8/8/8/8/4KQ2 w - - 99 80");
+        assertEquals(0, new Search(4).search(match, SearchLimits.depth(4)).getScore());
+
+        // o mate no centésimo meio-lance vale mais que o empate
+        ChessMatch mate = Fen.parse("7k/8/6K1/8/8/8/8/5Q2 w - - 99 80");
+        assertEquals(Search.MATE - 1, new Search(4).search(mate, SearchLimits.depth(3)).getScore());
+    }
+
+    @Test
+    void parallelSearch_findsSameMate_andSumsHelperNodes() {
+        ChessMatch match = Fen.parse("6k1/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+        long key = match.getZobristKey();
+        try (ParallelSearch search = new ParallelSearch(4, 3)) {
+            SearchResult result = search.search(match, SearchLimits.depth(5), 8);
+
+            assertEquals(Search.MATE - 3, result.getScore());
+            assertTrue(result.getNodes() > 0);
+            assertEquals(key, match.getZobristKey());
+        }
+    }
+
+    @Test
+    void parallelSearch_splitsNodeBudgetAcrossThreads() {
+        ChessMatch match = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        try (ParallelSearch search = new ParallelSearch(4, 4)) {
+            SearchResult result = search.search(match, SearchLimits.nodes(40_000), 4);
+
+            assertTrue(result.getNodes() <= 40_000, "nós visitados: " + result.getNodes());
+            assertNotEquals(Move.NULL, result.getBestMove());
+        }
+    }
+
+    @Test
+    void transpositionTable_prefersDeeperEntries_untilNextSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABCL;
+        long other = key + (1L << 40); // mesmo índice, outra posição
+        table.newSearch();
+        table.store(key, 77, -150, 9, TranspositionTable.EXACT);
+        table.store(other, 88, 10, 3, TranspositionTable.LOWER);
+
+        long entry = table.probe(key);
+        assertEquals(77, TranspositionTable.move(entry));
+        assertEquals(-150, TranspositionTable.score(entry));
+        assertEquals(9, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(other));
+
+        table.newSearch();
+        table.store(other, 88, 10, 3, TranspositionTable.LOWER);
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(table.probe(other)));
+    }
+}
@@ -0,0 +1,93 @@
+package core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void buckets_coverEveryValueWithinOneSixteenth() {
+        for (long value = 0; value < 1L << 36; value = value * 3 / 2 + 1) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+            assertTrue(upper >= value, "limite " + upper + " abaixo de " + value);
+            assertTrue(upper - value <= value / 16, "limite " + upper + " longe de " + value);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.index(-5));
+    }
+
+    @Test
+    void percentiles_fromConcurrentWriters() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int writers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                results.add(pool.submit(() -> {
+                    // 1 a 1000 ns, 250 vezes cada por thread
+                    for (int i = 0; i < 250; i++) {
+                        for (int v = 1; v <= 1000; v++) {
+                            histogram.record(v);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long total = 0;
+        for (long count : histogram.counts()) {
+            total += count;
+        }
+        assertEquals(1_000_000, total);
+        assertEquals(500, histogram.percentile(0.5), 500 / 16.0);
+        assertEquals(990, histogram.percentile(0.99), 990 / 16.0);
+        assertEquals(999, histogram.percentile(0.999), 999 / 16.0);
+        histogram.reset();
+        assertEquals(0, histogram.percentile(0.5));
+    }
+
+    @Test
+    void metrics_arePublishedAsMXBeans() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        OperationMetrics move = new OperationMetrics("performChessMove");
+        move.record(100);
+        move.record(300);
+        move.recordSample(MoveMetrics.NOT_SAMPLED);
+        RejectionMetrics rejections = new RejectionMetrics();
+        rejections.record("The chosen piece is not yours");
+        rejections.record("The chosen piece is not yours");
+        rejections.record(null);
+        ObjectName moveName = MoveMetrics.name("performChessMove");
+        ObjectName rejectionsName = MoveMetrics.name("rejections");
+        server.registerMBean(move, moveName);
+        server.registerMBean(rejections, rejectionsName);
+
+        assertEquals(3L, server.getAttribute(moveName, "Count"));
+        assertEquals(2L, server.getAttribute(moveName, "SampleCount"));
+        assertEquals(200.0, server.getAttribute(moveName, "MeanNanos"));
+        assertEquals(300L, server.getAttribute(moveName, "MaxNanos"));
+        long p50 = (Long) server.getAttribute(moveName, "P50Nanos");
+        assertTrue(p50 >= 100 && p50 < 110, String.valueOf(p50));
+        assertEquals(3L, server.getAttribute(rejectionsName, "Total"));
+        TabularData reasons = (TabularData) server.getAttribute(rejectionsName, "Reasons");
+        assertEquals(2, reasons.size());
+        server.invoke(moveName, "reset", null, null);
+        assertEquals(0L, server.getAttribute(moveName, "Count"));
+    }
+}
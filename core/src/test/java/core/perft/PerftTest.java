@@ -0,0 +1,82 @@
+package core.perft;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    // posições de referência e contagens publicadas em https://www.chessprogramming.org/Perft_Results
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    private final Perft perft = new Perft();
+
+    @Test
+    void initialPosition_matchesReferenceCounts() {
+        ChessMatch match = new ChessMatch();
+        assertEquals(20, perft.perft(match, 1));
+        assertEquals(400, perft.perft(match, 2));
+        assertEquals(8902, perft.perft(match, 3));
+        assertEquals(197281, perft.perft(match, 4));
+    }
+
+    @Test
+    void kiwipete_exercisesCastlingAndPromotion() {
+        ChessMatch match = Fen.parse(KIWIPETE);
+        assertEquals(48, perft.perft(match, 1));
+        assertEquals(2039, perft.perft(match, 2));
+        assertEquals(97862, perft.perft(match, 3));
+    }
+
+    @Test
+    void position3_exercisesEnPassantDiscoveredChecks() {
+        ChessMatch match = Fen.parse(POSITION_3);
+        assertEquals(14, perft.perft(match, 1));
+        assertEquals(191, perft.perft(match, 2));
+        assertEquals(2812, perft.perft(match, 3));
+        assertEquals(43238, perft.perft(match, 4));
+    }
+
+    @Test
+    void position4_exercisesPromotionsWithCapture() {
+        ChessMatch match = Fen.parse(POSITION_4);
+        assertEquals(6, perft.perft(match, 1));
+        assertEquals(264, perft.perft(match, 2));
+        assertEquals(9467, perft.perft(match, 3));
+    }
+
+    @Test
+    void position5_matchesReferenceCounts() {
+        ChessMatch match = Fen.parse(POSITION_5);
+        assertEquals(44, perft.perft(match, 1));
+        assertEquals(1486, perft.perft(match, 2));
+        assertEquals(62379, perft.perft(match, 3));
+    }
+
+    @Test
+    void perft_leavesMatchUnchanged() {
+        ChessMatch match = Fen.parse(KIWIPETE);
+        long key = match.getZobristKey();
+        perft.perft(match, 3);
+        assertEquals(key, match.getZobristKey());
+    }
+
+    @Test
+    void divide_withHashTable_matchesSequentialCount() {
+        ChessMatch match = Fen.parse(KIWIPETE);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            long total = new Perft(new PerftTable(8)).divide(match, 3, pool, null);
+            assertEquals(97862, total);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package core.pgn;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.Move;
+import core.chess.exceptions.ChessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgnReaderTest {
+
+    private static final String OPERA_GAME = "[Event \"Paris\"]\n"
+            + "[White \"Paul Morphy\"]\n"
+            + "[Black \"Duke Karl / Count Isouard\"]\n"
+            + "[Result \"1-0\"]\n"
+            + "\n"
+            + "1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7\n"
+            + "8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7\n"
+            + "14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0\n"
+            + "\n";
+
+    private static final String SETUP_GAME = "[Event \"Setup\"]\n"
+            + "[SetUp \"1\"]\n"
+            + "[FEN \"4k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 1\"]\n"
+            + "\n"
+            + "1. exd6 {en passant} (1. e6 Kf8) 1... Kd7 $1 2. b8=N+ ; promoção sublinhada\n"
+            + "Kxd6 *\n"
+            + "\n";
+
+    private static final String ILLEGAL_GAME = "[Event \"Broken\"]\n\n1. e4 e5 2. Ke3 Nc6 0-1\n";
+
+    @Test
+    void read_replaysTagsMovesAndFinalPosition() throws IOException {
+        List<PgnGame> games = readAll(OPERA_GAME + SETUP_GAME + ILLEGAL_GAME, 1);
+
+        assertEquals(3, games.size());
+        PgnGame opera = games.get(0);
+        assertTrue(opera.isValid(), opera.getError());
+        assertEquals("Paul Morphy", opera.getTag("White"));
+        assertEquals("1-0", opera.getResult());
+        assertEquals(33, opera.getMoves().length);
+        assertEquals("e1c1", Move.toString(opera.getMoves()[22]));
+        assertEquals("1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 1 17", Fen.toFen(opera.getMatch()));
+        assertTrue(opera.getMatch().isCheck());
+
+        PgnGame setup = games.get(1);
+        assertTrue(setup.isValid(), setup.getError());
+        assertEquals("*", setup.getResult());
+        assertEquals("e5d6 e8d7 b7b8n d7d6", moves(setup));
+
+        PgnGame broken = games.get(2);
+        assertFalse(broken.isValid());
+        assertTrue(broken.getError().startsWith("Move 2"), broken.getError());
+        assertEquals(2, broken.getMoves().length);
+    }
+
+    @Test
+    void read_inParallel_deliversEveryGameOfALargeStream() throws IOException {
+        StringBuilder archive = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            archive.append(OPERA_GAME).append(SETUP_GAME);
+        }
+        List<PgnGame> games = new CopyOnWriteArrayList<>();
+        PgnStats stats = new PgnReader(3).read(channel(archive.toString()), games::add);
+
+        assertEquals(1200, stats.getGames());
+        assertEquals(0, stats.getInvalidGames());
+        assertEquals(1200, games.size());
+        boolean[] seen = new boolean[1200];
+        for (PgnGame game : games) {
+            seen[(int) game.getIndex()] = true;
+            assertEquals(game.getIndex() % 2 == 0 ? 33 : 4, game.getMoves().length);
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+
+    @Test
+    void parse_replaysAsGameMoves_soTheFinalMatchKnowsTheResultAndKeepsPlaying() {
+        PgnGame mate = PgnGame.parse(0, "1. f3 e5 2. g4 Qh4# 0-1\n");
+        assertTrue(mate.isValid(), mate.getError());
+        assertTrue(mate.getMatch().isCheckMate());
+        assertEquals(core.chess.enums.GameState.CHECKMATE, mate.getMatch().getState());
+
+        ChessMatch opening = PgnGame.parse(1, "1. e4 e5 *\n").getMatch();
+        opening.performChessMove(new core.chess.ChessPosition('g', 1), new core.chess.ChessPosition('f', 3));
+        opening.takeback();
+        opening.takeback();
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(opening));
+    }
+
+    @Test
+    void parse_numbersTheFailedMoveFromTheStartPosition() {
+        String tags = "[FEN \"4k3/8/8/8/8/8/4P3/4K3 b - - 0 30\"]\n\n";
+        PgnGame black = PgnGame.parse(0, tags + "30... Qd8 *\n");
+        assertEquals("Move 30...: Illegal move: Qd8", black.getError());
+
+        PgnGame white = PgnGame.parse(1, tags + "30... Kd7 31. e5 *\n");
+        assertTrue(white.getError().startsWith("Move 31: "), white.getError());
+        assertEquals(1, white.getMoves().length);
+    }
+
+    @Test
+    void san_rejectsAmbiguousAndIllegalMoves() {
+        ChessMatch match = Fen.parse("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        int[] buffer = new int[256];
+
+        assertThrows(ChessException.class, () -> San.resolve(match, "Rd1", buffer));
+        assertEquals("a1d1", Move.toString(San.resolve(match, "Rad1", buffer)));
+        assertEquals("e1g1", Move.toString(San.resolve(Fen.parse("4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1"), "0-0", buffer)));
+        assertThrows(ChessException.class, () -> San.resolve(match, "Rh9", buffer));
+        assertThrows(ChessException.class, () -> San.resolve(match, "Nf3", buffer));
+    }
+
+    private static List<PgnGame> readAll(String pgn, int threads) throws IOException {
+        List<PgnGame> games = new CopyOnWriteArrayList<>();
+        new PgnReader(threads).read(channel(pgn), games::add);
+        games.sort((a, b) -> Long.compare(a.getIndex(), b.getIndex()));
+        return games;
+    }
+
+    private static java.nio.channels.ReadableByteChannel channel(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String moves(PgnGame game) {
+        StringBuilder sb = new StringBuilder();
+        for (int move : game.getMoves()) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    @Test
+    void protocol_playsFoolsMateOverLoopback() throws IOException {
+        try (GameServer server = GameServer.start(0);
+             Client client = new Client(server.getPort())) {
+            String created = client.send("CREATE");
+            assertTrue(created.startsWith("OK "), created);
+            String id = created.substring(3);
+
+            assertEquals("OK e4 e3", client.send("MOVES " + id + " e2"));
+            assertEquals("OK - PLAYING", client.send("MOVE " + id + " f2 f3"));
+            assertEquals("OK - PLAYING", client.send("MOVE " + id + " e7 e5"));
+            assertEquals("OK - PLAYING", client.send("MOVE " + id + " g2 g4"));
+            assertEquals("OK - CHECKMATE", client.send("MOVE " + id + " d8 h4"));
+            assertEquals("OK CHECKMATE rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+                    client.send("STATE " + id));
+            assertTrue(client.send("MOVE " + id + " a2 a3").startsWith("ERR"));
+            assertTrue(client.send("STATE 999").startsWith("ERR"));
+        }
+    }
+
+    @Test
+    void journaledServer_recoversMatchesAfterARestart(@TempDir Path dir) throws IOException {
+        String state;
+        try (GameServer server = GameServer.start(0, dir.resolve("journal"));
+             Client client = new Client(server.getPort())) {
+            assertEquals("OK 1", client.send("CREATE"));
+            assertEquals("OK - PLAYING", client.send("MOVE 1 e2 e4"));
+            assertEquals("OK - PLAYING", client.send("MOVE 1 c7 c5"));
+            state = client.send("STATE 1");
+        }
+
+        try (GameServer server = GameServer.start(0, dir.resolve("journal"));
+             Client client = new Client(server.getPort())) {
+            assertEquals(state, client.send("STATE 1"));
+            assertEquals("OK 2", client.send("CREATE"));
+        }
+    }
+
+    @Test
+    void concurrentMovesOnSameMatch_areSerialized() throws Exception {
+        CommandHandler handler = new CommandHandler();
+        String id = handler.handle("CREATE").substring(3);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> handler.handle("MOVE " + id + " e2 e4")));
+            }
+            int accepted = 0;
+            for (Future<String> result : results) {
+                if (result.get().startsWith("OK")) accepted++;
+            }
+            assertEquals(1, accepted, "apenas um dos lances simultâneos pode ser aplicado");
+            assertTrue(handler.handle("STATE " + id).endsWith(" b KQkq e3 0 1"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void handle_reportsIllegalStateAsAnError() {
+        ChessMatch match = new ChessMatch();
+        // com um lance interno por desfazer, performChessMove termina com IllegalStateException
+        int[] moves = new int[256];
+        match.legalMoves(moves);
+        match.makeMove(moves[0]);
+        MatchRegistry registry = new MatchRegistry(16, 10, TimeUnit.MINUTES);
+        registry.add(new GameSession(1, match));
+        CommandHandler handler = new CommandHandler(registry);
+
+        assertEquals("ERR Unmake the internal moves before playing a move", handler.handle("MOVE 1 e7 e5"));
+        assertTrue(handler.handle("STATE 1").startsWith("OK "));
+    }
+
+    @Test
+    void manyClients_hostIndependentMatches() throws Exception {
+        try (GameServer server = GameServer.start(0)) {
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    Callable<String> game = () -> {
+                        try (Client client = new Client(server.getPort())) {
+                            String id = client.send("CREATE").substring(3);
+                            client.send("MOVE " + id + " e2 e4");
+                            client.send("MOVE " + id + " e7 e5");
+                            return client.send("STATE " + id);
+                        }
+                    };
+                    results.add(pool.submit(game));
+                }
+                for (Future<String> result : results) {
+                    assertTrue(result.get().startsWith("OK PLAYING rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2"), result.get());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals(64, server.getHandler().getMatchCount());
+        }
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        String send(String line) throws IOException {
+            out.println(line);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
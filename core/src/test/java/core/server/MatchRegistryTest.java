@@ -0,0 +1,135 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.Fen;
+import core.chess.enums.PieceType;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchRegistryTest {
+
+    @Test
+    void lru_hibernatesTheLeastRecentlyUsed_andRehydratesOnTheNextCommand() {
+        MatchRegistry registry = new MatchRegistry(2, Long.MAX_VALUE, () -> 0L);
+        GameSession first = session(registry, 1);
+        GameSession second = session(registry, 2);
+        registry.get(1).move(position("e2"), position("e4"), null);
+        String expected = first.describe();
+
+        GameSession third = session(registry, 3);
+        assertTrue(second.isHibernated(), "a menos usada sai do LRU ao passar do limite");
+        assertFalse(first.isHibernated());
+        assertFalse(third.isHibernated());
+        assertEquals(2, registry.liveCount());
+        assertEquals(3, registry.size());
+
+        registry.get(2).move(position("d2"), position("d4"), null);
+        assertFalse(second.isHibernated());
+        assertTrue(first.isHibernated());
+        assertEquals(expected, first.describe(), "a consulta traz a partida de volta sem mudar nada");
+        assertEquals('P', first.getPieces()[4][4].toString().charAt(0));
+    }
+
+    @Test
+    void idleSessions_hibernateAfterThePeriod_andKeepRepetitionHistory() {
+        AtomicLong clock = new AtomicLong();
+        MatchRegistry registry = new MatchRegistry(100, 1_000, clock::get);
+        GameSession session = session(registry, 1);
+        String[] shuffle = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+        play(session, shuffle);
+
+        clock.addAndGet(999);
+        assertEquals(0, registry.hibernateIdle());
+        clock.addAndGet(1);
+        assertEquals(1, registry.hibernateIdle());
+        assertTrue(session.isHibernated());
+        assertEquals(0, registry.liveCount());
+
+        // a terceira ocorrência da posição inicial só é reconhecida se o histórico voltou com a partida
+        play(registry.get(1), shuffle);
+        assertEquals(GameSession.Status.DRAW, session.status());
+    }
+
+    @Test
+    void directQueries_rehydrateThroughTheLru() {
+        MatchRegistry registry = new MatchRegistry(1, Long.MAX_VALUE, () -> 0L);
+        GameSession first = session(registry, 1);
+        GameSession second = session(registry, 2);
+        assertTrue(first.isHibernated());
+
+        // consulta sem passar por get: a sessão volta ao LRU e a outra sai para manter o limite
+        assertEquals(GameSession.Status.PLAYING, first.status());
+        assertFalse(first.isHibernated());
+        assertTrue(second.isHibernated());
+        assertEquals(1, registry.liveCount());
+
+        second.move(position("e2"), position("e4"), null);
+        assertTrue(first.isHibernated());
+        assertEquals(1, registry.liveCount());
+    }
+
+    @Test
+    void server_hibernatesIdleMatchesWithoutCommands() throws Exception {
+        MatchRegistry registry = new MatchRegistry(100, 1, TimeUnit.MILLISECONDS);
+        try (GameServer server = GameServer.start(new InetSocketAddress(0), new CommandHandler(registry))) {
+            GameSession session = session(registry, 1);
+            server.scheduleHibernation(5, TimeUnit.MILLISECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!session.isHibernated() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(session.isHibernated());
+            assertEquals(0, registry.liveCount());
+        }
+    }
+
+    @Test
+    void hibernatedForm_restoresStartPositionPromotionsAndTakebacks() {
+        ChessMatch match = Fen.parse("4k3/P7/8/8/8/8/2p5/R3K2R w KQ - 0 1");
+        match.performChessMove(position("a7"), position("a8"));
+        match.replacePromotedPiece("N");
+        match.performChessMove(position("c2"), position("c1"));
+        match.replacePromotedPiece("R");
+        match.performChessMove(position("a1"), position("c1"));
+        match.performChessMove(position("e8"), position("d7"));
+
+        byte[] bytes = HibernatedMatch.encode(match);
+        ChessMatch restored = HibernatedMatch.decode(bytes);
+        assertTrue(bytes.length < 64, "forma compacta com " + bytes.length + " bytes");
+        assertEquals(Fen.toFen(match), Fen.toFen(restored));
+        assertEquals(match.getZobristKey(), restored.getZobristKey());
+        assertArrayEquals(match.getMoveHistory(), restored.getMoveHistory());
+        assertEquals(match.getStartFen(), restored.getStartFen());
+        assertEquals(PieceType.KNIGHT, restored.pieceAt(0).getType());
+
+        for (int i = 0; i < 4; i++) {
+            match.takeback();
+            restored.takeback();
+            assertEquals(Fen.toFen(match), Fen.toFen(restored));
+        }
+        assertEquals("4k3/P7/8/8/8/8/2p5/R3K2R w KQ - 0 1", Fen.toFen(restored));
+        assertNull(new ChessMatch().getStartFen());
+    }
+
+    private static GameSession session(MatchRegistry registry, long id) {
+        GameSession session = new GameSession(id, new ChessMatch());
+        registry.add(session);
+        return session;
+    }
+
+    private static void play(GameSession session, String[] squares) {
+        for (int i = 0; i < squares.length; i += 2) {
+            session.move(position(squares[i]), position(squares[i + 1]), null);
+        }
+    }
+
+    private static ChessPosition position(String square) {
+        return new ChessPosition(square.charAt(0), square.charAt(1) - '0');
+    }
+}
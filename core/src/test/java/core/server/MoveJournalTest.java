@@ -0,0 +1,275 @@
+package core.server;
+
+import core.chess.ChessMatch;
+import core.chess.ChessPosition;
+import core.chess.enums.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recover_rebuildsEveryMatchAfterARestart() throws IOException {
+        Path file = dir.resolve("moves");
+        String mate;
+        String promoted;
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            String first = id(handler.handle("CREATE"));
+            String second = id(handler.handle("CREATE"));
+            String third = id(handler.handle("CREATE"));
+            for (String move : new String[]{"f2 f3", "e7 e5", "g2 g4", "d8 h4"}) {
+                assertTrue(handler.handle("MOVE " + first + " " + move).startsWith("OK"));
+            }
+            for (String move : new String[]{"h2 h4", "g7 g5", "h4 g5", "a7 a6", "g5 g6", "a6 a5", "g6 h7", "a5 a4",
+                    "h7 g8 N"}) {
+                assertTrue(handler.handle("MOVE " + second + " " + move).startsWith("OK"), move);
+            }
+            // lances recusados não vão para o journal
+            assertTrue(handler.handle("MOVE " + second + " a4 a2").startsWith("ERR"));
+            assertTrue(handler.handle("RESIGN " + third).startsWith("OK"));
+            mate = handler.handle("STATE " + first);
+            promoted = handler.handle("STATE " + second);
+            assertTrue(promoted.contains("N"), promoted);
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            assertEquals(3, handler.getMatchCount());
+            assertEquals(mate, handler.handle("STATE 1"));
+            assertEquals(promoted, handler.handle("STATE 2"));
+            assertTrue(handler.handle("STATE 3").startsWith("OK RESIGNED"));
+            assertEquals("OK 4", handler.handle("CREATE"));
+            assertTrue(handler.handle("MOVE 2 a4 a3").startsWith("OK"));
+        }
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            assertTrue(handler(journal).handle("STATE 2").contains(" w "), "o lance depois da recuperação também foi gravado");
+        }
+    }
+
+    @Test
+    void open_discardsATornFinalRecord() throws IOException {
+        Path file = dir.resolve("torn");
+        try (MoveJournal journal = MoveJournal.open(file, 1, 0, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            handler.handle("CREATE");
+            handler.handle("MOVE 1 e2 e4");
+        }
+        Path segment = onlyFile(file, "journal-*.log");
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // um lance inteiro com CRC errado e a metade de outro
+            byte[] garbage = new byte[MoveJournal.RECORD_SIZE + MoveJournal.RECORD_SIZE / 2];
+            Arrays.fill(garbage, (byte) 2);
+            channel.write(ByteBuffer.wrap(garbage));
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, 1, 0, TimeUnit.MILLISECONDS)) {
+            assertEquals(size, Files.size(segment));
+            CommandHandler handler = handler(journal);
+            assertTrue(handler.handle("STATE 1").endsWith(" b KQkq e3 0 1"));
+        }
+    }
+
+    @Test
+    void append_failedWritePoisonsTheJournal_andKeepsEarlierRecords() throws IOException {
+        Path file = dir.resolve("failed");
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            handler.handle("CREATE");
+            handler.handle("MOVE 1 e2 e4");
+            // escrita em canal de thread interrompida: o canal é fechado e o registro não pode ser desfeito
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(IOException.class, () -> journal.resign(1, 2));
+            } finally {
+                Thread.interrupted();
+            }
+            assertThrows(IOException.class, () -> journal.resign(1, 2));
+            assertThrows(IOException.class, () -> journal.awaitDurable(3));
+            assertTrue(handler.handle("MOVE 1 e7 e5").startsWith("ERR"), "o lance não é aceito sem ir para o journal");
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            assertTrue(handler.handle("STATE 1").endsWith(" b KQkq e3 0 1"));
+            assertTrue(handler.handle("MOVE 1 e7 e5").startsWith("OK"));
+        }
+    }
+
+    @Test
+    void awaitDurable_coversConcurrentWritersWithGroupedFsyncs() throws Exception {
+        Path file = dir.resolve("group");
+        int writers = 8;
+        int moves = 200;
+        try (MoveJournal journal = MoveJournal.open(file, 32, 2, TimeUnit.MILLISECONDS)) {
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    long id = w + 1;
+                    results.add(pool.submit(() -> {
+                        long sequence = journal.create(id);
+                        for (int i = 0; i < moves; i++) {
+                            sequence = journal.resign(id, i + 1);
+                        }
+                        journal.awaitDurable(sequence);
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals((long) writers * (moves + 1) * MoveJournal.RECORD_SIZE,
+                    Files.size(onlyFile(file, "journal-*.log")));
+        }
+    }
+
+    @Test
+    void awaitDurable_syncsALoneWriterWithoutWaitingForTheBatch() throws IOException {
+        // prazo de 30 s: só os registros que chegam durante um fsync esperariam por ele
+        try (MoveJournal journal = MoveJournal.open(dir.resolve("idle"), 256, 30, TimeUnit.SECONDS)) {
+            long start = System.nanoTime();
+            for (int i = 1; i <= 3; i++) {
+                journal.awaitDurable(journal.resign(1, i));
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        }
+    }
+
+    @Test
+    void snapshot_dropsOldSegments_andRecoveryReplaysOnlyTheTail() throws Exception {
+        Path file = dir.resolve("compacted");
+        String before;
+        String after;
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            for (int i = 0; i < 3; i++) {
+                handler.handle("CREATE");
+            }
+            handler.handle("MOVE 1 e2 e4");
+            handler.handle("MOVE 2 d2 d4");
+            handler.handle("RESIGN 3");
+            // hibernada: vai para a fotografia sem voltar à memória
+            assertTrue(handler.getRegistry().get(2).hibernate());
+            handler.snapshot();
+            assertEquals(1, count(file, "journal-*.log"));
+            assertEquals(1, count(file, "snapshot-*.snap"));
+            assertEquals(0, Files.size(onlyFile(file, "journal-*.log")), "o segmento novo começa vazio");
+            before = handler.handle("STATE 2");
+
+            // comandos simultâneos com a próxima fotografia: cada um entra nela ou no segmento seguinte, nunca
+            // nos dois nem em nenhum
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> snapshot = pool.submit(() -> {
+                    handler.snapshot();
+                    return null;
+                });
+                for (String move : new String[]{"e7 e5", "g1 f3", "b8 c6", "f1 b5"}) {
+                    assertTrue(handler.handle("MOVE 1 " + move).startsWith("OK"), move);
+                }
+                assertEquals("OK 4", handler.handle("CREATE"));
+                snapshot.get();
+            } finally {
+                pool.shutdownNow();
+            }
+            handler.handle("MOVE 4 g1 f3");
+            after = handler.handle("STATE 1");
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            CommandHandler handler = handler(journal);
+            assertEquals(4, handler.getMatchCount());
+            assertTrue(handler.getRegistry().sessions().stream()
+                    .filter(s -> s.getId() == 2 || s.getId() == 3).allMatch(GameSession::isHibernated));
+            assertEquals(after, handler.handle("STATE 1"));
+            assertEquals(before, handler.handle("STATE 2"));
+            assertTrue(handler.handle("STATE 3").startsWith("OK RESIGNED"));
+            assertTrue(handler.handle("STATE 4").contains(" b KQkq - 1 1"));
+            assertTrue(handler.handle("MOVE 2 d7 d5").startsWith("OK"));
+        }
+        try (MoveJournal journal = MoveJournal.open(file, 64, 1, TimeUnit.MILLISECONDS)) {
+            assertTrue(handler(journal).handle("STATE 2").contains(" w KQkq d6 0 2"));
+        }
+    }
+
+    @Test
+    void snapshotFile_roundTripsSessionsAcrossBufferRefills_andChecksTheSegment() throws IOException {
+        ChessMatch match = new ChessMatch();
+        match.performChessMove(new ChessPosition('e', 2), new ChessPosition('e', 4));
+        byte[] hibernated = HibernatedMatch.encode(match);
+        // sessões suficientes para vários enchimentos do buffer de 1 MB, com entradas cortadas na divisa
+        int sessions = 150_000;
+        List<GameSession> written = new ArrayList<>(sessions);
+        for (int i = 1; i <= sessions; i++) {
+            written.add(new GameSession(i, hibernated, i % 7 == 0 ? Color.BLACK : null, i % 5));
+        }
+        Path file = dir.resolve("snapshot-3.snap");
+        SnapshotFile.write(file, 3, written);
+        assertEquals(SnapshotFile.HEADER_SIZE + (long) sessions * (17 + hibernated.length), Files.size(file));
+
+        List<GameSession> read = SnapshotFile.read(file, 3);
+        assertEquals(sessions, read.size());
+        for (int i : new int[]{0, 1, 70_000, sessions - 1}) {
+            GameSession session = read.get(i);
+            assertEquals(i + 1, session.getId());
+            assertEquals(written.get(i).getCommands(), session.getCommands());
+            assertEquals(written.get(i).describe(), session.describe());
+        }
+        assertThrows(IOException.class, () -> SnapshotFile.read(file, 4), "o cabeçalho repete o número do arquivo");
+
+        // nada fica mapeado: o arquivo pode ser apagado logo depois da leitura, também no Windows
+        Files.delete(file);
+    }
+
+    private static Path onlyFile(Path directory, String glob) throws IOException {
+        try (var files = Files.newDirectoryStream(directory, glob)) {
+            List<Path> list = new ArrayList<>();
+            files.forEach(list::add);
+            assertEquals(1, list.size(), list.toString());
+            return list.get(0);
+        }
+    }
+
+    private static int count(Path directory, String glob) throws IOException {
+        try (var files = Files.newDirectoryStream(directory, glob)) {
+            int count = 0;
+            for (Path ignored : files) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static CommandHandler handler(MoveJournal journal) throws IOException {
+        return new CommandHandler(new MatchRegistry(100, 1, TimeUnit.HOURS), journal);
+    }
+
+    private static String id(String reply) {
+        assertTrue(reply.startsWith("OK "), reply);
+        return reply.substring(3);
+    }
+}
@@ -0,0 +1,146 @@
+package core.tablebase;
+
+import core.chess.ChessMatch;
+import core.chess.Fen;
+import core.chess.enums.Color;
+import core.chess.enums.PieceType;
+import core.engine.Search;
+import core.engine.SearchLimits;
+import core.engine.SearchResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebasesTest {
+
+    private static Tablebases tablebases;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void generate() {
+        tablebases = new Tablebases();
+        tablebases.generate("KQvK", 2);
+        tablebases.generate("KRvK", 2);
+        tablebases.generate("KPvK", 2);
+    }
+
+    @Test
+    void generate_findsTheKnownLongestMates() {
+        assertEquals(10, longestWin(tablebases.getTable("KQvK")));
+        assertEquals(16, longestWin(tablebases.getTable("KRvK")));
+        assertEquals(0, longestWin(tablebases.getTable("KBvK")));
+        assertEquals(0, longestWin(tablebases.getTable("KNvK")));
+        assertTrue(tablebases.getMaterials().containsAll(List.of("KQvK", "KRvK", "KBvK", "KNvK", "KPvK")));
+    }
+
+    @Test
+    void probe_matchesKnownPositionsInBothColorOrientations() {
+        assertEquals(Tablebases.MATE - 1, tablebases.probe(Fen.parse("k7/8/1K6/8/8/8/8/6Q1 w - - 0 1")));
+        assertEquals(Tablebases.MATE - 1, tablebases.probe(Fen.parse("6q1/8/8/8/8/1k6/8/K7 b - - 0 1")));
+        assertEquals(-(Tablebases.MATE - 2), tablebases.probe(Fen.parse("k7/8/1K6/8/8/8/8/Q7 b - - 0 1")));
+        // afogamento e peão de torre com o rei adversário no canto
+        assertEquals(0, tablebases.probe(Fen.parse("k7/8/1QK5/8/8/8/8/8 b - - 0 1")));
+        assertEquals(0, tablebases.probe(Fen.parse("k7/8/8/8/8/8/P7/7K w - - 0 1")));
+        assertEquals(Tablebases.UNKNOWN, tablebases.probe(new ChessMatch()));
+        assertEquals(Tablebases.UNKNOWN, tablebases.probe(Fen.parse("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1")));
+    }
+
+    @Test
+    void probe_agreesWithTheBestSuccessorForRandomPositions() {
+        SplittableRandom random = new SplittableRandom(15);
+        int[] moves = new int[256];
+        int checked = 0;
+        while (checked < 400) {
+            ChessMatch match = randomPosition(random, checked % 2 == 0 ? PieceType.PAWN : PieceType.ROOK);
+            if (match == null) {
+                continue;
+            }
+            int expected = tablebases.probe(match);
+            int count = match.legalMoves(moves);
+            int best = count == 0 ? (match.isCheck() ? -Tablebases.MATE : 0) : -Tablebases.MATE;
+            for (int i = 0; i < count; i++) {
+                match.makeMove(moves[i]);
+                int child = tablebases.probe(match);
+                match.unmakeMove();
+                best = Math.max(best, child > 0 ? -child + 1 : child < 0 ? -child - 1 : 0);
+            }
+            assertEquals(best, expected, Fen.toFen(match));
+            checked++;
+        }
+    }
+
+    @Test
+    void save_andLoad_keepEveryTable() throws IOException {
+        tablebases.save(dir);
+        Tablebases loaded = Tablebases.load(dir);
+        assertEquals(tablebases.getMaterials(), loaded.getMaterials());
+        ChessMatch match = Fen.parse("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        assertEquals(tablebases.probe(match), loaded.probe(match));
+    }
+
+    @Test
+    void search_usesTablebaseScoresBelowTheRoot() {
+        ChessMatch match = Fen.parse("8/8/8/4k3/8/8/8/4K2Q w - - 0 1");
+        Search search = new Search(1);
+        search.setTablebases(tablebases);
+        SearchResult result = search.search(match, SearchLimits.depth(2));
+        assertTrue(result.isMate(), "score " + result.getScore());
+        assertEquals(tablebases.probe(match), result.getScore());
+    }
+
+    private static int longestWin(Tablebase table) {
+        int longest = 0;
+        for (byte[] values : table.values) {
+            for (byte value : values) {
+                if (Tablebase.isWin(value & 0xFF)) {
+                    longest = Math.max(longest, value & 0xFF);
+                }
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Reis e uma peça branca em casas aleatórias, ou null se a posição for ilegal.
+     */
+    private static ChessMatch randomPosition(SplittableRandom random, PieceType type) {
+        char[] board = new char[64];
+        int[] squares = {random.nextInt(64), random.nextInt(64), random.nextInt(64)};
+        if (squares[0] == squares[1] || squares[0] == squares[2] || squares[1] == squares[2]
+                || type == PieceType.PAWN && (squares[2] < 8 || squares[2] >= 56)) {
+            return null;
+        }
+        board[squares[0]] = 'K';
+        board[squares[1]] = 'k';
+        board[squares[2]] = type.getLetter();
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                char c = board[row * 8 + col];
+                if (c == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) fen.append(empty);
+                empty = 0;
+                fen.append(c);
+            }
+            if (empty > 0) fen.append(empty);
+            if (row < 7) fen.append('/');
+        }
+        boolean white = random.nextBoolean();
+        fen.append(white ? " w - - 0 1" : " b - - 0 1");
+        ChessMatch match = Fen.parse(fen.toString());
+        return match.isInCheck(white ? Color.BLACK : Color.WHITE) ? null : match;
+    }
+}
@@ -1,44 +0,0 @@
-package core.chess;
-
-import core.board.Board;
-import core.board.Piece;
-import core.board.Position;
-import core.chess.enums.Color;
-
-public abstract class ChessPiece extends Piece {
-
-    private Color color;
-    private int moveCount;
-
-    public ChessPiece(Board board, Color color) {
-        super(board);
-        this.color = color;
-    }
-
-
-    public Color getColor() {
-        return color;
-    }
-
-    public int getMoveCount() {
-        return moveCount;
-    }
-
-    public void increaseMoveCount() {
-        moveCount++;
-    }
-
-    public void decreaseMoveCount() {
-        moveCount--;
-    }
-
-    public ChessPosition getChessPosition() {
-        return ChessPosition.fromPosition(position);
-    }
-
-    protected boolean isThereOpponentPiece(Position position) {
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p != null && p.getColor() != color;
-    }
-}
-